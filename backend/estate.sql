@@ -51,7 +51,9 @@ CREATE TABLE property_tbl (
                               property_jibun_juso varchar(200),
                               location_no int,
                               formated_date date,
-                              formated_price DECIMAL(10,2)
+                              formated_price DECIMAL(10,2),
+                              # 변경분 적재 시 자연 키 (지번 주소 + 계약일 + 층) 조회용
+                              KEY idx_property_natural (property_jibun_juso, contract_date, property_addr_floor)
 );
 
 
@@ -62,24 +64,93 @@ LOAD DATA LOCAL INFILE './property_tbl_final_3.csv'
     LINES TERMINATED BY '\n'; -- 행 구분자를 줄바꿈으로 설정
 
 # location 관련 tbl
+# 위경도 -> 힐베르트 곡선 키 (org.scoula.map.index.HilbertCurve.key 와 같은 계산)
+# - 위도 32 ~ 40, 경도 124 ~ 132 를 한 변 65536 칸으로 나누고, 영역 밖은 가장자리 칸으로 붙인다
+# - 확인용 값 (HilbertCurveTest.keyVectors): hilbert_key(126.978, 37.5665) = 1951604325, hilbert_key(129.0756, 35.1796) = 3535264528
+DROP FUNCTION IF EXISTS hilbert_key;
+DELIMITER $$
+CREATE FUNCTION hilbert_key(lon DOUBLE, lat DOUBLE) RETURNS BIGINT
+    DETERMINISTIC NO SQL
+BEGIN
+    DECLARE x INT;
+    DECLARE y INT;
+    DECLARE s INT DEFAULT 32768;
+    DECLARE rx INT;
+    DECLARE ry INT;
+    DECLARE t INT;
+    DECLARE k BIGINT DEFAULT 0;
+    IF lon IS NULL OR lat IS NULL THEN
+        RETURN NULL;
+    END IF;
+    SET x = LEAST(65535, GREATEST(0, FLOOR((lon - 124) * 8192)));
+    SET y = LEAST(65535, GREATEST(0, FLOOR((lat - 32) * 8192)));
+    WHILE s > 0 DO
+        SET rx = (x & s) > 0;
+        SET ry = (y & s) > 0;
+        SET k = k + s * s * ((3 * rx) ^ ry);
+        IF ry = 0 THEN
+            IF rx = 1 THEN
+                SET x = 65535 - x;
+                SET y = 65535 - y;
+            END IF;
+            SET t = x;
+            SET x = y;
+            SET y = t;
+        END IF;
+        SET s = s DIV 2;
+    END WHILE;
+    RETURN k;
+END$$
+DELIMITER ;
+
 DROP TABLE IF EXISTS property_location;
+# x_coordinate: 경도, y_coordinate: 위도 / location_point: POINT(경도, 위도) - 최근접 거리 계산용
+# hilbert_key: 지도 화면 조회용, 키 순 보조 인덱스에 좌표/가격을 같이 두어 화면 하나가 연속된 인덱스 구간 몇 개로 읽힌다
 CREATE TABLE property_location (
                                    location_no int AUTO_INCREMENT PRIMARY KEY,
                                    property_jibun_juso VARCHAR(50) NOT NULL,
                                    property_doro_juso VARCHAR(50),
                                    zipcode VARCHAR(50),
-                                   x_coordinate VARCHAR(255),
-                                   y_coordinate VARCHAR(255),
+                                   x_coordinate DOUBLE,
+                                   y_coordinate DOUBLE,
                                    formated_price DECIMAL(10,2),
-                                   jibun_juso VARCHAR(50)
+                                   jibun_juso VARCHAR(50),
+                                   location_point POINT NOT NULL,
+                                   hilbert_key BIGINT,
+                                   SPATIAL INDEX idx_property_location_point (location_point),
+                                   KEY idx_property_location_hilbert (hilbert_key, y_coordinate, x_coordinate, formated_price)
 );
 
 LOAD DATA LOCAL INFILE './property_location_final_3.csv'
     INTO TABLE estate.property_location
     FIELDS TERMINATED BY ',' -- 필드 구분자를 콤마로 설정
     OPTIONALLY ENCLOSED BY '"' -- 필드가 큰따옴표로 감싸져 있는 경우 처리
-    LINES TERMINATED BY '\n'; -- 행 구분자를 줄바꿈으로 설정
+    LINES TERMINATED BY '\n' -- 행 구분자를 줄바꿈으로 설정
+    (location_no, property_jibun_juso, property_doro_juso, zipcode, @x_coordinate, @y_coordinate, formated_price, jibun_juso)
+    SET x_coordinate   = CAST(NULLIF(TRIM(@x_coordinate), '') AS DOUBLE),
+        y_coordinate   = CAST(NULLIF(TRIM(@y_coordinate), '') AS DOUBLE),
+        location_point = Point(IFNULL(CAST(NULLIF(TRIM(@x_coordinate), '') AS DOUBLE), 0),
+                               IFNULL(CAST(NULLIF(TRIM(@y_coordinate), '') AS DOUBLE), 0)),
+        hilbert_key    = hilbert_key(CAST(NULLIF(TRIM(@x_coordinate), '') AS DOUBLE),
+                                     CAST(NULLIF(TRIM(@y_coordinate), '') AS DOUBLE));
 SELECT count(*) from property_location;
+
+# 시군구 / 법정동 가격 집계 (애플리케이션이 property_tbl 에서 계산해 채움)
+DROP TABLE IF EXISTS region_price_tbl;
+CREATE TABLE region_price_tbl (
+                                  region_level VARCHAR(10) NOT NULL,  -- sigungu, bubjung
+                                  region_code BIGINT NOT NULL,        -- 법정동: 시군구 코드 * 100000 + 법정동 코드
+                                  sigungu_code INT NOT NULL,
+                                  region_name VARCHAR(200),
+                                  tx_count INT NOT NULL,
+                                  p25_price DECIMAL(10,2),
+                                  median_price DECIMAL(10,2),
+                                  p75_price DECIMAL(10,2),
+                                  median_price_per_area DOUBLE,
+                                  refreshed_at BIGINT NOT NULL,       -- 갱신 시각 (epoch ms)
+                                  PRIMARY KEY (region_level, region_code),
+                                  INDEX idx_region_price_sigungu (sigungu_code)
+);
 -- member_report sample
 # desc member_report_tbl;
 # desc report_tbl;
@@ -0,0 +1,10 @@
+# 실거래 변경분 적재용 인덱스 추가 (estate.sql 로 새로 만든 DB 는 적용할 필요 없음)
+# - POST /api/ingest/property/delta 는 (지번 주소, 계약일, 층) 으로 기존 거래를 찾아 새 거래와 바뀐 거래만 반영한다
+# - 원본 데이터에 같은 키의 거래가 여럿 있을 수 있어 UNIQUE 가 아닌 일반 인덱스로 둔다
+#   (겹치면 파일의 n 번째 줄을 property_no 순 n 번째 기존 행과 맞춰 갱신하고, 기존 행보다 많은 줄은 추가, 남는 기존 행은 그대로 둔다)
+use estate;
+
+CREATE INDEX idx_property_natural ON property_tbl (property_jibun_juso, contract_date, property_addr_floor);
+
+# 확인
+SHOW INDEX FROM property_tbl WHERE Key_name = 'idx_property_natural';
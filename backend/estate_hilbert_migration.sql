@@ -0,0 +1,55 @@
+# property_location 힐베르트 키 컬럼 추가 (estate.sql 로 새로 만든 DB 는 적용할 필요 없음)
+# - 지도 화면 조회(MapMapper.xml)는 MBRContains 대신 hilbert_key 구간 + 좌표 조건으로 idx_property_location_hilbert 를 읽는다
+# - 키 계산은 org.scoula.map.index.HilbertCurve.key 와 같다
+use estate;
+
+# 1. 키 계산 함수
+DROP FUNCTION IF EXISTS hilbert_key;
+DELIMITER $$
+CREATE FUNCTION hilbert_key(lon DOUBLE, lat DOUBLE) RETURNS BIGINT
+    DETERMINISTIC NO SQL
+BEGIN
+    DECLARE x INT;
+    DECLARE y INT;
+    DECLARE s INT DEFAULT 32768;
+    DECLARE rx INT;
+    DECLARE ry INT;
+    DECLARE t INT;
+    DECLARE k BIGINT DEFAULT 0;
+    IF lon IS NULL OR lat IS NULL THEN
+        RETURN NULL;
+    END IF;
+    SET x = LEAST(65535, GREATEST(0, FLOOR((lon - 124) * 8192)));
+    SET y = LEAST(65535, GREATEST(0, FLOOR((lat - 32) * 8192)));
+    WHILE s > 0 DO
+        SET rx = (x & s) > 0;
+        SET ry = (y & s) > 0;
+        SET k = k + s * s * ((3 * rx) ^ ry);
+        IF ry = 0 THEN
+            IF rx = 1 THEN
+                SET x = 65535 - x;
+                SET y = 65535 - y;
+            END IF;
+            SET t = x;
+            SET x = y;
+            SET y = t;
+        END IF;
+        SET s = s DIV 2;
+    END WHILE;
+    RETURN k;
+END$$
+DELIMITER ;
+
+# 2. 컬럼 추가 후 채우기 (좌표가 없으면 NULL)
+ALTER TABLE property_location ADD COLUMN hilbert_key BIGINT NULL;
+
+UPDATE property_location
+SET hilbert_key = hilbert_key(x_coordinate, y_coordinate);
+
+# 3. 키 순 보조 인덱스 (좌표/가격까지 담아 화면 조회가 인덱스만 읽도록)
+CREATE INDEX idx_property_location_hilbert
+    ON property_location (hilbert_key, y_coordinate, x_coordinate, formated_price);
+
+# 확인
+SELECT COUNT(*) AS total, SUM(hilbert_key IS NULL) AS missing_key
+FROM property_location;
@@ -0,0 +1,32 @@
+# property_location 좌표 컬럼 숫자/공간 타입 전환 (estate.sql 로 새로 만든 DB 는 적용할 필요 없음)
+# - VARCHAR 좌표를 DOUBLE 로 바꾸고, POINT(경도, 위도) 컬럼과 SPATIAL INDEX 를 추가한다
+# - 인덱스 적재 전 최근접 조회(MapMapper.xml getNearestAddressList)는 maxDistance 가 있으면 location_point 에 대한 MBRContains 로 인덱스 범위 검색을 한다
+use estate;
+
+# 1. 숫자로 변환할 수 없는 좌표 정리
+UPDATE property_location
+SET x_coordinate = NULL
+WHERE TRIM(x_coordinate) = '' OR TRIM(x_coordinate) NOT REGEXP '^-?[0-9]+(\\.[0-9]+)?$';
+
+UPDATE property_location
+SET y_coordinate = NULL
+WHERE TRIM(y_coordinate) = '' OR TRIM(y_coordinate) NOT REGEXP '^-?[0-9]+(\\.[0-9]+)?$';
+
+# 2. DOUBLE 로 변경
+ALTER TABLE property_location
+    MODIFY x_coordinate DOUBLE,
+    MODIFY y_coordinate DOUBLE;
+
+# 3. 공간 컬럼 추가 후 채우기 (SPATIAL INDEX 는 NOT NULL 컬럼에만 만들 수 있음)
+ALTER TABLE property_location ADD COLUMN location_point POINT NULL;
+
+UPDATE property_location
+SET location_point = Point(IFNULL(x_coordinate, 0), IFNULL(y_coordinate, 0));
+
+ALTER TABLE property_location MODIFY location_point POINT NOT NULL;
+
+CREATE SPATIAL INDEX idx_property_location_point ON property_location (location_point);
+
+# 확인
+SELECT COUNT(*) AS total, SUM(x_coordinate IS NULL OR y_coordinate IS NULL) AS missing_coordinate
+FROM property_location;
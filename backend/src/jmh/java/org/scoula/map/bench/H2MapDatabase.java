@@ -0,0 +1,70 @@
+package org.scoula.map.bench;
+
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.scoula.ingest.jdbc.PropertyJdbc;
+import org.scoula.map.mapper.MapMapper;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * MapMapper.xml 을 그대로 실행할 수 있는 H2 인메모리 DB (MySQL 호환 모드)
+ * - 스키마는 estate.sql 의 property_location / property_tbl 중 지도 조회에 쓰는 열만
+ * - 위치는 적재 코드 (PropertyJdbc) 로 CSV 에서 넣고, 위치마다 거래 한 건을 만들어 조인 조건을 맞춘다
+ */
+public final class H2MapDatabase {
+
+    private static final String URL = "jdbc:h2:mem:map_bench;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private static final String[] SCHEMA = {
+            "CREATE ALIAS IF NOT EXISTS Point FOR 'org.scoula.map.bench.H2Spatial.point'",
+            "CREATE ALIAS IF NOT EXISTS ST_MakeEnvelope FOR 'org.scoula.map.bench.H2Spatial.makeEnvelope'",
+            "CREATE ALIAS IF NOT EXISTS MBRContains FOR 'org.scoula.map.bench.H2Spatial.mbrContains'",
+            "DROP TABLE IF EXISTS property_tbl",
+            "DROP TABLE IF EXISTS property_location",
+            "CREATE TABLE property_location ("
+                    + "location_no INT PRIMARY KEY, property_jibun_juso VARCHAR(255), property_doro_juso VARCHAR(255), "
+                    + "zipcode VARCHAR(10), x_coordinate DOUBLE, y_coordinate DOUBLE, formated_price DECIMAL(10, 2), "
+                    + "jibun_juso VARCHAR(255), location_point VARBINARY(16), hilbert_key BIGINT)",
+            "CREATE INDEX idx_property_location_hilbert ON property_location (hilbert_key, y_coordinate, x_coordinate, formated_price)",
+            "CREATE TABLE property_tbl ("
+                    + "property_no INT AUTO_INCREMENT PRIMARY KEY, location_no INT)",
+            "CREATE INDEX idx_property_location_no ON property_tbl (location_no)"};
+
+    private H2MapDatabase() {
+    }
+
+    public static SqlSessionFactory open(MapBenchmarkData data) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(URL);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : SCHEMA) {
+                    statement.execute(sql);
+                }
+            }
+            PropertyJdbc.locationInserter(INSERT_BATCH_SIZE, "").insert(connection, data.locations());
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO property_tbl (location_no) SELECT location_no FROM property_location");
+            }
+            connection.commit();
+        }
+
+        Configuration configuration = new Configuration(new Environment("jmh", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        // 같은 세션에서 같은 화면을 다시 조회해도 1 차 캐시 없이 매번 실행
+        configuration.setLocalCacheScope(LocalCacheScope.STATEMENT);
+        configuration.addMapper(MapMapper.class);
+        return new SqlSessionFactoryBuilder().build(configuration);
+    }
+}
@@ -0,0 +1,40 @@
+package org.scoula.map.bench;
+
+import java.nio.ByteBuffer;
+
+/**
+ * H2 에서 MapMapper.xml 의 MySQL 공간 함수 (Point, ST_MakeEnvelope, MBRContains) 를 흉내 내는 함수
+ * - 점은 (x, y), 사각형은 (minX, minY, maxX, maxY) 를 double 로 이어 붙인 VARBINARY
+ * - H2 에는 공간 인덱스가 없어 전체 행을 훑으므로, 결과는 MySQL R-트리 성능이 아니라 mapper 경로 (SQL 실행 + 결과 매핑) 비용으로 본다
+ */
+public final class H2Spatial {
+
+    private H2Spatial() {
+    }
+
+    public static byte[] point(double x, double y) {
+        return ByteBuffer.allocate(16).putDouble(x).putDouble(y).array();
+    }
+
+    public static byte[] makeEnvelope(byte[] corner1, byte[] corner2) {
+        ByteBuffer a = ByteBuffer.wrap(corner1);
+        ByteBuffer b = ByteBuffer.wrap(corner2);
+        double x1 = a.getDouble(0), y1 = a.getDouble(8);
+        double x2 = b.getDouble(0), y2 = b.getDouble(8);
+        return ByteBuffer.allocate(32)
+                .putDouble(Math.min(x1, x2)).putDouble(Math.min(y1, y2))
+                .putDouble(Math.max(x1, x2)).putDouble(Math.max(y1, y2))
+                .array();
+    }
+
+    public static boolean mbrContains(byte[] envelope, byte[] point) {
+        if (envelope == null || point == null) {
+            return false;
+        }
+        ByteBuffer e = ByteBuffer.wrap(envelope);
+        ByteBuffer p = ByteBuffer.wrap(point);
+        double x = p.getDouble(0);
+        double y = p.getDouble(8);
+        return x >= e.getDouble(0) && y >= e.getDouble(8) && x <= e.getDouble(16) && y <= e.getDouble(24);
+    }
+}
@@ -0,0 +1,126 @@
+package org.scoula.map.bench;
+
+import org.scoula.ingest.csv.MappedCsvReader;
+import org.scoula.ingest.csv.PropertyCsvFormat;
+import org.scoula.ingest.domain.PropertyLocationRow;
+import org.scoula.map.domain.MapVO;
+import org.scoula.map.index.ClusterIndex;
+import org.scoula.map.index.PropertyPointIndex;
+import org.scoula.map.index.ZoomLevelTable;
+import org.scoula.map.service.MapIndexService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * 벤치마크 공통 데이터: property_location CSV 와 그것으로 만든 인메모리 인덱스, 화면 중심 좌표 목록
+ * - CSV 경로는 -Djmh.csv 로 바꿀 수 있다 (기본: backend/property_location_final_3.csv)
+ * - 한 JVM(fork) 안에서는 한 번만 읽는다
+ */
+public final class MapBenchmarkData {
+
+    // estate.sql 의 zoom_levels 와 같은 값 (레벨, 위도 범위, 경도 범위)
+    static final double[][] ZOOM_LEVELS = {
+            {1, 0.00089, 0.00243}, {2, 0.00178, 0.00486}, {3, 0.00356, 0.00971}, {4, 0.00713, 0.01942},
+            {5, 0.01425, 0.03884}, {6, 0.02851, 0.07768}, {7, 0.05704, 0.15536}, {8, 0.11408, 0.31071},
+            {9, 0.22827, 0.62134}, {10, 0.45702, 1.24239}, {11, 0.91583, 2.48355}, {12, 1.84780, 4.96287},
+            {13, 3.72996, 9.89265}};
+
+    // 화면 중심 후보 수 (2 의 거듭제곱), 같은 화면만 반복 조회하지 않도록 돌아가며 쓴다
+    private static final int CENTER_COUNT = 256;
+    private static final long CENTER_SEED = 42;
+
+    private static MapBenchmarkData instance;
+
+    private final List<PropertyLocationRow> locations;
+    private final PropertyPointIndex points;
+    private final ClusterIndex clusters;
+    private final ZoomLevelTable zoomLevels;
+    private final double[] centerLats = new double[CENTER_COUNT];
+    private final double[] centerLons = new double[CENTER_COUNT];
+
+    private MapBenchmarkData(List<PropertyLocationRow> locations) {
+        this.locations = locations;
+
+        ZoomLevelTable.Builder zoomBuilder = new ZoomLevelTable.Builder();
+        for (double[] level : ZOOM_LEVELS) {
+            zoomBuilder.add((int) level[0], level[1], level[2]);
+        }
+        zoomLevels = zoomBuilder.build();
+
+        // MapIndexService.reload 와 같은 방식 (좌표 없는 위치는 인덱스에서 빠짐)
+        PropertyPointIndex.Builder builder = new PropertyPointIndex.Builder(locations.size());
+        for (PropertyLocationRow row : locations) {
+            builder.add(row.getLocationNo(),
+                    row.getYCoordinate() != null ? row.getYCoordinate() : Double.NaN,
+                    row.getXCoordinate() != null ? row.getXCoordinate() : Double.NaN,
+                    row.getFormatedPrice() != null ? row.getFormatedPrice() : Double.NaN);
+        }
+        points = builder.build();
+        clusters = MapIndexService.buildClusterIndex(points, zoomLevels);
+
+        // 실제 위치를 화면 중심으로 써서 데이터가 있는 곳을 조회한다
+        Random random = new Random(CENTER_SEED);
+        for (int i = 0; i < CENTER_COUNT && points.size() > 0; i++) {
+            int slot = random.nextInt(points.size());
+            centerLats[i] = points.lat(slot);
+            centerLons[i] = points.lon(slot);
+        }
+    }
+
+    public static synchronized MapBenchmarkData load() throws IOException {
+        if (instance == null) {
+            Path csv = Paths.get(System.getProperty("jmh.csv", "property_location_final_3.csv"));
+            List<PropertyLocationRow> rows = MappedCsvReader.read(csv, Runtime.getRuntime().availableProcessors(),
+                    PropertyCsvFormat::toLocation);
+            rows.removeIf(row -> row == null || row.getLocationNo() == null);
+            instance = new MapBenchmarkData(rows);
+        }
+        return instance;
+    }
+
+    public List<PropertyLocationRow> locations() {
+        return locations;
+    }
+
+    public PropertyPointIndex points() {
+        return points;
+    }
+
+    public ClusterIndex clusters() {
+        return clusters;
+    }
+
+    public ZoomLevelTable zoomLevels() {
+        return zoomLevels;
+    }
+
+    /**
+     * i 번째 화면 중심 (CENTER_COUNT 개를 돌아가며) 의 화면 사각형
+     */
+    public ZoomLevelTable.Viewport viewport(int i, double zoomLevel) {
+        int center = i & (CENTER_COUNT - 1);
+        return Objects.requireNonNull(zoomLevels.viewport(centerLats[center], centerLons[center], zoomLevel, Double.NaN),
+                "zoom_levels 에 없는 줌 레벨입니다: " + zoomLevel);
+    }
+
+    /**
+     * 화면 안의 마커를 MapServiceImpl 과 같은 형태의 MapVO 로 만든다
+     */
+    public List<MapVO> markers(ZoomLevelTable.Viewport viewport) {
+        int[] slots = points.search(viewport.minLat(), viewport.maxLat(), viewport.minLon(), viewport.maxLon());
+        List<MapVO> markers = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            markers.add(new MapVO(points.locationNo(slot),
+                    points.lon(slot),
+                    points.lat(slot),
+                    points.hasPrice(slot) ? Double.toString(points.price(slot)) : null));
+        }
+        return markers;
+    }
+}
@@ -0,0 +1,68 @@
+package org.scoula.map.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.scoula.map.index.ClusterIndex;
+import org.scoula.map.index.PropertyPointIndex;
+import org.scoula.map.index.ZoomLevelTable;
+import org.scoula.map.service.MapIndexService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인메모리 경로의 화면 조회: 줌 레벨 표로 화면 사각형 계산 + 공간 인덱스 / 클러스터 계층 조회
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapIndexBenchmark {
+
+    @Param({"3", "6", "9"})
+    public int zoomLevel;
+
+    private MapBenchmarkData data;
+    private PropertyPointIndex points;
+    private ClusterIndex.Level clusterLevel;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        data = MapBenchmarkData.load();
+        points = data.points();
+        ClusterIndex clusters = data.clusters();
+        clusterLevel = clusters.level(Math.min(zoomLevel, clusters.maxLevel()));
+    }
+
+    @Benchmark
+    public int[] pointSearch() {
+        ZoomLevelTable.Viewport viewport = data.viewport(next++, zoomLevel);
+        return points.search(viewport.minLat(), viewport.maxLat(), viewport.minLon(), viewport.maxLon());
+    }
+
+    @Benchmark
+    public int[] clusterSearch() {
+        ZoomLevelTable.Viewport viewport = data.viewport(next++, zoomLevel);
+        return clusterLevel.search(viewport.minLat(), viewport.maxLat(), viewport.minLon(), viewport.maxLon());
+    }
+
+    // 클러스터 계층 전체 생성 (인덱스 재적재 시 비용)
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ClusterIndex buildClusterIndex() {
+        return MapIndexService.buildClusterIndex(points, data.zoomLevels());
+    }
+}
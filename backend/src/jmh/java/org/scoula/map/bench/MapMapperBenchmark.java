@@ -0,0 +1,83 @@
+package org.scoula.map.bench;
+
+import org.apache.ibatis.session.SqlSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.scoula.map.domain.KeyRangeVO;
+import org.scoula.map.domain.MapClusterVO;
+import org.scoula.map.domain.MapVO;
+import org.scoula.map.index.HilbertCurve;
+import org.scoula.map.index.ZoomLevelTable;
+import org.scoula.map.mapper.MapMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인덱스 적재 전 (mapper) 경로의 화면 조회: MapMapper.xml 을 H2 에서 실행
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapMapperBenchmark {
+
+    // MapServiceImpl 과 같은 구간 수
+    private static final int MAX_KEY_RANGES = 16;
+
+    @Param({"3", "6", "9"})
+    public int zoomLevel;
+
+    private MapBenchmarkData data;
+    private SqlSession session;
+    private MapMapper mapper;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        data = MapBenchmarkData.load();
+        session = H2MapDatabase.open(data).openSession();
+        mapper = session.getMapper(MapMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public List<MapVO> getAddressListMoveAll() {
+        ZoomLevelTable.Viewport viewport = data.viewport(next++, zoomLevel);
+        return mapper.getAddressListMoveAll(keyRanges(viewport), viewport.minLat(), viewport.maxLat(), viewport.minLon(), viewport.maxLon());
+    }
+
+    // /moveclusterall/cursor 첫 페이지 (기본 limit 200 + 다음 페이지 확인용 1 건)
+    @Benchmark
+    public List<MapClusterVO> getAddressListMoveClusterAfter() {
+        ZoomLevelTable.Viewport viewport = data.viewport(next++, zoomLevel);
+        return mapper.getAddressListMoveClusterAfter(keyRanges(viewport), viewport.minLat(), viewport.maxLat(), viewport.minLon(), viewport.maxLon(), 0, 201);
+    }
+
+    private static List<KeyRangeVO> keyRanges(ZoomLevelTable.Viewport viewport) {
+        long[] ranges = HilbertCurve.ranges(viewport.minLat(), viewport.maxLat(), viewport.minLon(), viewport.maxLon(), MAX_KEY_RANGES);
+        List<KeyRangeVO> keyRanges = new ArrayList<>(ranges.length / 2);
+        for (int i = 0; i < ranges.length; i += 2) {
+            keyRanges.add(new KeyRangeVO(ranges[i], ranges[i + 1]));
+        }
+        return keyRanges;
+    }
+}
@@ -0,0 +1,74 @@
+package org.scoula.map.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.scoula.map.codec.MarkerColumns;
+import org.scoula.map.domain.MapVO;
+import org.scoula.map.index.ZoomLevelTable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /moveall 응답 직렬화: MapVO 목록 JSON 과 열 형식 (JSON, 바이너리) 을 화면 크기별로 비교
+ * - 화면 중심은 서울시청 주변으로 고정해 줌 레벨마다 마커 수가 정해지도록 한다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapSerializationBenchmark {
+
+    private static final double CENTER_LAT = 37.5665;
+    private static final double CENTER_LON = 126.9780;
+
+    @Param({"3", "6", "9"})
+    public int zoomLevel;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<MapVO> markers;
+    private MarkerColumns columns;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        MapBenchmarkData data = MapBenchmarkData.load();
+        ZoomLevelTable.Viewport viewport = data.zoomLevels().viewport(CENTER_LAT, CENTER_LON, zoomLevel, Double.NaN);
+        markers = data.markers(viewport);
+        columns = new MarkerColumns(markers.size());
+        for (int i = 0; i < markers.size(); i++) {
+            MapVO marker = markers.get(i);
+            columns.set(i, marker.getLocationNo(), marker.getYCoordinate(), marker.getXCoordinate(),
+                    marker.getPrice() != null ? Double.parseDouble(marker.getPrice()) : Double.NaN);
+        }
+        System.out.println("zoomLevel " + zoomLevel + " : 마커 " + markers.size() + "건");
+    }
+
+    @Benchmark
+    public byte[] mapVoJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(markers);
+    }
+
+    @Benchmark
+    public byte[] markerColumnsJson() {
+        return columns.toJson();
+    }
+
+    @Benchmark
+    public byte[] markerColumnsBinary() {
+        return columns.toBinary();
+    }
+}
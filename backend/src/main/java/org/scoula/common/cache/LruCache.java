@@ -0,0 +1,143 @@
+package org.scoula.common.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * 가중치(바이트 수, 원소 수 등) 합계로 크기를 제한하는 LRU 캐시
+ * - 가장 오래 사용되지 않은 항목부터 제거한다
+ * - TTL 을 지정하면 저장 후 TTL 이 지난 항목은 조회되지 않고 제거된다
+ * - 모든 연산은 동기화되어 있어 여러 요청 스레드에서 함께 사용할 수 있다
+ * - 조회 적중/실패, 제거 횟수를 센다 (invalidateAll 로는 초기화되지 않음)
+ */
+public class LruCache<K, V> {
+
+    private final long maxWeight;
+    private final long ttlNanos; // 0 이면 만료 없음
+    private final ToIntFunction<? super V> weigher;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public LruCache(long maxWeight, ToIntFunction<? super V> weigher) {
+        this(maxWeight, weigher, Duration.ZERO);
+    }
+
+    public LruCache(long maxWeight, ToIntFunction<? super V> weigher, Duration ttl) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive: " + maxWeight);
+        }
+        if (ttl.isNegative()) {
+            throw new IllegalArgumentException("ttl must not be negative: " + ttl);
+        }
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttl.toNanos();
+        this.weigher = weigher;
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            remove(key);
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        int valueWeight = weigher.applyAsInt(value);
+        remove(key);
+        // 한 항목이 전체 한도보다 크면 캐시하지 않는다
+        if (valueWeight > maxWeight) {
+            return;
+        }
+        long expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0;
+        entries.put(key, new Entry<>(value, valueWeight, expiresAt));
+        weight += valueWeight;
+        evict();
+    }
+
+    public synchronized void invalidate(K key) {
+        remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    private void remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    // 한도를 넘으면 만료된 항목을 먼저 버리고, 그래도 넘으면 오래 사용되지 않은 순서로 제거
+    private void evict() {
+        if (weight > maxWeight && ttlNanos > 0) {
+            long now = System.nanoTime();
+            entries.values().removeIf(entry -> {
+                if (entry.isExpired(now)) {
+                    weight -= entry.weight;
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            });
+        }
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            weight -= iterator.next().getValue().weight;
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final int weight;
+        private final long expiresAt;
+
+        private Entry(V value, int weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt != 0 && now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.scoula.common.pagination;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.scoula.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 커서(seek) 방식 페이지 - 마지막으로 내려준 정렬 키를 불투명한 토큰으로 감싸 다음 요청에 넘긴다
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CursorPage<T> {
+    private static final String CURSOR_PREFIX = "k1:";
+
+    private List<T> list;      // 데이터 목록
+    private String nextCursor; // 다음 페이지 토큰, 마지막 페이지면 null
+    private boolean hasNext;   // 다음 페이지 존재 여부
+
+    public static <T> CursorPage<T> of(List<T> list, String nextCursor) {
+        return new CursorPage<>(list, nextCursor, nextCursor != null);
+    }
+
+    public static String encodeCursor(long lastKey) {
+        byte[] raw = (CURSOR_PREFIX + lastKey).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    // 토큰이 없으면 처음부터 (0)
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(CURSOR_PREFIX)) {
+                throw new BadRequestException("잘못된 커서입니다.");
+            }
+            return Long.parseLong(raw.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) { // NumberFormatException 포함
+            throw new BadRequestException("잘못된 커서입니다.", e);
+        }
+    }
+}
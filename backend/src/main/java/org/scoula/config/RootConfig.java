@@ -9,6 +9,7 @@ import org.mybatis.spring.SqlSessionFactoryBean;
 import org.mybatis.spring.annotation.MapperScan;
 import org.scoula.safety_inspection.codef.EasyCodef;
 import org.scoula.safety_inspection.codef.EasyCodefClientInfo;
+import org.scoula.safety_inspection.codef.EasyCodefResponseCache;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -16,10 +17,21 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
 @PropertySource({"classpath:/application.properties"})
@@ -43,6 +55,7 @@ import javax.sql.DataSource;
         "org.scoula.dictionary.service",
         "org.scoula.faq.service",
         "org.scoula.map.service",
+        "org.scoula.ingest.service",
         "org.scoula.chat.service",
         "org.scoula.like.dictionary.service",
         "org.scoula.prevention.service",
@@ -54,6 +67,7 @@ import javax.sql.DataSource;
 })
 @Slf4j
 @EnableTransactionManagement
+@EnableScheduling
 public class RootConfig {
 
     @Value("${jdbc.driver}") String driver;
@@ -61,6 +75,19 @@ public class RootConfig {
     @Value("${jdbc.username}") String username;
     @Value("${jdbc.password}") String password;
 
+    @Value("${codef.executor.threads:8}") int codefThreads;
+    @Value("${codef.executor.queue-capacity:32}") int codefQueueCapacity;
+
+    // CODEF 상품 조회 응답 캐시: TTL 0 이면 사용 안 함, 디렉터리를 비우면 메모리에만 둔다
+    // - 등기부등본 발급은 캐시하지 않는다 (EasyCodefResponseCache.key), 주소 -> 고유번호 조회와 건축물대장만 TTL 동안 재사용
+    // - TTL 안에서는 그 사이 바뀐 건축물대장 (위반건축물 표시, 소유자 등) 이 반영되지 않으므로 더 최신이 필요하면 TTL 을 줄인다
+    @Value("${codef.cache.ttl-minutes:1440}") long codefCacheTtlMinutes;
+    @Value("${codef.cache.max-chars:33554432}") long codefCacheMaxChars;
+    @Value("${codef.cache.dir:}") String codefCacheDir;
+
+    @Value("${inspection.job.threads:4}") int inspectionJobThreads;
+    @Value("${inspection.job.queue-capacity:100}") int inspectionJobQueueCapacity;
+
     @Bean
     public DataSource dataSource() {
         HikariConfig config = new HikariConfig();
@@ -92,13 +119,50 @@ public class RootConfig {
     }
 
     @Bean
-    public EasyCodef easyCodef() {
+    public EasyCodef easyCodef() throws IOException {
         EasyCodef easyCodef = new EasyCodef();
         easyCodef.setClientInfoForDemo(EasyCodefClientInfo.DEMO_CLIENT_ID, EasyCodefClientInfo.DEMO_CLIENT_SECRET);
         easyCodef.setPublicKey(EasyCodefClientInfo.PUBLIC_KEY);
+        if (codefCacheTtlMinutes > 0) {
+            Path cacheDir = codefCacheDir.isBlank() ? null : Paths.get(codefCacheDir);
+            easyCodef.setResponseCache(new EasyCodefResponseCache(codefCacheMaxChars,
+                    Duration.ofMinutes(codefCacheTtlMinutes), cacheDir));
+        }
         return easyCodef;
     }
 
+    // CODEF 조회 전용 스레드 풀 (안전 진단의 등기부등본 / 건축물대장 동시 조회)
+    // 큐까지 차면 거절한다 (RejectedExecutionException -> ApiExceptionAdvice 에서 503)
+    // 요청 스레드가 대신 실행하면 제한 시간이 걸리지 않고, 진단 작업 스레드까지 CODEF 응답을 기다리며 묶인다
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService codefExecutor() {
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(codefThreads, codefThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(codefQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "codef-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // 비동기 안전 진단 작업 (InspectionJobService) 실행용, 대기열이 차면 제출을 거절한다 (503)
+    // 종료 시 실행 중인 진단은 끝날 때까지 기다린다
+    @Bean
+    public ThreadPoolTaskExecutor inspectionJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(inspectionJobThreads);
+        executor.setMaxPoolSize(inspectionJobThreads);
+        executor.setQueueCapacity(inspectionJobQueueCapacity);
+        executor.setThreadNamePrefix("inspection-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(120);
+        return executor;
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         return new ObjectMapper();
@@ -16,6 +16,7 @@ import org.springframework.web.servlet.config.annotation.*;
         "org.scoula.dictionary.controller",
         "org.scoula.faq.controller",
         "org.scoula.map.controller",
+        "org.scoula.ingest.controller",
         "org.scoula.chat.controller",
         "org.scoula.oauth.controller",
         "org.scoula.like.dictionary.controller",
@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class ApiExceptionAdvice {
@@ -18,6 +19,24 @@ public class ApiExceptionAdvice {
                 .body("해당 ID의 요소가 없습니다.");
     }
 
+    // 요청 파라미터 검증 실패 (검증하는 쪽에서 사용자용 메시지로 던진 경우만)
+    @ExceptionHandler(BadRequestException.class)
+    protected ResponseEntity<String> handleBadRequest(BadRequestException e) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .header("Content-Type", "text/plain;charset=UTF-8")
+                .body(e.getMessage());
+    }
+
+    // 작업 실행 대기열이 가득 찬 경우
+    @ExceptionHandler(RejectedExecutionException.class)
+    protected ResponseEntity<String> handleRejected(RejectedExecutionException e) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Content-Type", "text/plain;charset=UTF-8")
+                .body("요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요.");
+    }
+
     @ExceptionHandler(Exception.class)
     protected ResponseEntity<String> handleException(Exception e) {
         return ResponseEntity
@@ -0,0 +1,14 @@
+package org.scoula.exception;
+
+/**
+ * 요청 파라미터 검증 실패 (400), 메시지는 그대로 응답 본문이 되므로 사용자에게 보여줄 문장만 담는다
+ */
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
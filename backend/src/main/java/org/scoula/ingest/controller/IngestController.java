@@ -0,0 +1,95 @@
+package org.scoula.ingest.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.scoula.exception.BadRequestException;
+import org.scoula.ingest.domain.DeltaIngestResultDTO;
+import org.scoula.ingest.domain.IngestResultDTO;
+import org.scoula.ingest.service.PropertyIngestService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.Principal;
+import java.util.NoSuchElementException;
+
+/**
+ * 실거래 CSV 적재 API (운영자용)
+ * - ingest.enabled=true 인 서버에서, ingest.admin-user-ids 에 있는 회원만 실행할 수 있다 (그 밖에는 403)
+ * - 파일은 ingest.base-dir 안의 이름으로만 지정할 수 있다
+ */
+@RestController
+@RequestMapping("/api/ingest")
+@RequiredArgsConstructor
+@Slf4j
+public class IngestController {
+
+    private final PropertyIngestService ingestService;
+
+    @Value("${ingest.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ingest.base-dir:.}")
+    private String baseDir;
+
+    // 적재를 실행할 수 있는 회원 userId (콤마 구분), 비어 있으면 아무도 실행할 수 없다
+    @Value("${ingest.admin-user-ids:}")
+    private String[] adminUserIds;
+
+    // property_location, property_tbl 을 CSV 내용으로 통째로 바꾼다
+    @PostMapping("/property")
+    public ResponseEntity<IngestResultDTO> ingestAll(@RequestParam(value = "locationFile", defaultValue = "property_location_final_3.csv") String locationFile,
+                                                     @RequestParam(value = "propertyFile", defaultValue = "property_tbl_final_3.csv") String propertyFile,
+                                                     Principal principal) throws Exception {
+        if (!isAllowed(principal)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(ingestService.ingestAll(resolve(locationFile), resolve(propertyFile)));
+    }
+
+    // 새 실거래 파일의 추가/변경분만 반영한다 (위치 파일은 선택)
+    @PostMapping("/property/delta")
+    public ResponseEntity<DeltaIngestResultDTO> ingestDelta(@RequestParam("propertyFile") String propertyFile,
+                                                            @RequestParam(value = "locationFile", required = false) String locationFile,
+                                                            Principal principal) throws Exception {
+        if (!isAllowed(principal)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(ingestService.ingestDelta(resolve(propertyFile),
+                locationFile == null || locationFile.isBlank() ? null : resolve(locationFile)));
+    }
+
+    // 테이블을 덮어쓰는 작업이므로 로그인만으로는 부족하고, 허용 목록의 회원이어야 한다
+    private boolean isAllowed(Principal principal) {
+        if (!enabled || principal == null) {
+            return false;
+        }
+        for (String userId : adminUserIds) {
+            if (!userId.isBlank() && userId.trim().equals(principal.getName())) {
+                return true;
+            }
+        }
+        log.warn("적재 권한 없음: " + principal.getName());
+        return false;
+    }
+
+    // base-dir 밖을 가리키는 경로는 허용하지 않는다
+    private Path resolve(String fileName) {
+        Path base = Paths.get(baseDir).toAbsolutePath().normalize();
+        Path file = base.resolve(fileName).normalize();
+        if (!file.startsWith(base)) {
+            throw new BadRequestException("허용되지 않는 파일 경로입니다: " + fileName);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new NoSuchElementException("파일이 없습니다: " + fileName);
+        }
+        return file;
+    }
+}
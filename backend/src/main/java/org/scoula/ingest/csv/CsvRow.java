@@ -0,0 +1,197 @@
+package org.scoula.ingest.csv;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * CSV 한 줄의 필드 위치 보기 (조각마다 하나를 재사용하므로 다른 스레드로 넘기거나 보관하지 않는다)
+ * - 필드 값은 바이트 구간으로만 기억하고, 요청한 형식으로 그 자리에서 변환한다
+ * - 큰따옴표로 감싼 필드는 따옴표를 뺀 구간을 가리키며, 안의 "" 는 문자열로 꺼낼 때만 " 로 바꾼다
+ */
+public final class CsvRow {
+
+    private final ByteBuffer buffer;
+    private int[] starts = new int[32];
+    private int[] ends = new int[32];
+    private boolean[] escaped = new boolean[32];
+    private int fieldCount;
+
+    CsvRow(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    // [lineStart, lineEnd) 구간을 필드로 나눈다
+    void reset(int lineStart, int lineEnd) {
+        fieldCount = 0;
+        int position = lineStart;
+        while (true) {
+            if (fieldCount == starts.length) {
+                starts = Arrays.copyOf(starts, fieldCount * 2);
+                ends = Arrays.copyOf(ends, fieldCount * 2);
+                escaped = Arrays.copyOf(escaped, fieldCount * 2);
+            }
+
+            if (position < lineEnd && buffer.get(position) == '"') {
+                int start = position + 1;
+                int end = start;
+                boolean hasEscape = false;
+                while (end < lineEnd) {
+                    if (buffer.get(end) == '"') {
+                        if (end + 1 < lineEnd && buffer.get(end + 1) == '"') {
+                            hasEscape = true;
+                            end += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    end++;
+                }
+                starts[fieldCount] = start;
+                ends[fieldCount] = end;
+                escaped[fieldCount] = hasEscape;
+                fieldCount++;
+                // 닫는 따옴표 뒤의 구분자까지 이동
+                position = end + 1;
+                while (position < lineEnd && buffer.get(position) != ',') {
+                    position++;
+                }
+            } else {
+                int end = position;
+                while (end < lineEnd && buffer.get(end) != ',') {
+                    end++;
+                }
+                starts[fieldCount] = position;
+                ends[fieldCount] = end;
+                escaped[fieldCount] = false;
+                fieldCount++;
+                position = end;
+            }
+
+            if (position >= lineEnd) {
+                return;
+            }
+            position++; // 콤마
+        }
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    // 공백만 있거나 없는 필드
+    public boolean isBlank(int field) {
+        if (field >= fieldCount) {
+            return true;
+        }
+        for (int i = starts[field]; i < ends[field]; i++) {
+            if (!isSpace(buffer.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getString(int field) {
+        if (isBlank(field)) {
+            return null;
+        }
+        int start = starts[field];
+        int end = ends[field];
+        while (isSpace(buffer.get(start))) {
+            start++;
+        }
+        while (isSpace(buffer.get(end - 1))) {
+            end--;
+        }
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        return escaped[field] ? value.replace("\"\"", "\"") : value;
+    }
+
+    /**
+     * 정수 필드 (앞뒤 공백, 자릿수 구분 콤마 허용), 비었거나 숫자가 아니거나 long 범위를 넘으면 null
+     */
+    public Long getLong(int field) {
+        if (isBlank(field)) {
+            return null;
+        }
+        long value = 0;
+        boolean negative = false;
+        boolean digits = false;
+        for (int i = starts[field]; i < ends[field]; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                if (value > (Long.MAX_VALUE - (b - '0')) / 10) {
+                    return null;
+                }
+                value = value * 10 + (b - '0');
+                digits = true;
+            } else if (b == '-' && !digits && !negative) {
+                negative = true;
+            } else if (b != ',' && !isSpace(b)) {
+                return null;
+            }
+        }
+        if (!digits) {
+            return null;
+        }
+        return negative ? -value : value;
+    }
+
+    public Integer getInt(int field) {
+        Long value = getLong(field);
+        return value == null || value > Integer.MAX_VALUE || value < Integer.MIN_VALUE ? null : value.intValue();
+    }
+
+    /**
+     * 실수 필드 (부호, 소수점, 자릿수 구분 콤마 허용 / 지수 표기 미지원), 비었거나 숫자가 아니면 null
+     * - 유효 숫자 18 자리까지 long 으로 모은 뒤 10 의 거듭제곱으로 나눈다
+     */
+    public Double getDouble(int field) {
+        if (isBlank(field)) {
+            return null;
+        }
+        long mantissa = 0;
+        int scale = 0;
+        int significant = 0;
+        boolean negative = false;
+        boolean digits = false;
+        boolean fraction = false;
+        for (int i = starts[field]; i < ends[field]; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                digits = true;
+                if (significant < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (mantissa != 0) {
+                        significant++;
+                    }
+                    if (fraction) {
+                        scale++;
+                    }
+                } else if (!fraction) {
+                    scale--;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else if ((b == '-' || b == '+') && !digits && !negative) {
+                negative = b == '-';
+            } else if (b != ',' && !isSpace(b)) {
+                return null;
+            }
+        }
+        if (!digits) {
+            return null;
+        }
+        double value = scale >= 0 ? mantissa / Math.pow(10, scale) : mantissa * Math.pow(10, -scale);
+        return negative ? -value : value;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+}
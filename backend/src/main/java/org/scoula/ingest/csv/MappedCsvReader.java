@@ -0,0 +1,134 @@
+package org.scoula.ingest.csv;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * 메모리 맵(mmap)으로 CSV 를 읽어 줄 경계 기준 조각으로 나누고, 조각들을 병렬로 파싱하는 리더
+ * - LOAD DATA 설정과 같은 형식: 콤마 구분, 큰따옴표 선택적 감싸기 ("" 는 따옴표), 줄바꿈 구분 (필드 안 줄바꿈 없음)
+ * - 필드는 바이트 구간(시작, 끝)으로만 표시하고, 숫자는 바이트에서 바로 읽는다. 문자열이 필요할 때만 String 을 만든다
+ * - 결과는 파일의 줄 순서를 유지한다
+ */
+public final class MappedCsvReader {
+
+    // 조각 하나의 최대 크기 (MappedByteBuffer 한도 2GB 보다 충분히 작게)
+    private static final long MAX_CHUNK_BYTES = 256L * 1024 * 1024;
+    private static final long MIN_CHUNK_BYTES = 1024L * 1024;
+
+    private MappedCsvReader() {
+    }
+
+    /**
+     * @param file        CSV 파일 (UTF-8)
+     * @param parallelism 동시에 파싱할 조각 수
+     * @param mapper      한 줄을 레코드로 바꾸는 함수 (null 을 반환하면 버림), 조각마다 병렬로 호출된다
+     */
+    public static <T> List<T> read(Path file, int parallelism, Function<CsvRow, T> mapper) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = splitAtLines(channel, parallelism);
+
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+            try {
+                List<ForkJoinTask<List<T>>> tasks = new ArrayList<>();
+                for (int i = 0; i + 1 < bounds.length; i++) {
+                    long start = bounds[i];
+                    long end = bounds[i + 1];
+                    tasks.add(pool.submit(() -> parseChunk(channel, start, end, mapper)));
+                }
+                List<T> rows = new ArrayList<>();
+                for (ForkJoinTask<List<T>> task : tasks) {
+                    rows.addAll(task.join());
+                }
+                return rows;
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    // 파일을 비슷한 크기로 나누되 각 경계를 다음 줄 시작으로 옮긴다
+    private static long[] splitAtLines(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        long chunk = Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, size / Math.max(1, parallelism) + 1));
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(skipBom(channel));
+        long position = bounds.get(0);
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        while (position + chunk < size) {
+            long next = nextLineStart(channel, position + chunk, buffer);
+            if (next >= size) {
+                break;
+            }
+            bounds.add(next);
+            position = next;
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long skipBom(FileChannel channel) throws IOException {
+        ByteBuffer bom = ByteBuffer.allocate(3);
+        channel.read(bom, 0);
+        return bom.position() == 3 && (bom.get(0) & 0xFF) == 0xEF && (bom.get(1) & 0xFF) == 0xBB && (bom.get(2) & 0xFF) == 0xBF ? 3 : 0;
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, ByteBuffer buffer) throws IOException {
+        long position = from;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    private static <T> List<T> parseChunk(FileChannel channel, long start, long end, Function<CsvRow, T> mapper) {
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<T> rows = new ArrayList<>();
+        CsvRow row = new CsvRow(buffer);
+        int limit = buffer.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd > lineStart) {
+                row.reset(lineStart, contentEnd);
+                T record = mapper.apply(row);
+                if (record != null) {
+                    rows.add(record);
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return rows;
+    }
+}
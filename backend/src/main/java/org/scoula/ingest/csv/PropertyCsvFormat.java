@@ -0,0 +1,118 @@
+package org.scoula.ingest.csv;
+
+import org.scoula.ingest.domain.PropertyLocationRow;
+import org.scoula.ingest.domain.PropertyTransactionRow;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * property_location / property_tbl CSV 열 배치와 값 정규화
+ * - 열 순서는 estate.sql 의 LOAD DATA 와 같다
+ * - property_tbl CSV 의 property_no, location_no, formated_date, formated_price 는 비어 있거나 없어도 되고,
+ *   formated_* 는 원본 값에서 다시 계산한다 (location_no 연결은 적재 시 주소로 한다)
+ */
+public final class PropertyCsvFormat {
+
+    // property_location: location_no, property_jibun_juso, property_doro_juso, zipcode, x, y, formated_price, jibun_juso
+    private static final int LOCATION_FIELDS = 8;
+
+    // property_tbl: property_no ~ property_jibun_juso 까지 필수 (19 열)
+    private static final int TRANSACTION_REQUIRED_FIELDS = 19;
+
+    // 위경도 허용 범위 (대한민국 주변), 벗어나면 좌표 없음으로 처리
+    private static final double MIN_LAT = 32, MAX_LAT = 39.5;
+    private static final double MIN_LON = 124, MAX_LON = 132;
+
+    private PropertyCsvFormat() {
+    }
+
+    /**
+     * @return 주소가 없는 줄은 null
+     */
+    public static PropertyLocationRow toLocation(CsvRow row) {
+        if (row.fieldCount() < LOCATION_FIELDS - 1 || row.isBlank(1)) {
+            return null;
+        }
+        Double x = row.getDouble(4);
+        Double y = row.getDouble(5);
+        boolean valid = x != null && y != null && x >= MIN_LON && x <= MAX_LON && y >= MIN_LAT && y <= MAX_LAT;
+        return new PropertyLocationRow(
+                row.getInt(0),
+                row.getString(1),
+                row.getString(2),
+                row.getString(3),
+                valid ? x : null,
+                valid ? y : null,
+                row.getDouble(6),
+                row.getString(7));
+    }
+
+    /**
+     * @return 필수 열이 모자라거나 시군구/법정동 코드가 없는 줄은 null
+     */
+    public static PropertyTransactionRow toTransaction(CsvRow row) {
+        if (row.fieldCount() < TRANSACTION_REQUIRED_FIELDS) {
+            return null;
+        }
+        Integer sigunguCode = row.getInt(1);
+        Integer bubjungCode = row.getInt(3);
+        if (sigunguCode == null || bubjungCode == null) {
+            return null;
+        }
+        Integer contractDate = row.getInt(8);
+        Integer price = row.getInt(9);
+        return new PropertyTransactionRow(
+                row.getInt(0),
+                sigunguCode,
+                row.getString(2),
+                bubjungCode,
+                row.getString(4),
+                row.getInt(5),
+                row.getInt(6),
+                row.getString(7),
+                contractDate,
+                price,
+                row.getDouble(10),
+                row.getDouble(11),
+                row.getInt(12),
+                row.getString(13),
+                row.getInt(14),
+                row.getString(15),
+                row.getString(16),
+                row.getString(17),
+                row.getString(18),
+                row.getInt(19),
+                toDate(contractDate),
+                toFormatedPrice(price));
+    }
+
+    /**
+     * yyyyMMdd (또는 yyyyMM) 정수를 날짜로, 잘못된 값은 null
+     */
+    public static LocalDate toDate(Integer contractDate) {
+        if (contractDate == null) {
+            return null;
+        }
+        int value = contractDate < 1_000_000 ? contractDate * 100 + 1 : contractDate;
+        try {
+            return LocalDate.of(value / 10000, value / 100 % 100, value % 100);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 만원 단위 거래 금액을 억 단위 (소수 둘째 자리) 로
+     */
+    public static Double toFormatedPrice(Integer price) {
+        return price == null ? null : Math.round(price / 100.0) / 100.0;
+    }
+
+    /**
+     * 주소 비교용 정규화 (공백 제거)
+     */
+    public static String addressKey(String address) {
+        return address == null ? null : address.replaceAll("\\s+", "");
+    }
+}
@@ -0,0 +1,19 @@
+package org.scoula.ingest.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeltaIngestResultDTO {
+    private int locationCount;         // 반영한 위치 수 (위치 파일을 준 경우)
+    private int transactionCount;      // 파일의 거래 수
+    private int duplicateKeyCount;     // 파일 안에서 앞 줄과 자연 키가 겹친 거래 수 (버리지 않고 기존 행과 순서대로 맞춤)
+    private int insertedCount;         // 새로 추가한 거래 수
+    private int updatedCount;          // 값이 바뀌어 갱신한 거래 수
+    private int unchangedCount;        // 기존과 같아 건너뛴 거래 수
+    private int changedLocationCount;  // 영향을 받은 location_no 수
+    private long elapsedMillis;
+}
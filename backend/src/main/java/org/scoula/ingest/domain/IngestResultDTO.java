@@ -0,0 +1,15 @@
+package org.scoula.ingest.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IngestResultDTO {
+    private int locationCount;     // 적재한 위치 수
+    private int transactionCount;  // 적재한 거래 수
+    private int linkedCount;       // location_no 가 연결된 거래 수
+    private long elapsedMillis;
+}
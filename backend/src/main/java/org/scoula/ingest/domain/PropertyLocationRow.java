@@ -0,0 +1,20 @@
+package org.scoula.ingest.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// property_location 적재용 한 줄
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PropertyLocationRow {
+    private Integer locationNo;
+    private String propertyJibunJuso;
+    private String propertyDoroJuso;
+    private String zipcode;
+    private Double xCoordinate; // 경도
+    private Double yCoordinate; // 위도
+    private Double formatedPrice;
+    private String jibunJuso;
+}
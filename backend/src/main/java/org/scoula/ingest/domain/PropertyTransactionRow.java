@@ -0,0 +1,36 @@
+package org.scoula.ingest.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// property_tbl 적재용 실거래 한 건
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PropertyTransactionRow {
+    private Integer propertyNo;
+    private int sigunguCode;
+    private String sigungu;
+    private int bubjungCode;
+    private String bubjung;
+    private Integer bonbun;
+    private Integer bubun;
+    private String buildingName;
+    private Integer contractDate;   // yyyyMMdd
+    private Integer price;          // 만원
+    private Double buildingArea;
+    private Double landArea;
+    private Integer floor;
+    private String contractRightType;
+    private Integer buildingYear;
+    private String propertyType;
+    private String contractType;
+    private String contractOfficeName;
+    private String jibunJuso;
+    private Integer locationNo;
+    private LocalDate formatedDate;
+    private Double formatedPrice;   // 억 (소수 둘째 자리)
+}
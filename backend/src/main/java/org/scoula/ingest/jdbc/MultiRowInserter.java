@@ -0,0 +1,107 @@
+package org.scoula.ingest.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * INSERT ... VALUES (...), (...), ... 다중 행 INSERT 를 batchSize 행씩 실행한다
+ * - 같은 크기의 문장은 PreparedStatement 를 재사용하고, 마지막 남은 행만 따로 준비한다
+ */
+public final class MultiRowInserter<T> {
+
+    @FunctionalInterface
+    public interface Binder<T> {
+        /**
+         * @param offset 이 행의 첫 번째 파라미터 위치 (1 부터)
+         */
+        void bind(PreparedStatement statement, int offset, T row) throws SQLException;
+    }
+
+    private final String prefix;
+    private final String rowPlaceholder;
+    private final String suffix;
+    private final int parametersPerRow;
+    private final int batchSize;
+    private final Binder<T> binder;
+
+    /**
+     * @param prefix         "INSERT INTO table (a, b, c) VALUES "
+     * @param rowPlaceholder "(?, ?, ?)"
+     * @param suffix         ON DUPLICATE KEY UPDATE 등 뒤에 붙일 절 (없으면 빈 문자열)
+     */
+    public MultiRowInserter(String prefix, String rowPlaceholder, String suffix, int batchSize, Binder<T> binder) {
+        this.prefix = prefix;
+        this.rowPlaceholder = rowPlaceholder;
+        this.suffix = suffix;
+        this.parametersPerRow = (int) rowPlaceholder.chars().filter(c -> c == '?').count();
+        this.batchSize = batchSize;
+        this.binder = binder;
+    }
+
+    /**
+     * @return 영향받은 행 수 (MySQL 의 ON DUPLICATE KEY UPDATE 는 갱신된 행을 2 로 센다)
+     */
+    public long insert(Connection connection, List<T> rows) throws SQLException {
+        return insert(connection, rows, null);
+    }
+
+    /**
+     * @param generatedKeys 행마다 생성된 AUTO_INCREMENT 키를 받는다 (null 이면 받지 않음, ON DUPLICATE KEY 문장에는 쓰지 않는다)
+     */
+    public long insert(Connection connection, List<T> rows, BiConsumer<T, Long> generatedKeys) throws SQLException {
+        long affected = 0;
+        int full = rows.size() / batchSize * batchSize;
+        if (full > 0) {
+            try (PreparedStatement statement = prepare(connection, batchSize, generatedKeys != null)) {
+                for (int from = 0; from < full; from += batchSize) {
+                    affected += execute(statement, rows, from, batchSize, generatedKeys);
+                }
+            }
+        }
+        if (full < rows.size()) {
+            try (PreparedStatement statement = prepare(connection, rows.size() - full, generatedKeys != null)) {
+                affected += execute(statement, rows, full, rows.size() - full, generatedKeys);
+            }
+        }
+        return affected;
+    }
+
+    private PreparedStatement prepare(Connection connection, int rowCount, boolean returnKeys) throws SQLException {
+        return returnKeys
+                ? connection.prepareStatement(sql(rowCount), Statement.RETURN_GENERATED_KEYS)
+                : connection.prepareStatement(sql(rowCount));
+    }
+
+    private long execute(PreparedStatement statement, List<T> rows, int from, int count,
+                         BiConsumer<T, Long> generatedKeys) throws SQLException {
+        for (int i = 0; i < count; i++) {
+            binder.bind(statement, i * parametersPerRow + 1, rows.get(from + i));
+        }
+        long affected = statement.executeUpdate();
+        if (generatedKeys != null) {
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                for (int i = 0; i < count && keys.next(); i++) {
+                    generatedKeys.accept(rows.get(from + i), keys.getLong(1));
+                }
+            }
+        }
+        return affected;
+    }
+
+    private String sql(int rowCount) {
+        StringBuilder sql = new StringBuilder(prefix.length() + rowCount * (rowPlaceholder.length() + 1) + suffix.length() + 1);
+        sql.append(prefix);
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(rowPlaceholder);
+        }
+        return sql.append(' ').append(suffix).toString();
+    }
+}
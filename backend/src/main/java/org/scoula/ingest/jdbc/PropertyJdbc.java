@@ -0,0 +1,217 @@
+package org.scoula.ingest.jdbc;
+
+import org.scoula.ingest.csv.PropertyCsvFormat;
+import org.scoula.ingest.domain.PropertyLocationRow;
+import org.scoula.ingest.domain.PropertyTransactionRow;
+import org.scoula.map.index.HilbertCurve;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * property_tbl / property_location 적재용 SQL 과 파라미터 바인딩
+ */
+public final class PropertyJdbc {
+
+    public static final String TRANSACTION_COLUMNS = "property_no, property_addr_sigungu_code, property_addr_sigungu, "
+            + "property_addr_bubjung_code, property_addr_bubjung, property_addr_bonbun, property_addr_bubun, "
+            + "property_addr_building_name, contract_date, price, property_building_area, property_land_area, "
+            + "property_addr_floor, contract_right_type, building_year, property_type, contract_type, "
+            + "contract_offce_name, property_jibun_juso, location_no, formated_date, formated_price";
+    private static final String TRANSACTION_PLACEHOLDER = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // property_no 가 겹치면 나머지 열을 갱신 (변경분 적재에서 기존 거래는 찾은 property_no 로 보낸다)
+    public static final String TRANSACTION_UPSERT = "ON DUPLICATE KEY UPDATE "
+            + "property_addr_sigungu_code = VALUES(property_addr_sigungu_code), property_addr_sigungu = VALUES(property_addr_sigungu), "
+            + "property_addr_bubjung_code = VALUES(property_addr_bubjung_code), property_addr_bubjung = VALUES(property_addr_bubjung), "
+            + "property_addr_bonbun = VALUES(property_addr_bonbun), property_addr_bubun = VALUES(property_addr_bubun), "
+            + "property_addr_building_name = VALUES(property_addr_building_name), price = VALUES(price), "
+            + "property_building_area = VALUES(property_building_area), property_land_area = VALUES(property_land_area), "
+            + "contract_right_type = VALUES(contract_right_type), building_year = VALUES(building_year), "
+            + "property_type = VALUES(property_type), contract_type = VALUES(contract_type), "
+            + "contract_offce_name = VALUES(contract_offce_name), location_no = VALUES(location_no), "
+            + "formated_date = VALUES(formated_date), formated_price = VALUES(formated_price)";
+
+    private static final String LOCATION_COLUMNS = "location_no, property_jibun_juso, property_doro_juso, zipcode, "
+            + "x_coordinate, y_coordinate, formated_price, jibun_juso, location_point, hilbert_key";
+    // 좌표가 없으면 estate.sql 과 같이 Point(0, 0), hilbert_key 는 NULL
+    private static final String LOCATION_PLACEHOLDER = "(?, ?, ?, ?, ?, ?, ?, ?, Point(IFNULL(?, 0), IFNULL(?, 0)), ?)";
+
+    // location_no 가 겹치면 주소/좌표를 갱신
+    public static final String LOCATION_UPSERT = "ON DUPLICATE KEY UPDATE "
+            + "property_jibun_juso = VALUES(property_jibun_juso), property_doro_juso = VALUES(property_doro_juso), "
+            + "zipcode = VALUES(zipcode), x_coordinate = VALUES(x_coordinate), y_coordinate = VALUES(y_coordinate), "
+            + "formated_price = VALUES(formated_price), jibun_juso = VALUES(jibun_juso), location_point = VALUES(location_point), "
+            + "hilbert_key = VALUES(hilbert_key)";
+
+    // 자연 키 조회 한 번에 묶는 최대 거래 수
+    private static final int NATURAL_KEY_BATCH = 500;
+    // 자연 키 조건 (NULL 끼리도 같은 값으로 보도록 <=> 비교, idx_property_natural 사용)
+    private static final String NATURAL_KEY_CONDITION =
+            "(property_jibun_juso <=> ? AND contract_date <=> ? AND property_addr_floor <=> ?)";
+
+    private PropertyJdbc() {
+    }
+
+    /**
+     * 거래 자연 키 (지번 주소 + 계약일 + 층), NULL 도 하나의 값으로 취급
+     */
+    public static String naturalKey(PropertyTransactionRow row) {
+        return row.getJibunJuso() + "\u0000" + row.getContractDate() + "\u0000" + row.getFloor();
+    }
+
+    /**
+     * 주어진 거래들과 자연 키가 같은 기존 거래, 키마다 property_no 오름차순
+     * - rows 의 자연 키는 서로 달라야 한다 (같은 키가 여러 번 오면 기존 행도 그만큼 중복된다)
+     */
+    public static Map<String, List<PropertyTransactionRow>> findByNaturalKeys(Connection connection, List<PropertyTransactionRow> rows) throws SQLException {
+        Map<String, List<PropertyTransactionRow>> existing = new HashMap<>();
+        for (int from = 0; from < rows.size(); from += NATURAL_KEY_BATCH) {
+            List<PropertyTransactionRow> batch = rows.subList(from, Math.min(rows.size(), from + NATURAL_KEY_BATCH));
+            String sql = "SELECT " + TRANSACTION_COLUMNS + " FROM property_tbl WHERE "
+                    + String.join(" OR ", Collections.nCopies(batch.size(), NATURAL_KEY_CONDITION))
+                    + " ORDER BY property_no";
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int i = 1;
+                for (PropertyTransactionRow row : batch) {
+                    statement.setString(i++, row.getJibunJuso());
+                    setObject(statement, i++, row.getContractDate(), Types.INTEGER);
+                    setObject(statement, i++, row.getFloor(), Types.INTEGER);
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        PropertyTransactionRow row = readTransaction(rs);
+                        existing.computeIfAbsent(naturalKey(row), key -> new ArrayList<>()).add(row);
+                    }
+                }
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * 정규화한 지번 주소 (property_jibun_juso, jibun_juso 모두) -> location_no
+     */
+    public static Map<String, Integer> findLocationNosByAddress(Connection connection) throws SQLException {
+        Map<String, Integer> locationByAddress = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT location_no, property_jibun_juso, jibun_juso FROM property_location ORDER BY location_no")) {
+            while (rs.next()) {
+                int locationNo = rs.getInt("location_no");
+                locationByAddress.putIfAbsent(PropertyCsvFormat.addressKey(rs.getString("property_jibun_juso")), locationNo);
+                String jibunJuso = rs.getString("jibun_juso");
+                if (jibunJuso != null) {
+                    locationByAddress.putIfAbsent(PropertyCsvFormat.addressKey(jibunJuso), locationNo);
+                }
+            }
+        }
+        return locationByAddress;
+    }
+
+    public static MultiRowInserter<PropertyTransactionRow> transactionInserter(int batchSize, String suffix) {
+        return new MultiRowInserter<>("INSERT INTO property_tbl (" + TRANSACTION_COLUMNS + ") VALUES ",
+                TRANSACTION_PLACEHOLDER, suffix, batchSize, PropertyJdbc::bindTransaction);
+    }
+
+    public static MultiRowInserter<PropertyLocationRow> locationInserter(int batchSize, String suffix) {
+        return new MultiRowInserter<>("INSERT INTO property_location (" + LOCATION_COLUMNS + ") VALUES ",
+                LOCATION_PLACEHOLDER, suffix, batchSize, PropertyJdbc::bindLocation);
+    }
+
+    private static void bindLocation(PreparedStatement statement, int i, PropertyLocationRow row) throws SQLException {
+        setObject(statement, i, row.getLocationNo(), Types.INTEGER);
+        statement.setString(i + 1, row.getPropertyJibunJuso());
+        statement.setString(i + 2, row.getPropertyDoroJuso());
+        statement.setString(i + 3, row.getZipcode());
+        setObject(statement, i + 4, row.getXCoordinate(), Types.DOUBLE);
+        setObject(statement, i + 5, row.getYCoordinate(), Types.DOUBLE);
+        setObject(statement, i + 6, row.getFormatedPrice(), Types.DECIMAL);
+        statement.setString(i + 7, row.getJibunJuso());
+        setObject(statement, i + 8, row.getXCoordinate(), Types.DOUBLE);
+        setObject(statement, i + 9, row.getYCoordinate(), Types.DOUBLE);
+        setObject(statement, i + 10, row.getXCoordinate() == null || row.getYCoordinate() == null ? null
+                : HilbertCurve.key(row.getYCoordinate(), row.getXCoordinate()), Types.BIGINT);
+    }
+
+    private static void bindTransaction(PreparedStatement statement, int i, PropertyTransactionRow row) throws SQLException {
+        setObject(statement, i, row.getPropertyNo(), Types.INTEGER);
+        statement.setInt(i + 1, row.getSigunguCode());
+        statement.setString(i + 2, row.getSigungu());
+        statement.setInt(i + 3, row.getBubjungCode());
+        statement.setString(i + 4, row.getBubjung());
+        setObject(statement, i + 5, row.getBonbun(), Types.INTEGER);
+        setObject(statement, i + 6, row.getBubun(), Types.INTEGER);
+        statement.setString(i + 7, row.getBuildingName());
+        setObject(statement, i + 8, row.getContractDate(), Types.INTEGER);
+        setObject(statement, i + 9, row.getPrice(), Types.INTEGER);
+        setObject(statement, i + 10, row.getBuildingArea(), Types.FLOAT);
+        setObject(statement, i + 11, row.getLandArea(), Types.FLOAT);
+        setObject(statement, i + 12, row.getFloor(), Types.INTEGER);
+        statement.setString(i + 13, row.getContractRightType());
+        setObject(statement, i + 14, row.getBuildingYear(), Types.INTEGER);
+        statement.setString(i + 15, row.getPropertyType());
+        statement.setString(i + 16, row.getContractType());
+        statement.setString(i + 17, row.getContractOfficeName());
+        statement.setString(i + 18, row.getJibunJuso());
+        setObject(statement, i + 19, row.getLocationNo(), Types.INTEGER);
+        setObject(statement, i + 20, row.getFormatedDate() == null ? null : Date.valueOf(row.getFormatedDate()), Types.DATE);
+        setObject(statement, i + 21, row.getFormatedPrice(), Types.DECIMAL);
+    }
+
+    // TRANSACTION_COLUMNS 를 조회한 행
+    public static PropertyTransactionRow readTransaction(ResultSet rs) throws SQLException {
+        Date formatedDate = rs.getDate("formated_date");
+        return new PropertyTransactionRow(
+                getInt(rs, "property_no"),
+                rs.getInt("property_addr_sigungu_code"),
+                rs.getString("property_addr_sigungu"),
+                rs.getInt("property_addr_bubjung_code"),
+                rs.getString("property_addr_bubjung"),
+                getInt(rs, "property_addr_bonbun"),
+                getInt(rs, "property_addr_bubun"),
+                rs.getString("property_addr_building_name"),
+                getInt(rs, "contract_date"),
+                getInt(rs, "price"),
+                getDouble(rs, "property_building_area"),
+                getDouble(rs, "property_land_area"),
+                getInt(rs, "property_addr_floor"),
+                rs.getString("contract_right_type"),
+                getInt(rs, "building_year"),
+                rs.getString("property_type"),
+                rs.getString("contract_type"),
+                rs.getString("contract_offce_name"),
+                rs.getString("property_jibun_juso"),
+                getInt(rs, "location_no"),
+                formatedDate == null ? null : formatedDate.toLocalDate(),
+                getDouble(rs, "formated_price"));
+    }
+
+    private static Integer getInt(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Double getDouble(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static void setObject(PreparedStatement statement, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, sqlType);
+        } else {
+            statement.setObject(index, value);
+        }
+    }
+}
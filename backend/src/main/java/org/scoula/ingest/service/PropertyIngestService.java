@@ -0,0 +1,316 @@
+package org.scoula.ingest.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j;
+import org.scoula.ingest.csv.CsvRow;
+import org.scoula.ingest.csv.MappedCsvReader;
+import org.scoula.ingest.csv.PropertyCsvFormat;
+import org.scoula.ingest.domain.DeltaIngestResultDTO;
+import org.scoula.ingest.domain.IngestResultDTO;
+import org.scoula.ingest.domain.PropertyLocationRow;
+import org.scoula.ingest.domain.PropertyTransactionRow;
+import org.scoula.ingest.jdbc.PropertyJdbc;
+import org.scoula.map.event.PropertyDataChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * property_location / property_tbl CSV 적재 (전체 교체, 변경분 추가)
+ * - 두 파일을 메모리 맵으로 병렬 파싱하고, 거래의 location_no 는 지번 주소로 연결하며 formated_date / formated_price 를 계산한다
+ * - 한 트랜잭션 안에서 기존 행을 지우고 다중 행 INSERT 로 채운 뒤, 커밋되면 PropertyDataChangedEvent 를 발행한다
+ *   (지도 인덱스, 캐시, 지역 집계가 이 이벤트로 갱신된다)
+ */
+@Log4j
+@Service
+@RequiredArgsConstructor
+public class PropertyIngestService {
+
+    final private DataSource dataSource;
+    final private ApplicationEventPublisher eventPublisher;
+
+    @Value("${ingest.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${ingest.parallelism:0}")
+    private int parallelism;
+
+    public synchronized IngestResultDTO ingestAll(Path locationCsv, Path propertyCsv) throws IOException, SQLException {
+        long start = System.currentTimeMillis();
+
+        // 두 파일을 동시에 파싱 (각 파일도 조각 단위 병렬)
+        List<PropertyLocationRow> locations;
+        List<PropertyTransactionRow> transactions;
+        try {
+            CompletableFuture<List<PropertyLocationRow>> locationsFuture = CompletableFuture.supplyAsync(
+                    () -> read(locationCsv, PropertyCsvFormat::toLocation));
+            transactions = read(propertyCsv, PropertyCsvFormat::toTransaction);
+            locations = join(locationsFuture);
+        } catch (IngestFileException e) {
+            throw e.getCause();
+        }
+        long parsed = System.currentTimeMillis();
+
+        int linked = linkLocations(locations, transactions);
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("DELETE FROM property_tbl");
+                    statement.executeUpdate("DELETE FROM property_location");
+                }
+                PropertyJdbc.locationInserter(batchSize, "").insert(connection, locations);
+                PropertyJdbc.transactionInserter(batchSize, "").insert(connection, transactions);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        long written = System.currentTimeMillis();
+
+        log.info("CSV 적재 완료 : 위치 " + locations.size() + "건, 거래 " + transactions.size() + "건 (위치 연결 " + linked + "건), "
+                + "파싱 " + (parsed - start) + "ms, 기록 " + (written - parsed) + "ms");
+        eventPublisher.publishEvent(new PropertyDataChangedEvent(this));
+        return new IngestResultDTO(locations.size(), transactions.size(), linked, written - start);
+    }
+
+    /**
+     * 새로 받은 실거래 파일을 기존 데이터에 더한다 (변경분 적재)
+     * - 거래는 자연 키 (지번 주소 + 계약일 + 층) 로 기존 행과 맞춰 보고, 새 거래와 값이 바뀐 거래만 다중 행 upsert 한다
+     *   (키가 같은 거래가 여럿이면 파일 순서와 기존 행의 property_no 순서로 하나씩 짝짓는다)
+     * - 위치 파일을 주면 먼저 upsert 하고 (location_no 가 없는 새 주소는 추가), 거래는 DB 와 파일의 위치에 주소로 연결한다
+     * - 커밋 후 영향을 받은 location_no (바뀐 거래의 이전 위치 포함) 를 담아 PropertyDataChangedEvent 를 발행한다
+     *
+     * @param locationCsv 위치 파일, 없으면 null
+     */
+    public synchronized DeltaIngestResultDTO ingestDelta(Path propertyCsv, Path locationCsv) throws IOException, SQLException {
+        long start = System.currentTimeMillis();
+
+        List<PropertyLocationRow> locations;
+        List<PropertyTransactionRow> transactions;
+        try {
+            CompletableFuture<List<PropertyLocationRow>> locationsFuture = locationCsv == null
+                    ? CompletableFuture.completedFuture(List.of())
+                    : CompletableFuture.supplyAsync(() -> read(locationCsv, PropertyCsvFormat::toLocation));
+            transactions = read(propertyCsv, PropertyCsvFormat::toTransaction);
+            locations = join(locationsFuture);
+        } catch (IngestFileException e) {
+            throw e.getCause();
+        }
+
+        // property_no 는 이 DB 의 것이 아니므로 버린다, 파일 안에서 자연 키가 겹치는 줄도 버리지 않고 모두 적재 대상으로 둔다
+        Map<String, List<PropertyTransactionRow>> incoming = new LinkedHashMap<>();
+        int duplicateKeys = 0;
+        for (PropertyTransactionRow transaction : transactions) {
+            transaction.setPropertyNo(null);
+            List<PropertyTransactionRow> sameKey = incoming.computeIfAbsent(PropertyJdbc.naturalKey(transaction), key -> new ArrayList<>());
+            if (!sameKey.isEmpty()) {
+                duplicateKeys++;
+            }
+            sameKey.add(transaction);
+        }
+
+        Set<Integer> changedLocations = new TreeSet<>();
+        List<PropertyTransactionRow> upserts = new ArrayList<>();
+        int inserted = 0;
+        int unchanged = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                Map<String, Integer> locationByAddress = PropertyJdbc.findLocationNosByAddress(connection);
+                upsertLocations(connection, locations, locationByAddress);
+                locations.forEach(location -> changedLocations.add(location.getLocationNo()));
+
+                for (PropertyTransactionRow transaction : transactions) {
+                    if (transaction.getLocationNo() == null && transaction.getJibunJuso() != null) {
+                        transaction.setLocationNo(locationByAddress.get(PropertyCsvFormat.addressKey(transaction.getJibunJuso())));
+                    }
+                }
+
+                // 자연 키가 같은 줄이 여럿이면 파일의 n 번째 줄을 property_no 순 n 번째 기존 행과 맞추고, 남는 줄은 추가한다
+                List<PropertyTransactionRow> keys = new ArrayList<>(incoming.size());
+                incoming.values().forEach(sameKey -> keys.add(sameKey.get(0)));
+                Map<String, List<PropertyTransactionRow>> existing = PropertyJdbc.findByNaturalKeys(connection, keys);
+                for (Map.Entry<String, List<PropertyTransactionRow>> entry : incoming.entrySet()) {
+                    List<PropertyTransactionRow> befores = existing.getOrDefault(entry.getKey(), List.of());
+                    List<PropertyTransactionRow> sameKey = entry.getValue();
+                    for (int i = 0; i < sameKey.size(); i++) {
+                        PropertyTransactionRow transaction = sameKey.get(i);
+                        PropertyTransactionRow before = i < befores.size() ? befores.get(i) : null;
+                        if (before == null) {
+                            inserted++;
+                        } else if (sameValues(before, transaction)) {
+                            unchanged++;
+                            continue;
+                        } else {
+                            transaction.setPropertyNo(before.getPropertyNo());
+                            if (before.getLocationNo() != null) {
+                                changedLocations.add(before.getLocationNo());
+                            }
+                        }
+                        if (transaction.getLocationNo() != null) {
+                            changedLocations.add(transaction.getLocationNo());
+                        }
+                        upserts.add(transaction);
+                    }
+                }
+
+                PropertyJdbc.transactionInserter(batchSize, " " + PropertyJdbc.TRANSACTION_UPSERT).insert(connection, upserts);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        long elapsed = System.currentTimeMillis() - start;
+
+        int updated = upserts.size() - inserted;
+        log.info("변경분 적재 완료 : 위치 " + locations.size() + "건, 거래 " + transactions.size() + "건 (자연 키 중복 " + duplicateKeys
+                + "건) 중 추가 " + inserted
+                + "건, 갱신 " + updated + "건, 변경 없음 " + unchanged + "건 (영향 위치 " + changedLocations.size() + "곳), " + elapsed + "ms");
+        if (!changedLocations.isEmpty()) {
+            eventPublisher.publishEvent(new PropertyDataChangedEvent(this, changedLocations));
+        }
+        return new DeltaIngestResultDTO(locations.size(), transactions.size(), duplicateKeys, inserted, updated, unchanged,
+                changedLocations.size(), elapsed);
+    }
+
+    // location_no 가 있는 위치는 upsert, 없는 위치는 DB 에 같은 주소가 있으면 그 번호로 갱신하고 아니면 새로 추가한다
+    private void upsertLocations(Connection connection, List<PropertyLocationRow> locations,
+                                 Map<String, Integer> locationByAddress) throws SQLException {
+        List<PropertyLocationRow> added = new ArrayList<>();
+        List<PropertyLocationRow> upserted = new ArrayList<>();
+        for (PropertyLocationRow location : locations) {
+            if (location.getLocationNo() == null) {
+                location.setLocationNo(locationByAddress.get(PropertyCsvFormat.addressKey(location.getPropertyJibunJuso())));
+            }
+            (location.getLocationNo() == null ? added : upserted).add(location);
+        }
+        PropertyJdbc.locationInserter(batchSize, " " + PropertyJdbc.LOCATION_UPSERT).insert(connection, upserted);
+        PropertyJdbc.locationInserter(batchSize, "").insert(connection, added,
+                (location, key) -> location.setLocationNo(key.intValue()));
+
+        for (PropertyLocationRow location : locations) {
+            locationByAddress.put(PropertyCsvFormat.addressKey(location.getPropertyJibunJuso()), location.getLocationNo());
+            if (location.getJibunJuso() != null) {
+                locationByAddress.put(PropertyCsvFormat.addressKey(location.getJibunJuso()), location.getLocationNo());
+            }
+        }
+    }
+
+    // property_no 를 뺀 값 비교 (면적은 FLOAT, 억 단위 금액은 DECIMAL(10,2) 정밀도로)
+    private static boolean sameValues(PropertyTransactionRow before, PropertyTransactionRow after) {
+        return before.getSigunguCode() == after.getSigunguCode()
+                && Objects.equals(before.getSigungu(), after.getSigungu())
+                && before.getBubjungCode() == after.getBubjungCode()
+                && Objects.equals(before.getBubjung(), after.getBubjung())
+                && Objects.equals(before.getBonbun(), after.getBonbun())
+                && Objects.equals(before.getBubun(), after.getBubun())
+                && Objects.equals(before.getBuildingName(), after.getBuildingName())
+                && Objects.equals(before.getContractDate(), after.getContractDate())
+                && Objects.equals(before.getPrice(), after.getPrice())
+                && Objects.equals(toFloat(before.getBuildingArea()), toFloat(after.getBuildingArea()))
+                && Objects.equals(toFloat(before.getLandArea()), toFloat(after.getLandArea()))
+                && Objects.equals(before.getFloor(), after.getFloor())
+                && Objects.equals(before.getContractRightType(), after.getContractRightType())
+                && Objects.equals(before.getBuildingYear(), after.getBuildingYear())
+                && Objects.equals(before.getPropertyType(), after.getPropertyType())
+                && Objects.equals(before.getContractType(), after.getContractType())
+                && Objects.equals(before.getContractOfficeName(), after.getContractOfficeName())
+                && Objects.equals(before.getJibunJuso(), after.getJibunJuso())
+                && Objects.equals(before.getLocationNo(), after.getLocationNo())
+                && Objects.equals(before.getFormatedDate(), after.getFormatedDate())
+                && Objects.equals(toCents(before.getFormatedPrice()), toCents(after.getFormatedPrice()));
+    }
+
+    private static Float toFloat(Double value) {
+        return value == null ? null : value.floatValue();
+    }
+
+    private static Long toCents(Double value) {
+        return value == null ? null : Math.round(value * 100);
+    }
+
+    // location_no 가 비어 있는 거래를 지번 주소로 위치와 연결하고, 연결된 건수를 반환
+    private static int linkLocations(List<PropertyLocationRow> locations, List<PropertyTransactionRow> transactions) {
+        Map<String, Integer> locationByAddress = new HashMap<>();
+        for (PropertyLocationRow location : locations) {
+            if (location.getLocationNo() == null) {
+                continue;
+            }
+            locationByAddress.putIfAbsent(PropertyCsvFormat.addressKey(location.getPropertyJibunJuso()), location.getLocationNo());
+            if (location.getJibunJuso() != null) {
+                locationByAddress.putIfAbsent(PropertyCsvFormat.addressKey(location.getJibunJuso()), location.getLocationNo());
+            }
+        }
+
+        int linked = 0;
+        for (PropertyTransactionRow transaction : transactions) {
+            if (transaction.getLocationNo() == null && transaction.getJibunJuso() != null) {
+                transaction.setLocationNo(locationByAddress.get(PropertyCsvFormat.addressKey(transaction.getJibunJuso())));
+            }
+            if (transaction.getLocationNo() != null) {
+                linked++;
+            }
+        }
+        return linked;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private <T> List<T> read(Path file, Function<CsvRow, T> mapper) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        try {
+            return MappedCsvReader.read(file, threads, mapper);
+        } catch (IOException e) {
+            throw new IngestFileException(e);
+        }
+    }
+
+    // 병렬 파싱 중 IOException 전달용
+    private static final class IngestFileException extends RuntimeException {
+        private IngestFileException(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+}
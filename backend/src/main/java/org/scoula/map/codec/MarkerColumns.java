@@ -0,0 +1,87 @@
+package org.scoula.map.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 마커 목록의 열(column) 형식 표현 - 위치 번호, 위도, 경도, 가격을 각각 기본형 배열로 가진다
+ * - 필드 이름이 마커마다 반복되는 객체 배열 JSON 대신 열 형식 JSON 이나 little-endian 바이너리로 기록한다
+ * - 가격이 없는 마커는 NaN (JSON 은 null)
+ *
+ * <pre>
+ * JSON   : {"count":n,"locationNo":[...],"lat":[...],"lon":[...],"price":[...]}
+ * binary : int32 count, int32 locationNo[count], float32 lat[count], float32 lon[count], float32 price[count]
+ * </pre>
+ */
+public final class MarkerColumns {
+
+    private final int count;
+    private final int[] locationNos;
+    private final float[] lats;
+    private final float[] lons;
+    private final float[] prices;
+
+    public MarkerColumns(int capacity) {
+        this.locationNos = new int[capacity];
+        this.lats = new float[capacity];
+        this.lons = new float[capacity];
+        this.prices = new float[capacity];
+        this.count = capacity;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void set(int i, int locationNo, double lat, double lon, double price) {
+        locationNos[i] = locationNo;
+        lats[i] = (float) lat;
+        lons[i] = (float) lon;
+        prices[i] = (float) price;
+    }
+
+    public byte[] toJson() {
+        // 숫자 하나당 대략 10 바이트
+        StringBuilder json = new StringBuilder(32 + count * 40);
+        json.append("{\"count\":").append(count);
+        json.append(",\"locationNo\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(locationNos[i]);
+        }
+        appendArray(json.append("],\"lat\":["), lats);
+        appendArray(json.append("],\"lon\":["), lons);
+        appendArray(json.append("],\"price\":["), prices);
+        json.append("]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public byte[] toBinary() {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + count * 16).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(count);
+        buffer.asIntBuffer().put(locationNos, 0, count);
+        buffer.position(buffer.position() + count * 4);
+        buffer.asFloatBuffer().put(lats, 0, count);
+        buffer.position(buffer.position() + count * 4);
+        buffer.asFloatBuffer().put(lons, 0, count);
+        buffer.position(buffer.position() + count * 4);
+        buffer.asFloatBuffer().put(prices, 0, count);
+        return buffer.array();
+    }
+
+    private void appendArray(StringBuilder json, float[] values) {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            if (Float.isNaN(values[i])) {
+                json.append("null");
+            } else {
+                json.append(values[i]);
+            }
+        }
+    }
+}
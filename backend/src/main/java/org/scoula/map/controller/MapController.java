@@ -1,15 +1,33 @@
 package org.scoula.map.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.scoula.common.pagination.CursorPage;
+import org.scoula.exception.BadRequestException;
+import org.scoula.map.codec.MarkerColumns;
+import org.scoula.map.domain.AddressSearchVO;
+import org.scoula.map.domain.HeatmapVO;
 import org.scoula.map.domain.MapClusterVO;
 import org.scoula.map.domain.MapDetailDTO;
+import org.scoula.map.domain.MapNearestVO;
 import org.scoula.map.domain.MapVO;
+import org.scoula.map.domain.PriceHistoryVO;
+import org.scoula.map.domain.RegionPriceVO;
 import org.scoula.map.service.MapService;
+import org.scoula.map.service.RegionPriceService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/map")
@@ -17,7 +35,21 @@ import java.util.List;
 @Slf4j
 public class MapController {
 
+    private static final int MAX_PAGE_LIMIT = 1000;
+    private static final int MAX_BATCH_SIZE = 200;
+    private static final int MAX_NEAREST = 100;
+    private static final int MAX_SEARCH = 50;
+    // 화면 가로 / 세로 비율 허용 범위 (세로로 긴 모바일 ~ 가로로 긴 와이드 화면)
+    private static final double MIN_ASPECT = 0.1;
+    private static final double MAX_ASPECT = 10;
+
+    // /moveall 열 형식 응답 (Accept 헤더로 선택)
+    public static final String COLUMNAR_JSON = "application/vnd.jikimi.markers+json";
+    public static final String COLUMNAR_BINARY = "application/vnd.jikimi.markers";
+
     private final MapService addressService;
+    private final RegionPriceService regionPriceService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("")
     public ResponseEntity<List<MapVO>> getAddressList() {
@@ -26,21 +58,208 @@ public class MapController {
     }
 
     // 중심 좌표와 레벨을 기반으로 해당 구역 안에 있는 주소 리스트를 반환하는 API
+    // zoomLevel 은 소수 가능 (양쪽 레벨 사이를 보간), aspect 는 화면 가로 / 세로 비율 (없으면 zoom_levels 의 기본 범위)
     @GetMapping("/moveall")
-    public ResponseEntity<List<MapVO>> getAddressListMoveAll(@RequestParam("lat") double lat, @RequestParam("lon") double lon, @RequestParam("zoomLevel") int zoomLevel) {
-        List<MapVO> addressList = addressService.getAddressListMoveAll(lat, lon, zoomLevel);
+    public ResponseEntity<List<MapVO>> getAddressListMoveAll(@RequestParam("lat") double lat, @RequestParam("lon") double lon, @RequestParam("zoomLevel") double zoomLevel,
+                                                             @RequestParam(value = "aspect", required = false) Double aspect) {
+        checkCoordinates(lat, lon);
+        checkAspect(aspect);
+        List<MapVO> addressList = addressService.getAddressListMoveAll(lat, lon, zoomLevel, aspect);
         return ResponseEntity.ok(addressList);
     }
 
+    // /moveall 과 같은 결과를 목록으로 모으지 않고 읽는 대로 응답에 기록하는 API (넓은 구역용)
+    @GetMapping("/moveall/stream")
+    public ResponseEntity<StreamingResponseBody> streamAddressListMoveAll(@RequestParam("lat") double lat, @RequestParam("lon") double lon, @RequestParam("zoomLevel") double zoomLevel,
+                                                                          @RequestParam(value = "aspect", required = false) Double aspect) {
+        checkCoordinates(lat, lon);
+        checkAspect(aspect);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                addressService.streamAddressListMoveAll(lat, lon, zoomLevel, aspect, address -> {
+                    try {
+                        generator.writeObject(address);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // 같은 구역을 위치 번호/위도/경도/가격 배열로 나눈 열 형식 JSON 으로 반환
+    @GetMapping(value = "/moveall", produces = COLUMNAR_JSON)
+    public ResponseEntity<byte[]> getAddressColumnsMoveAllJson(@RequestParam("lat") double lat, @RequestParam("lon") double lon, @RequestParam("zoomLevel") double zoomLevel,
+                                                               @RequestParam(value = "aspect", required = false) Double aspect) {
+        checkCoordinates(lat, lon);
+        checkAspect(aspect);
+        MarkerColumns columns = addressService.getAddressColumnsMoveAll(lat, lon, zoomLevel, aspect);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(COLUMNAR_JSON))
+                .body(columns.toJson());
+    }
+
+    // 같은 구역을 little-endian 바이너리 (int32 개수, int32 위치 번호[], float32 위도[], 경도[], 가격[]) 로 반환
+    @GetMapping(value = "/moveall", produces = COLUMNAR_BINARY)
+    public ResponseEntity<byte[]> getAddressColumnsMoveAllBinary(@RequestParam("lat") double lat, @RequestParam("lon") double lon, @RequestParam("zoomLevel") double zoomLevel,
+                                                                 @RequestParam(value = "aspect", required = false) Double aspect) {
+        checkCoordinates(lat, lon);
+        checkAspect(aspect);
+        MarkerColumns columns = addressService.getAddressColumnsMoveAll(lat, lon, zoomLevel, aspect);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(COLUMNAR_BINARY))
+                .body(columns.toBinary());
+    }
+
 
+    // 줌 레벨별 서버 클러스터 (중심 좌표, 위치 수, 평균 가격)를 반환하는 API
+    // page, limit 은 이전 클라이언트 호환용으로, 인덱스 사용 시 2 페이지부터는 빈 목록을 반환
     @GetMapping("/moveclusterall")
-    public ResponseEntity<List<MapClusterVO>> getAddressListMoveClusterAll(@RequestParam("lat") double lat, @RequestParam("lon") double lon, @RequestParam("zoomLevel") int zoomLevel, @RequestParam("page") int page,  // 페이지 번호 추가
-                                                                           @RequestParam("limit") int limit // 한 번에 가져올 데이터 개수 추가
+    public ResponseEntity<List<MapClusterVO>> getAddressListMoveClusterAll(@RequestParam("lat") double lat, @RequestParam("lon") double lon, @RequestParam("zoomLevel") double zoomLevel,
+                                                                           @RequestParam(value = "aspect", required = false) Double aspect,
+                                                                           @RequestParam(value = "page", defaultValue = "1") int page,
+                                                                           @RequestParam(value = "limit", defaultValue = "200") int limit
     ) {
-        List<MapClusterVO> addressList = addressService.getAddressListMoveClusterAll(lat, lon, zoomLevel, page, limit);
+        checkCoordinates(lat, lon);
+        checkAspect(aspect);
+        List<MapClusterVO> addressList = addressService.getAddressListMoveClusterAll(lat, lon, zoomLevel, aspect, page, limit);
         return ResponseEntity.ok(addressList);
     }
 
+    // 화면 안의 위치를 location_no 순으로 커서 페이징해서 반환하는 API (cursor 없으면 첫 페이지)
+    @GetMapping("/moveclusterall/cursor")
+    public ResponseEntity<CursorPage<MapClusterVO>> getAddressListMoveClusterPage(@RequestParam("lat") double lat, @RequestParam("lon") double lon, @RequestParam("zoomLevel") double zoomLevel,
+                                                                                  @RequestParam(value = "aspect", required = false) Double aspect,
+                                                                                @RequestParam(value = "cursor", required = false) String cursor,
+                                                                                @RequestParam(value = "limit", defaultValue = "200") int limit) {
+        checkCoordinates(lat, lon);
+        checkAspect(aspect);
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new BadRequestException("limit 은 1 ~ " + MAX_PAGE_LIMIT + " 사이여야 합니다.");
+        }
+        return ResponseEntity.ok(addressService.getAddressListMoveClusterPage(lat, lon, zoomLevel, aspect, cursor, limit));
+    }
+
+    // NaN, 무한대, 범위 밖 좌표는 화면 / 타일 계산이 끝나지 않거나 잘못된 조회가 되므로 거절
+    private static void checkCoordinates(double lat, double lon) {
+        if (!(lat >= -90 && lat <= 90) || !(lon >= -180 && lon <= 180)) {
+            throw new BadRequestException("lat 은 -90 ~ 90, lon 은 -180 ~ 180 사이여야 합니다.");
+        }
+    }
+
+    private static void checkAspect(Double aspect) {
+        if (aspect != null && !(aspect >= MIN_ASPECT && aspect <= MAX_ASPECT)) {
+            throw new BadRequestException("aspect 는 " + MIN_ASPECT + " ~ " + MAX_ASPECT + " 사이여야 합니다.");
+        }
+    }
+
+
+    // 기준점에서 가까운 거래 위치 k 개를 거리(m) 순으로 반환하는 API (maxDistance: m)
+    @GetMapping("/nearest")
+    public ResponseEntity<List<MapNearestVO>> getNearestAddressList(@RequestParam("lat") double lat, @RequestParam("lon") double lon,
+                                                                    @RequestParam(value = "k", defaultValue = "10") int k,
+                                                                    @RequestParam(value = "maxDistance", required = false) Double maxDistance,
+                                                                    @RequestParam(value = "propertyType", required = false) String propertyType,
+                                                                    @RequestParam(value = "contractType", required = false) String contractType) {
+        checkCoordinates(lat, lon);
+        if (k < 1 || k > MAX_NEAREST) {
+            throw new BadRequestException("k 는 1 ~ " + MAX_NEAREST + " 사이여야 합니다.");
+        }
+        if (maxDistance != null && !(maxDistance >= 0)) {
+            throw new BadRequestException("maxDistance 는 0 이상이어야 합니다.");
+        }
+        return ResponseEntity.ok(addressService.getNearestAddressList(lat, lon, k, maxDistance, propertyType, contractType));
+    }
+
+    // 주소(지번/도로명)나 건물명 일부로 위치를 찾는 자동완성 API (입력 중인 글자의 초성/중성만으로도 일치)
+    @GetMapping("/search")
+    public ResponseEntity<List<AddressSearchVO>> searchAddress(@RequestParam("q") String query,
+                                                               @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_SEARCH) {
+            throw new BadRequestException("limit 는 1 ~ " + MAX_SEARCH + " 사이여야 합니다.");
+        }
+        if (query.isBlank()) {
+            return ResponseEntity.ok(List.of());
+        }
+        return ResponseEntity.ok(addressService.searchAddress(query, limit));
+    }
+
+    // 영역(bbox=최소경도,최소위도,최대경도,최대위도)의 평균 가격/밀도 격자를 반환하는 API
+    @GetMapping("/heatmap")
+    public ResponseEntity<HeatmapVO> getHeatmap(@RequestParam("zoomLevel") double zoomLevel, @RequestParam("bbox") String bbox) {
+        String[] values = bbox.split(",");
+        if (values.length != 4) {
+            throw new BadRequestException("bbox 는 최소경도,최소위도,최대경도,최대위도 형식이어야 합니다.");
+        }
+        double[] box = new double[4];
+        for (int i = 0; i < 4; i++) {
+            try {
+                box[i] = Double.parseDouble(values[i].trim());
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("bbox 는 최소경도,최소위도,최대경도,최대위도 형식이어야 합니다.");
+            }
+        }
+        checkCoordinates(box[1], box[0]);
+        checkCoordinates(box[3], box[2]);
+        if (!(box[0] <= box[2] && box[1] <= box[3])) {
+            throw new BadRequestException("bbox 의 최솟값이 최댓값보다 큽니다.");
+        }
+        return ResponseEntity.ok(addressService.getHeatmap(zoomLevel, box[1], box[3], box[0], box[2]));
+    }
+
+    // 시군구 / 법정동 단위 가격 집계를 반환하는 API (level=sigungu|bubjung, sigunguCode 로 시군구 제한)
+    @GetMapping("/regions")
+    public ResponseEntity<List<RegionPriceVO>> getRegionPrices(@RequestParam(value = "level", defaultValue = RegionPriceVO.SIGUNGU) String level,
+                                                               @RequestParam(value = "sigunguCode", required = false) Integer sigunguCode) {
+        return ResponseEntity.ok(regionPriceService.getRegionPrices(level, sigunguCode));
+    }
+
+    // 여러 위치의 상세를 한 번에 조회하는 API (ids=1,2,3), 위치 번호별로 묶어서 반환
+    @GetMapping("/details")
+    public ResponseEntity<Map<Integer, List<MapDetailDTO>>> getAddressDetailsBatch(@RequestParam("ids") List<Long> ids) {
+        checkBatchSize(ids);
+        return ResponseEntity.ok(addressService.getAddressDetailsBatch(ids));
+    }
+
+    // 여러 매물의 상세를 한 번에 조회하는 API (ids=매물 번호), 위치 번호별로 묶어서 반환
+    @GetMapping("/report/details")
+    public ResponseEntity<Map<Integer, List<MapDetailDTO>>> getReportAddressDetailsBatch(@RequestParam("ids") List<Long> ids) {
+        checkBatchSize(ids);
+        return ResponseEntity.ok(addressService.getReportAddressDetailsBatch(ids));
+    }
+
+    private static void checkBatchSize(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("ids 는 1 ~ " + MAX_BATCH_SIZE + " 개여야 합니다.");
+        }
+    }
+
+    // 위치의 계약 유형별 가격 추이 (from, to: yyyy-MM-dd / bucket: none 이면 개별 거래를 차이값으로 압축)
+    @GetMapping("/{id}/history")
+    public ResponseEntity<PriceHistoryVO> getPriceHistory(@PathVariable Long id,
+                                                          @RequestParam(value = "from", required = false) String from,
+                                                          @RequestParam(value = "to", required = false) String to,
+                                                          @RequestParam(value = "bucket", defaultValue = "month") String bucket) {
+        return ResponseEntity.ok(addressService.getPriceHistory(id, parseDate("from", from), parseDate("to", to), bucket));
+    }
+
+    private static LocalDate parseDate(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException(name + " 는 yyyy-MM-dd 형식이어야 합니다.");
+        }
+    }
 
     @GetMapping("/{id}")
     public ResponseEntity<List<MapDetailDTO>> getAddressDetails(@PathVariable Long id) {
@@ -0,0 +1,45 @@
+package org.scoula.map.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.scoula.map.service.MapTileService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/map/tiles")
+@RequiredArgsConstructor
+@Slf4j
+public class MapTileController {
+
+    private static final MediaType MVT = MediaType.parseMediaType("application/vnd.mapbox-vector-tile");
+
+    private final MapTileService tileService;
+
+    // 매물 위치 벡터 타일 (URL 단위로 브라우저/CDN 캐시 가능)
+    @GetMapping("/{z}/{x}/{y}.mvt")
+    public ResponseEntity<byte[]> getTile(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+        if (!MapTileService.isValidTile(z, x, y)) {
+            return ResponseEntity.badRequest().build();
+        }
+        // 인덱스 적재 전: 빈 타일을 주면 브라우저/CDN 에 10 분간 남으므로 캐시 금지 503
+        if (!tileService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .cacheControl(CacheControl.noStore())
+                    .build();
+        }
+        byte[] tile = tileService.getTile(z, x, y);
+        return ResponseEntity.ok()
+                .contentType(MVT)
+                .cacheControl(CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic())
+                .body(tile);
+    }
+}
@@ -0,0 +1,18 @@
+package org.scoula.map.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AddressSearchVO {
+    private int locationNo;
+    private String jibunJuso;
+    private String doroJuso;
+    private String buildingName; // 건물명으로 찾은 경우만
+    private Double xCoordinate;
+    private Double yCoordinate;
+    private Double price;
+}
@@ -0,0 +1,16 @@
+package org.scoula.map.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 주소 검색 인덱스 적재용 (주소 행이면 buildingName 이 null, 건물명 행이면 주소가 null)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AddressTextVO {
+    private int locationNo;
+    private String jibunJuso;
+    private String doroJuso;
+    private String buildingName;
+}
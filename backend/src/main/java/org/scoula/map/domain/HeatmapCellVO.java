@@ -0,0 +1,15 @@
+package org.scoula.map.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HeatmapCellVO {
+    private Double xCoordinate; // 셀 중심 경도
+    private Double yCoordinate; // 셀 중심 위도
+    private int count;          // 셀 안의 거래 위치 수
+    private Double price;       // 평균 가격 (가격 정보가 없으면 null)
+}
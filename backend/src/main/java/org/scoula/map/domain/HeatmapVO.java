@@ -0,0 +1,17 @@
+package org.scoula.map.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HeatmapVO {
+    private int level;          // 피라미드 레벨 (클수록 세밀)
+    private double cellLat;     // 셀 한 칸의 위도 크기
+    private double cellLon;     // 셀 한 칸의 경도 크기
+    private List<HeatmapCellVO> cells; // 거래 위치가 있는 셀만
+}
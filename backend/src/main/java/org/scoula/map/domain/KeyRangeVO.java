@@ -0,0 +1,14 @@
+package org.scoula.map.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// property_location.hilbert_key 구간 [from, to] (끝 포함)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class KeyRangeVO {
+    private long from;
+    private long to;
+}
@@ -0,0 +1,14 @@
+package org.scoula.map.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LocationTypeVO {
+    private int locationNo;
+    private String propertyType; // 아파트, 연립다세대 ...
+    private String contractType; // 전세, 월세 ...
+}
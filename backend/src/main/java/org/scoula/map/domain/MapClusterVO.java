@@ -8,6 +8,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 public class MapClusterVO {
-    private String xCoordinate;
-    private String yCoordinate;
-}
\ No newline at end of file
+    private Double xCoordinate; // 클러스터 중심 경도
+    private Double yCoordinate; // 클러스터 중심 위도
+    private int count;          // 클러스터에 속한 위치 수
+    private Double price;       // 평균 formated_price (억)
+    private Integer locationNo; // 위치 하나짜리 클러스터인 경우의 location_no
+}
@@ -21,6 +21,6 @@ public class MapDetailDTO {
     private String buildingYear;
     private String contractType;
     private String propertyType;
-    private String xCoordinate;
-    private String yCoordinate;
+    private Double xCoordinate;
+    private Double yCoordinate;
 }
@@ -0,0 +1,16 @@
+package org.scoula.map.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MapNearestVO {
+    private int locationNo;
+    private Double xCoordinate;
+    private Double yCoordinate;
+    private Double price;
+    private double distance; // 기준점까지의 거리 (m)
+}
@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class MapVO {
     private int locationNo; // pl pk
-    private String xCoordinate;
-    private String yCoordinate;
+    private Double xCoordinate; // 경도
+    private Double yCoordinate; // 위도
     private String price;
 }
\ No newline at end of file
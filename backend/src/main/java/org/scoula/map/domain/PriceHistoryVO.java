@@ -0,0 +1,16 @@
+package org.scoula.map.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceHistoryVO {
+    private int locationNo;
+    private String bucket; // none, month, quarter, year
+    private List<PriceSeriesVO> series; // 계약 유형별
+}
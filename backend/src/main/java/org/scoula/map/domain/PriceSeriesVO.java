@@ -0,0 +1,32 @@
+package org.scoula.map.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 계약 유형 하나의 가격 시계열 (열 형식)
+ * - 구간 집계 (bucket = month, quarter, year): periods, counts, 평균/최저/최고가 (억)
+ * - 개별 거래 (bucket = none): 첫 거래일과 이전 거래와의 일수 차이, 가격 차이 (0.01 억 단위) 로 압축
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PriceSeriesVO {
+    private String contractType;
+    private int count; // 구간 안의 거래 수
+
+    private List<String> periods; // 2024-01, 2024-Q1, 2024
+    private int[] counts;
+    private double[] averagePrices;
+    private double[] minPrices;
+    private double[] maxPrices;
+
+    private String firstDate; // yyyy-MM-dd
+    private int[] dayDeltas;   // 첫 값은 0
+    private int[] priceDeltas; // 첫 값은 첫 거래 가격
+}
@@ -0,0 +1,18 @@
+package org.scoula.map.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// 가격 시계열 적재용 거래 한 건
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceTradeVO {
+    private int locationNo;
+    private String contractType;
+    private LocalDate date;
+    private int price; // 0.01 억 단위 (formated_price * 100)
+}
@@ -0,0 +1,24 @@
+package org.scoula.map.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 시군구 / 법정동 단위 가격 집계
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RegionPriceVO {
+    public static final String SIGUNGU = "sigungu";
+    public static final String BUBJUNG = "bubjung";
+
+    private String regionLevel;         // sigungu, bubjung
+    private long regionCode;            // 시군구 코드, 법정동은 시군구 코드 * 100000 + 법정동 코드
+    private int sigunguCode;
+    private String regionName;
+    private int count;
+    private Double p25Price;            // formated_price 기준
+    private Double medianPrice;
+    private Double p75Price;
+    private Double medianPricePerArea;  // formated_price / 건물 면적(㎡)
+}
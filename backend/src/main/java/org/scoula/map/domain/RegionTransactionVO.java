@@ -0,0 +1,18 @@
+package org.scoula.map.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 지역 가격 집계용 거래 한 건
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RegionTransactionVO {
+    private int sigunguCode;
+    private String sigungu;
+    private int bubjungCode;
+    private String bubjung;
+    private Double price;        // formated_price
+    private Double buildingArea; // property_building_area (㎡)
+}
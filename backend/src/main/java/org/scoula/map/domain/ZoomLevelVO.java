@@ -0,0 +1,14 @@
+package org.scoula.map.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ZoomLevelVO {
+    private int zoomLevel;
+    private double latRange; // 중심 기준 위도 범위 (±)
+    private double lonRange; // 중심 기준 경도 범위 (±)
+}
@@ -0,0 +1,34 @@
+package org.scoula.map.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * property_tbl / property_location 데이터가 바뀌었음을 알리는 이벤트
+ * - 지도용 인메모리 인덱스, 캐시 등이 이 이벤트를 받아 다시 적재된다
+ * - 바뀐 location_no 를 알면 함께 담아 보내고, 받는 쪽은 그 범위만 갱신할 수 있다 (비어 있으면 전체 변경)
+ */
+public class PropertyDataChangedEvent extends ApplicationEvent {
+
+    private final List<Integer> locationNos;
+
+    public PropertyDataChangedEvent(Object source) {
+        this(source, List.of());
+    }
+
+    public PropertyDataChangedEvent(Object source, Collection<Integer> locationNos) {
+        super(source);
+        this.locationNos = List.copyOf(locationNos);
+    }
+
+    public List<Integer> getLocationNos() {
+        return locationNos;
+    }
+
+    // 바뀐 범위를 모르는 경우 (전체 다시 적재)
+    public boolean isFullReload() {
+        return locationNos.isEmpty();
+    }
+}
@@ -0,0 +1,406 @@
+package org.scoula.map.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 지번/도로명 주소와 건물명 자동완성 인덱스
+ * - 문서 = (위치, 필드, 문자열) 하나. 문자열은 HangulJamo 로 자모 단위로 풀어 둔다
+ * - 순위: 토큰 시작 일치 > 중간 일치, 같으면 짧은 문자열, 필드 (건물명 > 지번 > 도로명) 순이며 위치마다 가장 좋은 문서 하나만 남긴다
+ * - 문서 번호를 (길이, 필드) 순으로 매겨 두어, 문서 번호 순으로 훑으면 같은 등급 안에서는 순위순이 된다 (limit 개를 채우면 바로 멈춤)
+ * - 3 자모 이상 질의: 토큰 시작 3-gram 역색인으로 토큰 시작 일치를, 전체 3-gram 역색인으로 중간 일치를 찾는다
+ * - 더 짧은 질의: 토큰 앞 두 자모로 정렬한 배열을 이분 탐색한다
+ * - 생성 후 변경되지 않는다 (PropertyPointIndex 와 함께 교체)
+ */
+public final class AddressSearchIndex {
+
+    public static final AddressSearchIndex EMPTY = new Builder().build();
+
+    public static final int FIELD_BUILDING = 0;
+    public static final int FIELD_JIBUN = 1;
+    public static final int FIELD_DORO = 2;
+
+    private static final int GRAM = 3;
+
+    // 위치
+    private final int[] locationNos;
+    private final String[] jibunJusos;
+    private final String[] doroJusos;
+
+    // 문서 (순위순 번호)
+    private final int[] docLocations;    // -> 위치 배열 위치
+    private final byte[] docFields;
+    private final String[] docTexts;
+    private final HangulJamo.Normalized[] docJamos;
+
+    // 3-gram 역색인 (문서 안 모든 위치 / 토큰 시작 위치)
+    private final GramPostings grams;
+    private final GramPostings tokenStartGrams;
+
+    // 짧은 질의용: (토큰 앞 GRAM - 1 자모, 문서 번호) 순으로 정렬한 키와 문서 번호
+    private final String[] tokenPrefixes;
+    private final int[] tokenPrefixDocs;
+
+    private AddressSearchIndex(int[] locationNos, String[] jibunJusos, String[] doroJusos,
+                               int[] docLocations, byte[] docFields, String[] docTexts, HangulJamo.Normalized[] docJamos,
+                               GramPostings grams, GramPostings tokenStartGrams, String[] tokenPrefixes, int[] tokenPrefixDocs) {
+        this.locationNos = locationNos;
+        this.jibunJusos = jibunJusos;
+        this.doroJusos = doroJusos;
+        this.docLocations = docLocations;
+        this.docFields = docFields;
+        this.docTexts = docTexts;
+        this.docJamos = docJamos;
+        this.grams = grams;
+        this.tokenStartGrams = tokenStartGrams;
+        this.tokenPrefixes = tokenPrefixes;
+        this.tokenPrefixDocs = tokenPrefixDocs;
+    }
+
+    public int size() {
+        return locationNos.length;
+    }
+
+    /**
+     * @return 순위순 문서 번호 (위치마다 하나, 최대 limit 개)
+     */
+    public int[] search(String query, int limit) {
+        String q = HangulJamo.normalize(query).text;
+        if (q.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+        Hits hits = new Hits(limit, locationNos.length);
+        if (q.length() < GRAM) {
+            searchShort(q, hits);
+        } else {
+            searchGrams(q, hits);
+        }
+        return hits.toArray();
+    }
+
+    private void searchGrams(String q, Hits hits) {
+        // 토큰 시작 일치: 첫 gram 이 토큰 시작에 있는 문서만 확인
+        int first = tokenStartGrams.find(gram(q, 0));
+        if (first >= 0) {
+            for (int p = tokenStartGrams.start(first); p < tokenStartGrams.end(first) && !hits.isFull(); p++) {
+                int doc = tokenStartGrams.doc(p);
+                HangulJamo.Normalized jamo = docJamos[doc];
+                for (int start : jamo.tokenStarts) {
+                    if (jamo.text.startsWith(q, start)) {
+                        hits.add(doc, docLocations[doc]);
+                        break;
+                    }
+                }
+            }
+        }
+        if (hits.isFull()) {
+            return;
+        }
+
+        // 중간 일치: 가장 짧은 gram 목록을 후보로 삼고 나머지 gram 은 부분 문자열 확인으로 대신한다
+        int shortest = -1;
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            int g = grams.find(gram(q, i));
+            if (g < 0) {
+                return;
+            }
+            if (shortest < 0 || grams.end(g) - grams.start(g) < grams.end(shortest) - grams.start(shortest)) {
+                shortest = g;
+            }
+        }
+        for (int p = grams.start(shortest); p < grams.end(shortest) && !hits.isFull(); p++) {
+            int doc = grams.doc(p);
+            if (!hits.hasLocation(docLocations[doc]) && docJamos[doc].text.contains(q)) {
+                hits.add(doc, docLocations[doc]);
+            }
+        }
+    }
+
+    private void searchShort(String q, Hits hits) {
+        // 접두가 맞는 키마다 (같은 키 안은 문서 번호 순) 앞에서 limit 개 위치까지만 후보로 모은 뒤 문서 번호 (순위) 순으로 꺼낸다
+        int limit = hits.docs.length;
+        IntList candidates = new IntList();
+        BitSet runLocations = new BitSet(locationNos.length);
+        int i = lowerBound(tokenPrefixes, q);
+        while (i < tokenPrefixes.length && tokenPrefixes[i].startsWith(q)) {
+            int end = upperBound(tokenPrefixes, tokenPrefixes[i]);
+            runLocations.clear();
+            for (int distinct = 0; i < end && distinct < limit; i++) {
+                int doc = tokenPrefixDocs[i];
+                candidates.add(doc);
+                if (!runLocations.get(docLocations[doc])) {
+                    runLocations.set(docLocations[doc]);
+                    distinct++;
+                }
+            }
+            i = end;
+        }
+        int[] docs = candidates.toArray();
+        Arrays.sort(docs);
+        for (int k = 0; k < docs.length && !hits.isFull(); k++) {
+            hits.add(docs[k], docLocations[docs[k]]);
+        }
+    }
+
+    // key 이상인 첫 위치
+    private static int lowerBound(String[] values, String key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // key 보다 큰 첫 위치
+    private static int upperBound(String[] values, String key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid].compareTo(key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long gram(String text, int at) {
+        return (long) text.charAt(at) << 32 | (long) text.charAt(at + 1) << 16 | text.charAt(at + 2);
+    }
+
+    public int locationNo(int doc) {
+        return locationNos[docLocations[doc]];
+    }
+
+    public int field(int doc) {
+        return docFields[doc];
+    }
+
+    // 일치한 필드의 원문 (지번/도로명 주소 또는 건물명)
+    public String text(int doc) {
+        return docTexts[doc];
+    }
+
+    public String jibunJuso(int doc) {
+        return jibunJusos[docLocations[doc]];
+    }
+
+    public String doroJuso(int doc) {
+        return doroJusos[docLocations[doc]];
+    }
+
+    // 위치가 겹치지 않는 결과를 limit 개까지 모은다
+    private static final class Hits {
+        private final int[] docs;
+        private final BitSet locations;
+        private int count;
+
+        private Hits(int limit, int locationCount) {
+            this.docs = new int[limit];
+            this.locations = new BitSet(locationCount);
+        }
+
+        boolean isFull() {
+            return count == docs.length;
+        }
+
+        boolean hasLocation(int location) {
+            return locations.get(location);
+        }
+
+        void add(int doc, int location) {
+            if (!locations.get(location)) {
+                locations.set(location);
+                docs[count++] = doc;
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(docs, count);
+        }
+    }
+
+    // 정렬된 gram 키와 gram 별 문서 목록: keys[i] 의 문서 = docs[offsets[i], offsets[i + 1])
+    private static final class GramPostings {
+        private final long[] keys;
+        private final int[] offsets;
+        private final int[] docs;
+
+        private GramPostings(Map<Long, IntList> postingsByGram) {
+            keys = new long[postingsByGram.size()];
+            int k = 0;
+            for (Long key : postingsByGram.keySet()) {
+                keys[k++] = key;
+            }
+            Arrays.sort(keys);
+            offsets = new int[keys.length + 1];
+            IntList all = new IntList();
+            for (int i = 0; i < keys.length; i++) {
+                offsets[i] = all.size();
+                all.addAll(postingsByGram.get(keys[i]));
+            }
+            offsets[keys.length] = all.size();
+            docs = all.toArray();
+        }
+
+        // 없으면 -1
+        int find(long gram) {
+            int i = Arrays.binarySearch(keys, gram);
+            return i < 0 ? -1 : i;
+        }
+
+        int start(int i) {
+            return offsets[i];
+        }
+
+        int end(int i) {
+            return offsets[i + 1];
+        }
+
+        int doc(int position) {
+            return docs[position];
+        }
+    }
+
+    /**
+     * 위치 주소와 건물명을 누적하는 빌더 (스레드 안전하지 않음)
+     * - 같은 위치의 건물명은 addLocation 앞에 와도 되고 뒤에 와도 된다 (주소가 없는 위치의 건물명은 버림)
+     */
+    public static final class Builder {
+        private final IntList locationNos = new IntList();
+        private final List<String> jibunJusos = new ArrayList<>();
+        private final List<String> doroJusos = new ArrayList<>();
+        private final Map<Integer, Integer> positions = new HashMap<>();
+        private final Map<Integer, List<String>> pendingBuildingNames = new HashMap<>();
+
+        private final List<Doc> docs = new ArrayList<>();
+        private final Map<String, Boolean> docKeys = new HashMap<>();
+
+        public Builder addLocation(int locationNo, String jibunJuso, String doroJuso) {
+            if (positions.containsKey(locationNo)) {
+                return this;
+            }
+            int position = locationNos.size();
+            positions.put(locationNo, position);
+            locationNos.add(locationNo);
+            jibunJusos.add(jibunJuso);
+            doroJusos.add(doroJuso);
+            addDoc(position, FIELD_JIBUN, jibunJuso);
+            addDoc(position, FIELD_DORO, doroJuso);
+            List<String> pending = pendingBuildingNames.remove(locationNo);
+            if (pending != null) {
+                pending.forEach(name -> addDoc(position, FIELD_BUILDING, name));
+            }
+            return this;
+        }
+
+        public Builder addBuildingName(int locationNo, String buildingName) {
+            Integer position = positions.get(locationNo);
+            if (position != null) {
+                addDoc(position, FIELD_BUILDING, buildingName);
+            } else if (buildingName != null && !buildingName.isBlank()) {
+                pendingBuildingNames.computeIfAbsent(locationNo, key -> new ArrayList<>()).add(buildingName);
+            }
+            return this;
+        }
+
+        private void addDoc(int position, int field, String text) {
+            if (text == null || text.isBlank()) {
+                return;
+            }
+            HangulJamo.Normalized jamo = HangulJamo.normalize(text);
+            // 같은 위치에서 정규화 결과가 같은 문자열은 하나만
+            if (jamo.text.isEmpty() || docKeys.putIfAbsent(position + "\u0000" + jamo.text, Boolean.TRUE) != null) {
+                return;
+            }
+            docs.add(new Doc(position, field, text.trim(), jamo));
+        }
+
+        public AddressSearchIndex build() {
+            // 문서 번호 = 순위 (짧은 문자열, 필드 순)
+            List<Doc> sorted = new ArrayList<>(docs);
+            sorted.sort(Comparator.comparingInt((Doc doc) -> doc.jamo.text.length()).thenComparingInt(doc -> doc.field));
+
+            int count = sorted.size();
+            int[] docLocations = new int[count];
+            byte[] docFields = new byte[count];
+            String[] docTexts = new String[count];
+            HangulJamo.Normalized[] docJamos = new HangulJamo.Normalized[count];
+
+            // 문서 번호 순으로 넣으므로 gram 별 목록도 정렬된다
+            Map<Long, IntList> postings = new HashMap<>();
+            Map<Long, IntList> tokenStartPostings = new HashMap<>();
+            List<String> prefixes = new ArrayList<>();
+            IntList prefixDocs = new IntList();
+            for (int doc = 0; doc < count; doc++) {
+                Doc d = sorted.get(doc);
+                docLocations[doc] = d.location;
+                docFields[doc] = (byte) d.field;
+                docTexts[doc] = d.text;
+                docJamos[doc] = d.jamo;
+
+                String text = d.jamo.text;
+                for (int i = 0; i + GRAM <= text.length(); i++) {
+                    addPosting(postings, gram(text, i), doc);
+                }
+                for (int start : d.jamo.tokenStarts) {
+                    if (start + GRAM <= text.length()) {
+                        addPosting(tokenStartPostings, gram(text, start), doc);
+                    }
+                    prefixes.add(text.substring(start, Math.min(text.length(), start + GRAM - 1)));
+                    prefixDocs.add(doc);
+                }
+            }
+
+            Integer[] order = new Integer[prefixes.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing((Integer k) -> prefixes.get(k)).thenComparingInt(prefixDocs::get));
+            String[] tokenPrefixes = new String[order.length];
+            int[] tokenPrefixDocs = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                tokenPrefixes[i] = prefixes.get(order[i]);
+                tokenPrefixDocs[i] = prefixDocs.get(order[i]);
+            }
+
+            return new AddressSearchIndex(locationNos.toArray(), jibunJusos.toArray(new String[0]), doroJusos.toArray(new String[0]),
+                    docLocations, docFields, docTexts, docJamos,
+                    new GramPostings(postings), new GramPostings(tokenStartPostings), tokenPrefixes, tokenPrefixDocs);
+        }
+
+        private static void addPosting(Map<Long, IntList> postings, long gram, int doc) {
+            IntList list = postings.computeIfAbsent(gram, key -> new IntList());
+            if (list.size() == 0 || list.last() != doc) {
+                list.add(doc);
+            }
+        }
+    }
+
+    private static final class Doc {
+        final int location;
+        final int field;
+        final String text;
+        final HangulJamo.Normalized jamo;
+
+        Doc(int location, int field, String text, HangulJamo.Normalized jamo) {
+            this.location = location;
+            this.field = field;
+            this.text = text;
+            this.jamo = jamo;
+        }
+    }
+}
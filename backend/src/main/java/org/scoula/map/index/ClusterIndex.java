@@ -0,0 +1,222 @@
+package org.scoula.map.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * 줌 레벨별 계층 클러스터 (Supercluster 방식)
+ * - 0 레벨은 원본 좌표, L 레벨은 L-1 레벨의 클러스터를 반경 안에서 묶은 결과
+ * - 레벨마다 KD-트리를 만들어 두고, 화면 사각형 안의 클러스터만 조회한다
+ */
+public final class ClusterIndex {
+
+    public static final ClusterIndex EMPTY = build(PropertyPointIndex.EMPTY, new double[1], new double[1]);
+
+    private final Level[] levels;
+
+    private ClusterIndex(Level[] levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * @param points    원본 좌표 인덱스
+     * @param latRadius 레벨별 위도 방향 클러스터 반경 (0 번 값은 사용하지 않음)
+     * @param lonRadius 레벨별 경도 방향 클러스터 반경 (0 번 값은 사용하지 않음)
+     */
+    public static ClusterIndex build(PropertyPointIndex points, double[] latRadius, double[] lonRadius) {
+        Level[] levels = new Level[latRadius.length];
+        levels[0] = Level.of(points);
+        for (int level = 1; level < levels.length; level++) {
+            levels[level] = levels[level - 1].cluster(latRadius[level], lonRadius[level]);
+        }
+        return new ClusterIndex(levels);
+    }
+
+    public int maxLevel() {
+        return levels.length - 1;
+    }
+
+    public Level level(int level) {
+        return levels[level];
+    }
+
+    /**
+     * 한 줌 레벨의 클러스터 목록 (기본형 배열, 불변)
+     */
+    public static final class Level {
+        private final int size;
+        private final double[] lats;
+        private final double[] lons;
+        private final int[] counts;
+        private final double[] priceSums;
+        private final int[] priceCounts;
+        private final int[] locationNos; // 점 하나짜리 클러스터의 location_no, 그 외 -1
+        private final KdTree tree;
+
+        private Level(int size, double[] lats, double[] lons, int[] counts,
+                      double[] priceSums, int[] priceCounts, int[] locationNos) {
+            this.size = size;
+            this.lats = lats;
+            this.lons = lons;
+            this.counts = counts;
+            this.priceSums = priceSums;
+            this.priceCounts = priceCounts;
+            this.locationNos = locationNos;
+            this.tree = new KdTree(lons, lats, size);
+        }
+
+        private static Level of(PropertyPointIndex points) {
+            int n = points.size();
+            double[] lats = new double[n];
+            double[] lons = new double[n];
+            int[] counts = new int[n];
+            double[] priceSums = new double[n];
+            int[] priceCounts = new int[n];
+            int[] locationNos = new int[n];
+            for (int slot = 0; slot < n; slot++) {
+                lats[slot] = points.lat(slot);
+                lons[slot] = points.lon(slot);
+                counts[slot] = 1;
+                if (points.hasPrice(slot)) {
+                    priceSums[slot] = points.price(slot);
+                    priceCounts[slot] = 1;
+                }
+                locationNos[slot] = points.locationNo(slot);
+            }
+            return new Level(n, lats, lons, counts, priceSums, priceCounts, locationNos);
+        }
+
+        // 아직 묶이지 않은 클러스터를 기준으로 타원 반경 안의 이웃을 흡수해 다음 레벨을 만든다
+        private Level cluster(double latRadius, double lonRadius) {
+            boolean[] visited = new boolean[size];
+            Merger merger = new Merger(this, visited, latRadius, lonRadius);
+
+            int next = 0;
+            double[] newLats = new double[size];
+            double[] newLons = new double[size];
+            int[] newCounts = new int[size];
+            double[] newPriceSums = new double[size];
+            int[] newPriceCounts = new int[size];
+            int[] newLocationNos = new int[size];
+
+            for (int i = 0; i < size; i++) {
+                if (visited[i]) {
+                    continue;
+                }
+                visited[i] = true;
+                merger.start(i);
+                tree.range(lons[i] - lonRadius, lons[i] + lonRadius, lats[i] - latRadius, lats[i] + latRadius, merger);
+
+                newLats[next] = merger.weightedLat / merger.count;
+                newLons[next] = merger.weightedLon / merger.count;
+                newCounts[next] = merger.count;
+                newPriceSums[next] = merger.priceSum;
+                newPriceCounts[next] = merger.priceCount;
+                newLocationNos[next] = merger.count == 1 ? locationNos[i] : -1;
+                next++;
+            }
+
+            return new Level(next, Arrays.copyOf(newLats, next), Arrays.copyOf(newLons, next),
+                    Arrays.copyOf(newCounts, next), Arrays.copyOf(newPriceSums, next),
+                    Arrays.copyOf(newPriceCounts, next), Arrays.copyOf(newLocationNos, next));
+        }
+
+        /**
+         * 사각형(경계 포함) 안에 중심이 있는 클러스터 번호
+         */
+        public int[] search(double minLat, double maxLat, double minLon, double maxLon) {
+            int[][] holder = {new int[16]};
+            int[] count = {0};
+            tree.range(minLon, maxLon, minLat, maxLat, i -> {
+                if (count[0] == holder[0].length) {
+                    holder[0] = Arrays.copyOf(holder[0], count[0] * 2);
+                }
+                holder[0][count[0]++] = i;
+            });
+            int[] result = Arrays.copyOf(holder[0], count[0]);
+            Arrays.sort(result);
+            return result;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public double lat(int i) {
+            return lats[i];
+        }
+
+        public double lon(int i) {
+            return lons[i];
+        }
+
+        public int count(int i) {
+            return counts[i];
+        }
+
+        // 가격 정보가 있는 점들의 평균, 없으면 NaN
+        public double averagePrice(int i) {
+            return priceCounts[i] == 0 ? Double.NaN : priceSums[i] / priceCounts[i];
+        }
+
+        public int locationNo(int i) {
+            return locationNos[i];
+        }
+    }
+
+    private static final class Merger implements IntConsumer {
+        private final Level source;
+        private final boolean[] visited;
+        private final double latRadius;
+        private final double lonRadius;
+
+        private double originLat;
+        private double originLon;
+        private double weightedLat;
+        private double weightedLon;
+        private int count;
+        private double priceSum;
+        private int priceCount;
+
+        private Merger(Level source, boolean[] visited, double latRadius, double lonRadius) {
+            this.source = source;
+            this.visited = visited;
+            this.latRadius = latRadius;
+            this.lonRadius = lonRadius;
+        }
+
+        private void start(int i) {
+            originLat = source.lats[i];
+            originLon = source.lons[i];
+            weightedLat = 0;
+            weightedLon = 0;
+            count = 0;
+            priceSum = 0;
+            priceCount = 0;
+            add(i);
+        }
+
+        @Override
+        public void accept(int j) {
+            if (visited[j]) {
+                return;
+            }
+            double dLat = (source.lats[j] - originLat) / latRadius;
+            double dLon = (source.lons[j] - originLon) / lonRadius;
+            if (dLat * dLat + dLon * dLon > 1) {
+                return;
+            }
+            visited[j] = true;
+            add(j);
+        }
+
+        private void add(int i) {
+            int weight = source.counts[i];
+            weightedLat += source.lats[i] * weight;
+            weightedLon += source.lons[i] * weight;
+            count += weight;
+            priceSum += source.priceSums[i];
+            priceCount += source.priceCounts[i];
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.scoula.map.index;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+
+/**
+ * 주소 검색용 문자열 정규화
+ * - 한글 음절은 초성/중성/종성 호환 자모로 풀고, 겹모음/겹받침도 기본 자모로 나눈다
+ *   ("역삼" -> ㅇㅕㄱㅅㅏㅁ, "과" -> ㄱㅗㅏ) 그래서 입력 중인 음절 ("역사", "고") 도 접두 비교로 맞는다
+ * - 영문은 소문자, 숫자와 '-' 는 그대로 두고, 공백/기호는 버리되 그 다음 글자를 토큰 시작으로 표시한다
+ */
+final class HangulJamo {
+
+    private static final char SYLLABLE_FIRST = 0xAC00;
+    private static final char SYLLABLE_LAST = 0xD7A3;
+    private static final char COMPAT_FIRST = 0x3131;
+    private static final char COMPAT_LAST = 0x3163;
+
+    private static final String CHOSEONG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ";
+    private static final String JUNGSEONG = "ㅏㅐㅑㅒㅓㅔㅕㅖㅗㅘㅙㅚㅛㅜㅝㅞㅟㅠㅡㅢㅣ";
+    private static final String JONGSEONG = "\0ㄱㄲㄳㄴㄵㄶㄷㄹㄺㄻㄼㄽㄾㄿㅀㅁㅂㅄㅅㅆㅇㅈㅊㅋㅌㅍㅎ";
+
+    // 호환 자모 -> 기본 자모 (겹받침, 겹모음만 둘로 나눔)
+    private static final String[] SPLIT = new String[COMPAT_LAST - COMPAT_FIRST + 1];
+
+    static {
+        for (char c = COMPAT_FIRST; c <= COMPAT_LAST; c++) {
+            SPLIT[c - COMPAT_FIRST] = String.valueOf(c);
+        }
+        String[][] compounds = {
+                {"ㄳ", "ㄱㅅ"}, {"ㄵ", "ㄴㅈ"}, {"ㄶ", "ㄴㅎ"}, {"ㄺ", "ㄹㄱ"}, {"ㄻ", "ㄹㅁ"}, {"ㄼ", "ㄹㅂ"},
+                {"ㄽ", "ㄹㅅ"}, {"ㄾ", "ㄹㅌ"}, {"ㄿ", "ㄹㅍ"}, {"ㅀ", "ㄹㅎ"}, {"ㅄ", "ㅂㅅ"},
+                {"ㅘ", "ㅗㅏ"}, {"ㅙ", "ㅗㅐ"}, {"ㅚ", "ㅗㅣ"}, {"ㅝ", "ㅜㅓ"}, {"ㅞ", "ㅜㅔ"}, {"ㅟ", "ㅜㅣ"}, {"ㅢ", "ㅡㅣ"}};
+        for (String[] compound : compounds) {
+            SPLIT[compound[0].charAt(0) - COMPAT_FIRST] = compound[1];
+        }
+    }
+
+    private HangulJamo() {
+    }
+
+    /**
+     * 정규화한 문자열과 토큰 시작 위치
+     */
+    static final class Normalized {
+        final String text;
+        final int[] tokenStarts;
+
+        private Normalized(String text, int[] tokenStarts) {
+            this.text = text;
+            this.tokenStarts = tokenStarts;
+        }
+
+        boolean isTokenStart(int position) {
+            int low = 0;
+            int high = tokenStarts.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (tokenStarts[mid] < position) {
+                    low = mid + 1;
+                } else if (tokenStarts[mid] > position) {
+                    high = mid - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    static Normalized normalize(String value) {
+        if (value == null) {
+            return new Normalized("", new int[0]);
+        }
+        // 조합형 (NFD) 으로 들어온 한글을 음절로 합친다
+        String composed = Normalizer.normalize(value, Normalizer.Form.NFC);
+        StringBuilder text = new StringBuilder(composed.length() * 3);
+        int[] tokenStarts = new int[8];
+        int tokens = 0;
+        boolean boundary = true;
+        for (int i = 0; i < composed.length(); i++) {
+            char c = composed.charAt(i);
+            int before = text.length();
+            if (c >= SYLLABLE_FIRST && c <= SYLLABLE_LAST) {
+                int index = c - SYLLABLE_FIRST;
+                text.append(CHOSEONG.charAt(index / 588));
+                text.append(SPLIT[JUNGSEONG.charAt(index % 588 / 28) - COMPAT_FIRST]);
+                if (index % 28 != 0) {
+                    text.append(SPLIT[JONGSEONG.charAt(index % 28) - COMPAT_FIRST]);
+                }
+            } else if (c >= COMPAT_FIRST && c <= COMPAT_LAST) {
+                text.append(SPLIT[c - COMPAT_FIRST]);
+            } else if (Character.isLetterOrDigit(c) || c == '-') {
+                text.append(Character.toLowerCase(c));
+            } else {
+                boundary = true;
+                continue;
+            }
+            if (boundary) {
+                if (tokens == tokenStarts.length) {
+                    tokenStarts = Arrays.copyOf(tokenStarts, tokens * 2);
+                }
+                tokenStarts[tokens++] = before;
+                boundary = false;
+            }
+        }
+        return new Normalized(text.toString(), Arrays.copyOf(tokenStarts, tokens));
+    }
+}
@@ -0,0 +1,152 @@
+package org.scoula.map.index;
+
+/**
+ * 가격/밀도 히트맵용 다중 해상도 격자 (피라미드)
+ * - 데이터 범위를 가장 세밀한 레벨에서 2^maxLevel x 2^maxLevel 셀로 나눠 거래 위치 수와 가격 합을 모으고,
+ *   한 단계 위 레벨은 아래 레벨의 2x2 셀을 합쳐 만든다
+ * - 생성 후 변경되지 않는다 (스냅샷 교체 방식으로 갱신)
+ */
+public final class HeatmapPyramid {
+
+    public static final int DEFAULT_MAX_LEVEL = 9;
+
+    public static final HeatmapPyramid EMPTY = build(PropertyPointIndex.EMPTY, 0);
+
+    private final double minLat;
+    private final double minLon;
+    private final double latExtent;
+    private final double lonExtent;
+    private final Level[] levels;
+
+    private HeatmapPyramid(double minLat, double minLon, double latExtent, double lonExtent, Level[] levels) {
+        this.minLat = minLat;
+        this.minLon = minLon;
+        this.latExtent = latExtent;
+        this.lonExtent = lonExtent;
+        this.levels = levels;
+    }
+
+    public static HeatmapPyramid build(PropertyPointIndex points, int maxLevel) {
+        double minLat = Double.POSITIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY, maxLon = Double.NEGATIVE_INFINITY;
+        for (int slot = 0; slot < points.size(); slot++) {
+            minLat = Math.min(minLat, points.lat(slot));
+            maxLat = Math.max(maxLat, points.lat(slot));
+            minLon = Math.min(minLon, points.lon(slot));
+            maxLon = Math.max(maxLon, points.lon(slot));
+        }
+        if (points.size() == 0) {
+            minLat = maxLat = minLon = maxLon = 0;
+        }
+        // 최댓값이 마지막 셀에 들어가도록 범위를 약간 키운다
+        double latExtent = Math.max(maxLat - minLat, 1e-9) * (1 + 1e-9);
+        double lonExtent = Math.max(maxLon - minLon, 1e-9) * (1 + 1e-9);
+
+        Level[] levels = new Level[maxLevel + 1];
+        int side = 1 << maxLevel;
+        Level base = new Level(side);
+        for (int slot = 0; slot < points.size(); slot++) {
+            int row = Math.min(side - 1, (int) ((points.lat(slot) - minLat) / latExtent * side));
+            int col = Math.min(side - 1, (int) ((points.lon(slot) - minLon) / lonExtent * side));
+            int cell = row * side + col;
+            base.counts[cell]++;
+            if (points.hasPrice(slot)) {
+                base.priceSums[cell] += points.price(slot);
+                base.priceCounts[cell]++;
+            }
+        }
+        levels[maxLevel] = base;
+        for (int level = maxLevel - 1; level >= 0; level--) {
+            levels[level] = levels[level + 1].coarsen();
+        }
+        return new HeatmapPyramid(minLat, minLon, latExtent, lonExtent, levels);
+    }
+
+    public int maxLevel() {
+        return levels.length - 1;
+    }
+
+    public double cellLat(int level) {
+        return latExtent / (1 << level);
+    }
+
+    public double cellLon(int level) {
+        return lonExtent / (1 << level);
+    }
+
+    /**
+     * 셀 크기가 주어진 크기 이상인 레벨 중 가장 세밀한 레벨
+     */
+    public int levelFor(double cellLat, double cellLon) {
+        int level = maxLevel();
+        while (level > 0 && (cellLat(level) < cellLat || cellLon(level) < cellLon)) {
+            level--;
+        }
+        return level;
+    }
+
+    /**
+     * 사각형과 겹치는 셀 중 거래 위치가 있는 셀을 행, 열 순서로 consumer 에 전달
+     */
+    public void forEachCell(int level, double minLat, double maxLat, double minLon, double maxLon, CellConsumer consumer) {
+        Level cells = levels[level];
+        int side = cells.side;
+        double cellLat = cellLat(level);
+        double cellLon = cellLon(level);
+        int rowFrom = Math.max(0, (int) Math.floor((minLat - this.minLat) / cellLat));
+        int rowTo = Math.min(side - 1, (int) Math.floor((maxLat - this.minLat) / cellLat));
+        int colFrom = Math.max(0, (int) Math.floor((minLon - this.minLon) / cellLon));
+        int colTo = Math.min(side - 1, (int) Math.floor((maxLon - this.minLon) / cellLon));
+        for (int row = rowFrom; row <= rowTo; row++) {
+            for (int col = colFrom; col <= colTo; col++) {
+                int cell = row * side + col;
+                if (cells.counts[cell] == 0) {
+                    continue;
+                }
+                double averagePrice = cells.priceCounts[cell] == 0 ? Double.NaN : cells.priceSums[cell] / cells.priceCounts[cell];
+                consumer.accept(this.minLat + (row + 0.5) * cellLat, this.minLon + (col + 0.5) * cellLon,
+                        cells.counts[cell], averagePrice);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface CellConsumer {
+        /**
+         * @param lat          셀 중심 위도
+         * @param lon          셀 중심 경도
+         * @param count        셀 안의 거래 위치 수
+         * @param averagePrice 가격이 있는 위치의 평균 가격, 없으면 NaN
+         */
+        void accept(double lat, double lon, int count, double averagePrice);
+    }
+
+    private static final class Level {
+        private final int side;
+        private final int[] counts;
+        private final double[] priceSums;
+        private final int[] priceCounts;
+
+        private Level(int side) {
+            this.side = side;
+            this.counts = new int[side * side];
+            this.priceSums = new double[side * side];
+            this.priceCounts = new int[side * side];
+        }
+
+        // 2x2 셀을 합쳐 한 단계 거친 레벨을 만든다
+        private Level coarsen() {
+            Level parent = new Level(side / 2);
+            for (int row = 0; row < side; row++) {
+                for (int col = 0; col < side; col++) {
+                    int cell = row * side + col;
+                    int parentCell = (row / 2) * parent.side + col / 2;
+                    parent.counts[parentCell] += counts[cell];
+                    parent.priceSums[parentCell] += priceSums[cell];
+                    parent.priceCounts[parentCell] += priceCounts[cell];
+                }
+            }
+            return parent;
+        }
+    }
+}
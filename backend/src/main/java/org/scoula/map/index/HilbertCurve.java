@@ -0,0 +1,170 @@
+package org.scoula.map.index;
+
+import java.util.Arrays;
+
+/**
+ * 위경도 -> 힐베르트 곡선 키 (property_location.hilbert_key 와 인메모리 인덱스가 같이 쓰는 정렬 키)
+ * - 대한민국을 덮는 정사각 영역 (위도 32 ~ 40, 경도 124 ~ 132) 을 한 변 2^16 칸 (약 12m) 격자로 나눈다
+ *   영역 밖의 좌표는 가장자리 칸으로 붙이므로, 키 범위로 찾은 뒤에는 실제 좌표로 한 번 더 걸러야 한다
+ * - 곡선 위에서 가까운 키는 지도에서도 가까워서, 키 순으로 저장하면 화면 하나가 적은 수의 연속 구간이 된다
+ * - estate.sql 의 hilbert_key 함수와 같은 계산 (칸 크기가 2 의 거듭제곱이라 MySQL DOUBLE 계산과 결과가 같다)
+ */
+public final class HilbertCurve {
+
+    public static final double MIN_LAT = 32;
+    public static final double MIN_LON = 124;
+    public static final int ORDER = 16;
+
+    private static final int SIDE = 1 << ORDER;
+    // 한 변 8 도 / 2^16 칸
+    private static final double CELLS_PER_DEGREE = SIDE / 8.0;
+
+    // 블록 분해 중 곡선 상태 비트
+    private static final int SWAP = 1;
+    private static final int FLIP = 2;
+    private static final int INSIDE = 4;
+
+    private HilbertCurve() {
+    }
+
+    public static long key(double lat, double lon) {
+        return encode(cell(lon - MIN_LON), cell(lat - MIN_LAT));
+    }
+
+    /**
+     * 사각형 (경계 포함) 을 덮는 키 구간들을 [시작, 끝] (끝 포함) 쌍으로 이어 붙여 키 순으로 반환
+     * - 큰 블록부터 나눠 가며 사각형 안에 온전히 들어가는 블록은 그대로, 걸치는 블록은 더 나눈다
+     * - 구간 수가 maxRanges 를 넘게 되면 그 단계에서 멈추고 걸친 블록 전체를 구간으로 쓴다 (구간 수와 더 읽는 양의 교환)
+     *
+     * @return 빈 사각형이면 빈 배열
+     */
+    public static long[] ranges(double minLat, double maxLat, double minLon, double maxLon, int maxRanges) {
+        if (!(minLat <= maxLat) || !(minLon <= maxLon)) {
+            return new long[0];
+        }
+        int x0 = cell(minLon - MIN_LON);
+        int x1 = cell(maxLon - MIN_LON);
+        int y0 = cell(minLat - MIN_LAT);
+        int y1 = cell(maxLat - MIN_LAT);
+
+        // 구간은 (첫 키 << 5 | 블록 한 변의 log2) 로 담아 두고 마지막에 정렬해서 합친다
+        long[] blocksFound = new long[16];
+        int count = 0;
+
+        // 아직 나눌지 정하지 않은 블록 (키 순): 왼쪽 아래 칸, 곡선 상태 (bit 0: x/y 교환, bit 1: 반전), 블록의 첫 키
+        int[] xs = {0};
+        int[] ys = {0};
+        int[] states = {0};
+        long[] starts = {0};
+        int blocks = 1;
+
+        for (int level = ORDER; blocks > 0; level--) {
+            int size = 1 << level;
+            int half = size >>> 1;
+            long quarter = (long) half * half;
+            int[] childXs = new int[blocks * 4];
+            int[] childYs = new int[blocks * 4];
+            int[] childStates = new int[blocks * 4];
+            long[] childStarts = new long[blocks * 4];
+            int children = 0;
+            int inside = 0;
+
+            for (int b = 0; b < blocks; b++) {
+                int bx = xs[b];
+                int by = ys[b];
+                if (bx >= x0 && bx + size - 1 <= x1 && by >= y0 && by + size - 1 <= y1) {
+                    // 온전히 들어가는 블록은 나누지 않는다 (표시만 해 두고 아래에서 구간으로 옮긴다)
+                    states[b] |= INSIDE;
+                    inside++;
+                    continue;
+                }
+                // 자식 블록을 곡선 순서 (0 ~ 3) 로 만든다
+                for (int digit = 0; digit < 4; digit++) {
+                    int rx = digit >>> 1;
+                    int ry = (digit ^ rx) & 1;
+                    int state = states[b];
+                    int a = (state & FLIP) != 0 ? rx ^ 1 : rx;
+                    int c = (state & FLIP) != 0 ? ry ^ 1 : ry;
+                    int cx = bx + ((state & SWAP) != 0 ? c : a) * half;
+                    int cy = by + ((state & SWAP) != 0 ? a : c) * half;
+                    if (cx > x1 || cx + half - 1 < x0 || cy > y1 || cy + half - 1 < y0) {
+                        continue;
+                    }
+                    if (ry == 0) {
+                        state ^= rx == 1 ? SWAP | FLIP : SWAP;
+                    }
+                    childXs[children] = cx;
+                    childYs[children] = cy;
+                    childStates[children] = state;
+                    childStarts[children] = starts[b] + quarter * digit;
+                    children++;
+                }
+            }
+
+            // 더 나누면 한도를 넘으면 이 단계의 블록을 온전한 것, 걸친 것 모두 통째로 쓴다
+            boolean stop = count + inside + children > maxRanges;
+            if (count + blocks > blocksFound.length) {
+                blocksFound = Arrays.copyOf(blocksFound, Math.max(count + blocks, blocksFound.length * 2));
+            }
+            for (int b = 0; b < blocks; b++) {
+                if (stop || (states[b] & INSIDE) != 0) {
+                    blocksFound[count++] = starts[b] << 5 | level;
+                }
+            }
+            if (stop) {
+                break;
+            }
+
+            xs = childXs;
+            ys = childYs;
+            states = childStates;
+            starts = childStarts;
+            blocks = children;
+        }
+        return merge(blocksFound, count);
+    }
+
+    // 첫 키 순으로 정렬하고 맞닿은 구간을 합쳐 [시작, 끝] 쌍으로 펼친다
+    private static long[] merge(long[] blocks, int count) {
+        Arrays.sort(blocks, 0, count);
+        long[] ranges = new long[count * 2];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            long start = blocks[i] >>> 5;
+            int side = 1 << (int) (blocks[i] & 31);
+            long end = start + (long) side * side - 1;
+            if (size > 0 && start <= ranges[size - 1] + 1) {
+                ranges[size - 1] = Math.max(ranges[size - 1], end);
+            } else {
+                ranges[size++] = start;
+                ranges[size++] = end;
+            }
+        }
+        return Arrays.copyOf(ranges, size);
+    }
+
+    private static int cell(double degrees) {
+        double cell = Math.floor(degrees * CELLS_PER_DEGREE);
+        return (int) Math.max(0, Math.min(SIDE - 1, cell));
+    }
+
+    // 격자 칸 (x, y) 의 곡선 위 순번
+    static long encode(int x, int y) {
+        long key = 0;
+        for (int s = SIDE >>> 1; s > 0; s >>>= 1) {
+            int rx = (x & s) != 0 ? 1 : 0;
+            int ry = (y & s) != 0 ? 1 : 0;
+            key += (long) s * s * ((3 * rx) ^ ry);
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = SIDE - 1 - x;
+                    y = SIDE - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return key;
+    }
+}
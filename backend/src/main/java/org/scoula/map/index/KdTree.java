@@ -0,0 +1,275 @@
+package org.scoula.map.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * 2차원 정적 KD-트리 (kdbush 방식)
+ * - 좌표와 원래 번호를 기본형 배열에 담고, 배열 자체를 축 교대로 중앙값 분할해 트리를 표현한다
+ * - 생성 후 변경되지 않으며 여러 스레드에서 동시에 조회해도 안전하다
+ */
+public final class KdTree {
+
+    private static final int NODE_SIZE = 32;
+
+    private final int[] ids;
+    private final double[] xs;
+    private final double[] ys;
+
+    /**
+     * @param xs 각 점의 x 좌표 (경도)
+     * @param ys 각 점의 y 좌표 (위도)
+     * @param count 사용할 점 개수 (배열 앞에서부터)
+     */
+    public KdTree(double[] xs, double[] ys, int count) {
+        this.ids = new int[count];
+        this.xs = new double[count];
+        this.ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            this.ids[i] = i;
+            this.xs[i] = xs[i];
+            this.ys[i] = ys[i];
+        }
+        sort(0, count - 1, 0);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * 사각형(경계 포함) 안의 점 번호를 consumer 로 전달 (순서는 보장하지 않음)
+     */
+    public void range(double minX, double maxX, double minY, double maxY, IntConsumer consumer) {
+        if (ids.length == 0) {
+            return;
+        }
+        int[] stack = new int[64 * 3];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = ids.length - 1;
+        stack[top++] = 0;
+
+        while (top > 0) {
+            int axis = stack[--top];
+            int right = stack[--top];
+            int left = stack[--top];
+
+            if (right - left <= NODE_SIZE) {
+                for (int i = left; i <= right; i++) {
+                    if (xs[i] >= minX && xs[i] <= maxX && ys[i] >= minY && ys[i] <= maxY) {
+                        consumer.accept(ids[i]);
+                    }
+                }
+                continue;
+            }
+
+            int m = (left + right) >> 1;
+            double x = xs[m];
+            double y = ys[m];
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                consumer.accept(ids[m]);
+            }
+
+            if (top + 6 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            if (axis == 0 ? minX <= x : minY <= y) {
+                stack[top++] = left;
+                stack[top++] = m - 1;
+                stack[top++] = 1 - axis;
+            }
+            if (axis == 0 ? maxX >= x : maxY >= y) {
+                stack[top++] = m + 1;
+                stack[top++] = right;
+                stack[top++] = 1 - axis;
+            }
+        }
+    }
+
+    /**
+     * 거리가 가까운 순서로 최대 k 개의 점 번호
+     * - 거리 = sqrt((dx * xScale)^2 + dy^2) (위경도 좌표면 xScale 에 cos(위도)를 넣어 등거리로 맞춤)
+     *
+     * @param maxDistance 이 거리보다 먼 점은 제외 (제한 없으면 Double.POSITIVE_INFINITY)
+     * @param filter      후보로 삼을 점 번호 조건
+     */
+    public int[] nearest(double x, double y, int k, double xScale, double maxDistance, IntPredicate filter) {
+        if (ids.length == 0 || k <= 0) {
+            return new int[0];
+        }
+        Neighbors neighbors = new Neighbors(k, maxDistance * maxDistance);
+        nearest(0, ids.length - 1, 0, x, y, xScale, filter, neighbors);
+        return neighbors.sortedIds();
+    }
+
+    private void nearest(int left, int right, int axis, double x, double y, double xScale,
+                         IntPredicate filter, Neighbors neighbors) {
+        if (right - left <= NODE_SIZE) {
+            for (int i = left; i <= right; i++) {
+                neighbors.offer(i, x, y, xScale, filter);
+            }
+            return;
+        }
+
+        int m = (left + right) >> 1;
+        neighbors.offer(m, x, y, xScale, filter);
+
+        // 질의 점이 있는 쪽을 먼저 보고, 분할선까지의 거리가 현재 k 번째 거리보다 가까울 때만 반대쪽을 본다
+        double delta = axis == 0 ? (x - xs[m]) * xScale : y - ys[m];
+        boolean leftFirst = delta <= 0;
+        if (leftFirst) {
+            nearest(left, m - 1, 1 - axis, x, y, xScale, filter, neighbors);
+        } else {
+            nearest(m + 1, right, 1 - axis, x, y, xScale, filter, neighbors);
+        }
+        if (delta * delta <= neighbors.bound()) {
+            if (leftFirst) {
+                nearest(m + 1, right, 1 - axis, x, y, xScale, filter, neighbors);
+            } else {
+                nearest(left, m - 1, 1 - axis, x, y, xScale, filter, neighbors);
+            }
+        }
+    }
+
+    private void sort(int left, int right, int axis) {
+        if (right - left <= NODE_SIZE) {
+            return;
+        }
+        int m = (left + right) >> 1;
+        select(m, left, right, axis);
+        sort(left, m - 1, 1 - axis);
+        sort(m + 1, right, 1 - axis);
+    }
+
+    // m 번째 원소가 제자리에 오도록 부분 정렬 (quickselect)
+    private void select(int k, int left, int right, int axis) {
+        double[] values = axis == 0 ? xs : ys;
+        while (right > left) {
+            double pivot = values[(left + right) >> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        double x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+        double y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+    }
+
+    /**
+     * 지금까지 찾은 가장 가까운 k 개 (거리 제곱 기준 최대 힙)
+     */
+    private final class Neighbors {
+        private final int k;
+        private final double maxDistanceSq;
+        private final int[] heapIds;
+        private final double[] heapDistances;
+        private int size;
+
+        private Neighbors(int k, double maxDistanceSq) {
+            this.k = k;
+            this.maxDistanceSq = maxDistanceSq;
+            this.heapIds = new int[k];
+            this.heapDistances = new double[k];
+        }
+
+        // 더 가까운 점이 들어올 수 있는 거리 제곱 상한
+        private double bound() {
+            return size < k ? maxDistanceSq : Math.min(maxDistanceSq, heapDistances[0]);
+        }
+
+        private void offer(int i, double x, double y, double xScale, IntPredicate filter) {
+            double dx = (xs[i] - x) * xScale;
+            double dy = ys[i] - y;
+            double distanceSq = dx * dx + dy * dy;
+            if (distanceSq > bound() || (size == k && distanceSq == heapDistances[0]) || !filter.test(ids[i])) {
+                return;
+            }
+            if (size < k) {
+                heapIds[size] = ids[i];
+                heapDistances[size] = distanceSq;
+                siftUp(size++);
+            } else {
+                heapIds[0] = ids[i];
+                heapDistances[0] = distanceSq;
+                siftDown(0);
+            }
+        }
+
+        private int[] sortedIds() {
+            int[] result = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = heapIds[0];
+                heapIds[0] = heapIds[size - 1];
+                heapDistances[0] = heapDistances[size - 1];
+                size--;
+                siftDown(0);
+            }
+            return result;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (heapDistances[parent] >= heapDistances[i]) {
+                    return;
+                }
+                swapHeap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int largest = i;
+                int l = 2 * i + 1;
+                int r = l + 1;
+                if (l < size && heapDistances[l] > heapDistances[largest]) {
+                    largest = l;
+                }
+                if (r < size && heapDistances[r] > heapDistances[largest]) {
+                    largest = r;
+                }
+                if (largest == i) {
+                    return;
+                }
+                swapHeap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swapHeap(int i, int j) {
+            int id = heapIds[i];
+            heapIds[i] = heapIds[j];
+            heapIds[j] = id;
+            double distance = heapDistances[i];
+            heapDistances[i] = heapDistances[j];
+            heapDistances[j] = distance;
+        }
+    }
+}
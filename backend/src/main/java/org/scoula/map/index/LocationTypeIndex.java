@@ -0,0 +1,76 @@
+package org.scoula.map.index;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * 위치(slot)별로 거래된 property_type / contract_type 집합
+ * - 값마다 slot 비트셋을 두고, 두 조건을 함께 주면 같은 거래에서 두 값이 함께 나온 위치만 통과시킨다
+ * - 생성 후 변경되지 않는다 (PropertyPointIndex 와 함께 교체)
+ */
+public final class LocationTypeIndex {
+
+    public static final LocationTypeIndex EMPTY = new Builder().build();
+
+    private static final BitSet NONE = new BitSet();
+
+    private final Map<String, BitSet> propertyTypes;
+    private final Map<String, BitSet> contractTypes;
+    private final Map<String, BitSet> pairs;
+
+    private LocationTypeIndex(Map<String, BitSet> propertyTypes, Map<String, BitSet> contractTypes, Map<String, BitSet> pairs) {
+        this.propertyTypes = propertyTypes;
+        this.contractTypes = contractTypes;
+        this.pairs = pairs;
+    }
+
+    /**
+     * slot 조건 (null 이나 빈 값은 조건 없음)
+     */
+    public IntPredicate filter(String propertyType, String contractType) {
+        boolean byProperty = propertyType != null && !propertyType.isBlank();
+        boolean byContract = contractType != null && !contractType.isBlank();
+        BitSet slots;
+        if (byProperty && byContract) {
+            slots = pairs.getOrDefault(pairKey(propertyType.trim(), contractType.trim()), NONE);
+        } else if (byProperty) {
+            slots = propertyTypes.getOrDefault(propertyType.trim(), NONE);
+        } else if (byContract) {
+            slots = contractTypes.getOrDefault(contractType.trim(), NONE);
+        } else {
+            return slot -> true;
+        }
+        return slots::get;
+    }
+
+    private static String pairKey(String propertyType, String contractType) {
+        return propertyType + '\u0000' + contractType;
+    }
+
+    /**
+     * (slot, property_type, contract_type) 를 한 건씩 누적하는 빌더 (스레드 안전하지 않음)
+     */
+    public static final class Builder {
+        private final Map<String, BitSet> propertyTypes = new HashMap<>();
+        private final Map<String, BitSet> contractTypes = new HashMap<>();
+        private final Map<String, BitSet> pairs = new HashMap<>();
+
+        public Builder add(int slot, String propertyType, String contractType) {
+            if (slot < 0) {
+                return this;
+            }
+            String property = propertyType == null ? "" : propertyType.trim();
+            String contract = contractType == null ? "" : contractType.trim();
+            propertyTypes.computeIfAbsent(property, key -> new BitSet()).set(slot);
+            contractTypes.computeIfAbsent(contract, key -> new BitSet()).set(slot);
+            pairs.computeIfAbsent(pairKey(property, contract), key -> new BitSet()).set(slot);
+            return this;
+        }
+
+        public LocationTypeIndex build() {
+            return new LocationTypeIndex(Map.copyOf(propertyTypes), Map.copyOf(contractTypes), Map.copyOf(pairs));
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package org.scoula.map.index;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 위치별 실거래가 시계열 (property_tbl.formated_date / formated_price)
+ * - 시계열 = (위치, 계약 유형) 하나. 유형마다 가격 수준이 달라 (매매/전세/월세) 섞지 않는다
+ * - 거래는 시계열 순, 시계열 안에서는 계약일 순으로 정렬된 기본형 배열 (날짜: epoch day, 가격: 0.01 억 단위 정수) 에 둔다
+ * - 월별 집계 (건수, 합계, 최저, 최고) 를 미리 만들어 두고, 분기/연 단위는 월 집계를 합쳐 만든다
+ * - 생성 후 변경되지 않는다 (PropertyPointIndex 와 함께 교체)
+ */
+public final class PriceHistoryIndex {
+
+    public static final PriceHistoryIndex EMPTY = new Builder().build();
+
+    // 위치 -> 시계열 [locationSeries[i], locationSeries[i + 1])
+    private final int[] locationNos;
+    private final int[] locationSeries;
+
+    // 시계열 -> 거래 [seriesTrades[s], seriesTrades[s + 1]), 월 집계 [seriesBuckets[s], seriesBuckets[s + 1])
+    private final String[] seriesContractTypes;
+    private final int[] seriesTrades;
+    private final int[] seriesBuckets;
+
+    private final int[] tradeDays;
+    private final int[] tradePrices;
+
+    // 월 번호 = 연 * 12 + (월 - 1)
+    private final int[] bucketMonths;
+    private final int[] bucketCounts;
+    private final long[] bucketSums;
+    private final int[] bucketMins;
+    private final int[] bucketMaxs;
+
+    private PriceHistoryIndex(int[] locationNos, int[] locationSeries, String[] seriesContractTypes, int[] seriesTrades,
+                              int[] seriesBuckets, int[] tradeDays, int[] tradePrices, int[] bucketMonths, int[] bucketCounts,
+                              long[] bucketSums, int[] bucketMins, int[] bucketMaxs) {
+        this.locationNos = locationNos;
+        this.locationSeries = locationSeries;
+        this.seriesContractTypes = seriesContractTypes;
+        this.seriesTrades = seriesTrades;
+        this.seriesBuckets = seriesBuckets;
+        this.tradeDays = tradeDays;
+        this.tradePrices = tradePrices;
+        this.bucketMonths = bucketMonths;
+        this.bucketCounts = bucketCounts;
+        this.bucketSums = bucketSums;
+        this.bucketMins = bucketMins;
+        this.bucketMaxs = bucketMaxs;
+    }
+
+    public int size() {
+        return locationNos.length;
+    }
+
+    /**
+     * @return 위치 번호, 거래가 없으면 -1
+     */
+    public int location(int locationNo) {
+        int i = Arrays.binarySearch(locationNos, locationNo);
+        return i < 0 ? -1 : i;
+    }
+
+    public int seriesStart(int location) {
+        return locationSeries[location];
+    }
+
+    public int seriesEnd(int location) {
+        return locationSeries[location + 1];
+    }
+
+    public String contractType(int series) {
+        return seriesContractTypes[series];
+    }
+
+    /**
+     * 계약일이 fromDay 이상인 첫 거래 (epoch day)
+     */
+    public int tradeFrom(int series, long fromDay) {
+        return lowerBound(tradeDays, seriesTrades[series], seriesTrades[series + 1], fromDay);
+    }
+
+    /**
+     * 계약일이 toDay 보다 늦은 첫 거래 (epoch day, 즉 toDay 까지 포함하는 구간의 끝)
+     */
+    public int tradeTo(int series, long toDay) {
+        return toDay == Long.MAX_VALUE ? seriesTrades[series + 1]
+                : lowerBound(tradeDays, seriesTrades[series], seriesTrades[series + 1], toDay + 1);
+    }
+
+    public int tradeDay(int trade) {
+        return tradeDays[trade];
+    }
+
+    // 0.01 억 단위
+    public int tradePrice(int trade) {
+        return tradePrices[trade];
+    }
+
+    /**
+     * [fromMonth, toMonth] 구간의 월 집계를 monthsPerBucket 개월 단위 (1, 3, 12) 로 합쳐 시간 순으로 넘긴다
+     * - 월 번호는 연 * 12 + (월 - 1), 묶음의 시작 월은 monthsPerBucket 의 배수 (분기/연 경계)
+     * - fromMonth, toMonth 가 묶음 경계가 아니면 처음/마지막 묶음은 그 구간의 월만 합친다 (호출하는 쪽에서 경계로 맞춘다)
+     */
+    public void forEachBucket(int series, int fromMonth, int toMonth, int monthsPerBucket, BucketConsumer consumer) {
+        int end = seriesBuckets[series + 1];
+        int i = lowerBound(bucketMonths, seriesBuckets[series], end, fromMonth);
+        while (i < end && bucketMonths[i] <= toMonth) {
+            int firstMonth = bucketMonths[i] - Math.floorMod(bucketMonths[i], monthsPerBucket);
+            int count = 0;
+            long sum = 0;
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (; i < end && bucketMonths[i] <= toMonth && bucketMonths[i] < firstMonth + monthsPerBucket; i++) {
+                count += bucketCounts[i];
+                sum += bucketSums[i];
+                min = Math.min(min, bucketMins[i]);
+                max = Math.max(max, bucketMaxs[i]);
+            }
+            consumer.accept(firstMonth, count, (double) sum / count, min, max);
+        }
+    }
+
+    public static int monthOf(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    private static int lowerBound(int[] values, int from, int to, long key) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @FunctionalInterface
+    public interface BucketConsumer {
+        // 가격은 0.01 억 단위 (average 는 소수 포함)
+        void accept(int firstMonth, int count, double averagePrice, int minPrice, int maxPrice);
+    }
+
+    /**
+     * (location_no, 계약 유형, 계약일) 순으로 정렬된 거래를 한 건씩 누적하는 빌더 (스레드 안전하지 않음, build 는 한 번만)
+     * - 같은 위치와 유형 (앞뒤 공백 제거 후) 의 거래는 연달아 와야 한다
+     * - 순서를 벗어난 거래 (앞선 위치, 이미 지나간 유형, 앞선 계약일) 는 버리고 dropped() 로 센다 (한 건 때문에 적재 전체가 실패하지 않게)
+     */
+    public static final class Builder {
+        private final Map<String, String> contractTypes = new HashMap<>();
+
+        private final IntList locationNos = new IntList();
+        private final IntList locationSeries = new IntList();
+        private String[] seriesContractTypes = new String[16];
+        private final IntList seriesTrades = new IntList();
+        private final IntList seriesBuckets = new IntList();
+        private final IntList tradeDays = new IntList();
+        private final IntList tradePrices = new IntList();
+        private final IntList bucketMonths = new IntList();
+        private final IntList bucketCounts = new IntList();
+        private long[] bucketSums = new long[16];
+        private final IntList bucketMins = new IntList();
+        private final IntList bucketMaxs = new IntList();
+
+        private int seriesCount;
+        private String currentContractType;
+        private int dropped;
+
+        /**
+         * @param price 0.01 억 단위
+         */
+        public Builder add(int locationNo, String contractType, LocalDate date, int price) {
+            String type = contractType == null ? "" : contractTypes.computeIfAbsent(contractType.trim(), key -> key);
+            int lastLocation = locationNos.size() == 0 ? 0 : locationNos.last();
+            if (locationNos.size() == 0 || locationNo != lastLocation) {
+                if (locationNos.size() > 0 && locationNo < lastLocation) {
+                    dropped++;
+                    return this;
+                }
+                locationNos.add(locationNo);
+                locationSeries.add(seriesCount);
+                startSeries(type);
+            } else if (!type.equals(currentContractType)) {
+                if (hasSeries(locationSeries.last(), type)) {
+                    dropped++;
+                    return this;
+                }
+                startSeries(type);
+            } else if (date.toEpochDay() < tradeDays.last()) {
+                dropped++;
+                return this;
+            }
+
+            tradeDays.add((int) date.toEpochDay());
+            tradePrices.add(price);
+
+            int month = monthOf(date);
+            int buckets = bucketMonths.size();
+            if (buckets == seriesBuckets.last() || bucketMonths.last() != month) {
+                if (buckets == bucketSums.length) {
+                    bucketSums = Arrays.copyOf(bucketSums, buckets * 2);
+                }
+                bucketMonths.add(month);
+                bucketCounts.add(1);
+                bucketSums[buckets] = price;
+                bucketMins.add(price);
+                bucketMaxs.add(price);
+            } else {
+                int last = buckets - 1;
+                bucketCounts.set(last, bucketCounts.get(last) + 1);
+                bucketSums[last] += price;
+                bucketMins.set(last, Math.min(bucketMins.get(last), price));
+                bucketMaxs.set(last, Math.max(bucketMaxs.get(last), price));
+            }
+            return this;
+        }
+
+        // 현재 위치의 시계열 중 이미 지나간 유형인지
+        private boolean hasSeries(int firstSeries, String contractType) {
+            for (int series = firstSeries; series < seriesCount; series++) {
+                if (seriesContractTypes[series].equals(contractType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // 순서를 벗어나 버린 거래 수
+        public int dropped() {
+            return dropped;
+        }
+
+        private void startSeries(String contractType) {
+            if (seriesCount == seriesContractTypes.length) {
+                seriesContractTypes = Arrays.copyOf(seriesContractTypes, seriesCount * 2);
+            }
+            seriesContractTypes[seriesCount++] = contractType;
+            seriesTrades.add(tradeDays.size());
+            seriesBuckets.add(bucketMonths.size());
+            currentContractType = contractType;
+        }
+
+        public PriceHistoryIndex build() {
+            locationSeries.add(seriesCount);
+            seriesTrades.add(tradeDays.size());
+            seriesBuckets.add(bucketMonths.size());
+            return new PriceHistoryIndex(locationNos.toArray(), locationSeries.toArray(),
+                    Arrays.copyOf(seriesContractTypes, seriesCount), seriesTrades.toArray(), seriesBuckets.toArray(),
+                    tradeDays.toArray(), tradePrices.toArray(), bucketMonths.toArray(), bucketCounts.toArray(),
+                    Arrays.copyOf(bucketSums, bucketMonths.size()), bucketMins.toArray(), bucketMaxs.toArray());
+        }
+    }
+}
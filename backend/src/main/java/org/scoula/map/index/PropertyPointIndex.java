@@ -0,0 +1,288 @@
+package org.scoula.map.index;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * property_location 좌표를 메모리에 올려두는 힐베르트 곡선 순서의 공간 인덱스
+ * - 모든 값은 기본형 배열에 저장되고, 생성 후에는 변경되지 않는다 (스냅샷 교체 방식으로 갱신)
+ * - 점들을 HilbertCurve 키 순으로 저장해, 사각형 질의는 키 구간 몇 개를 이진 탐색한 뒤 배열을 순서대로 훑는다
+ *   (DB 의 idx_property_location_hilbert 와 같은 순서)
+ * - 최근접 질의는 같은 좌표로 만든 KD-트리를 사용한다
+ */
+public final class PropertyPointIndex {
+
+    public static final PropertyPointIndex EMPTY = new Builder(0).build();
+
+    // 사각형 하나를 나눌 최대 키 구간 수 (많을수록 덜 훑고, 이진 탐색은 늘어난다)
+    private static final int MAX_SEARCH_RANGES = 32;
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    // 위도 1 도의 길이 (m)
+    public static final double METERS_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_METERS;
+
+    private final int size;
+    private final int[] locationNos;
+    private final double[] lats;
+    private final double[] lons;
+    private final double[] prices; // 가격이 없는 경우 NaN
+    private final long[] keys;     // slot 의 힐베르트 키 (오름차순)
+    private final KdTree tree;        // 점 번호 = slot
+    private final long[] slotsByLocationNo; // 상위 32비트 location_no, 하위 32비트 slot (정렬됨)
+    // 전체 점을 감싸는 사각형 (빈 인덱스면 NaN)
+    private final double minLat;
+    private final double maxLat;
+    private final double minLon;
+    private final double maxLon;
+
+    private PropertyPointIndex(int size, int[] locationNos, double[] lats, double[] lons, double[] prices, long[] keys) {
+        this.size = size;
+        this.locationNos = locationNos;
+        this.lats = lats;
+        this.lons = lons;
+        this.prices = prices;
+        this.keys = keys;
+        this.tree = new KdTree(lons, lats, size);
+        this.slotsByLocationNo = new long[size];
+        for (int slot = 0; slot < size; slot++) {
+            slotsByLocationNo[slot] = ((long) locationNos[slot] << 32) | slot;
+        }
+        Arrays.sort(slotsByLocationNo);
+
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        for (int slot = 0; slot < size; slot++) {
+            minLat = Math.min(minLat, lats[slot]);
+            maxLat = Math.max(maxLat, lats[slot]);
+            minLon = Math.min(minLon, lons[slot]);
+            maxLon = Math.max(maxLon, lons[slot]);
+        }
+        this.minLat = size > 0 ? minLat : Double.NaN;
+        this.maxLat = size > 0 ? maxLat : Double.NaN;
+        this.minLon = size > 0 ? minLon : Double.NaN;
+        this.maxLon = size > 0 ? maxLon : Double.NaN;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double minLat() {
+        return minLat;
+    }
+
+    public double maxLat() {
+        return maxLat;
+    }
+
+    public double minLon() {
+        return minLon;
+    }
+
+    public double maxLon() {
+        return maxLon;
+    }
+
+    public int locationNo(int slot) {
+        return locationNos[slot];
+    }
+
+    public double lat(int slot) {
+        return lats[slot];
+    }
+
+    public double lon(int slot) {
+        return lons[slot];
+    }
+
+    public double price(int slot) {
+        return prices[slot];
+    }
+
+    public boolean hasPrice(int slot) {
+        return !Double.isNaN(prices[slot]);
+    }
+
+    /**
+     * 위/경도 사각형(경계 포함) 안에 있는 점들의 slot 번호를 location_no 오름차순으로 반환
+     */
+    public int[] search(double minLat, double maxLat, double minLon, double maxLon) {
+        if (size == 0 || minLat > maxLat || minLon > maxLon) {
+            return new int[0];
+        }
+
+        // 상위 32비트에 location_no, 하위 32비트에 slot 을 담아 한 번에 정렬
+        long[] hits = new long[64];
+        int count = 0;
+        long[] ranges = HilbertCurve.ranges(minLat, maxLat, minLon, maxLon, MAX_SEARCH_RANGES);
+        for (int r = 0; r < ranges.length; r += 2) {
+            long to = ranges[r + 1];
+            // 키 구간은 사각형보다 넓게 덮으므로 좌표로 다시 거른다
+            for (int slot = lowerBound(keys, size, ranges[r]); slot < size && keys[slot] <= to; slot++) {
+                double lat = lats[slot];
+                double lon = lons[slot];
+                if (lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon) {
+                    if (count == hits.length) {
+                        hits = Arrays.copyOf(hits, count * 2);
+                    }
+                    hits[count++] = ((long) locationNos[slot] << 32) | slot;
+                }
+            }
+        }
+
+        Arrays.sort(hits, 0, count);
+        int[] slots = new int[count];
+        for (int i = 0; i < count; i++) {
+            slots[i] = (int) hits[i];
+        }
+        return slots;
+    }
+
+    /**
+     * location_no 의 slot, 없으면 -1
+     */
+    public int slotOf(int locationNo) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = (int) (slotsByLocationNo[mid] >> 32);
+            if (value < locationNo) {
+                low = mid + 1;
+            } else if (value > locationNo) {
+                high = mid - 1;
+            } else {
+                return (int) slotsByLocationNo[mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 기준점에서 가까운 순서로 최대 k 개의 slot
+     * - 기준 위도에서의 등장방형(equirectangular) 거리로 찾은 뒤 구면 거리로 maxDistanceMeters 를 다시 확인한다
+     *
+     * @param maxDistanceMeters 최대 거리 (m), 제한 없으면 Double.POSITIVE_INFINITY
+     * @param filter            후보로 삼을 slot 조건
+     */
+    public int[] nearest(double lat, double lon, int k, double maxDistanceMeters, IntPredicate filter) {
+        // 근거리에서 두 거리의 차이는 매우 작지만, 경계의 점을 놓치지 않도록 1% 넓게 찾는다
+        double maxDegrees = maxDistanceMeters / METERS_PER_DEGREE * 1.01;
+        int[] candidates = tree.nearest(lon, lat, k, Math.cos(Math.toRadians(lat)), maxDegrees, filter);
+
+        // 구면 거리 기준으로 다시 거르고 정렬 (k 가 작으므로 삽입 정렬)
+        int[] slots = new int[candidates.length];
+        double[] distances = new double[candidates.length];
+        int count = 0;
+        for (int slot : candidates) {
+            double distance = distanceMeters(lat, lon, lats[slot], lons[slot]);
+            if (distance > maxDistanceMeters) {
+                continue;
+            }
+            int i = count++;
+            while (i > 0 && distances[i - 1] > distance) {
+                slots[i] = slots[i - 1];
+                distances[i] = distances[i - 1];
+                i--;
+            }
+            slots[i] = slot;
+            distances[i] = distance;
+        }
+        return Arrays.copyOf(slots, count);
+    }
+
+    /**
+     * 두 위경도 사이의 구면(haversine) 거리 (m)
+     */
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // keys[0, size) 에서 key 이상인 첫 위치
+    private static int lowerBound(long[] keys, int size, long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 조회 결과를 한 건씩 누적한 뒤 인덱스를 만드는 빌더 (스레드 안전하지 않음)
+     */
+    public static final class Builder {
+        private int size;
+        private int[] locationNos;
+        private double[] lats;
+        private double[] lons;
+        private double[] prices;
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            locationNos = new int[capacity];
+            lats = new double[capacity];
+            lons = new double[capacity];
+            prices = new double[capacity];
+        }
+
+        public Builder add(int locationNo, double lat, double lon, double price) {
+            if (Double.isNaN(lat) || Double.isNaN(lon) || Double.isInfinite(lat) || Double.isInfinite(lon)) {
+                return this;
+            }
+            if (size == locationNos.length) {
+                int capacity = size * 2;
+                locationNos = Arrays.copyOf(locationNos, capacity);
+                lats = Arrays.copyOf(lats, capacity);
+                lons = Arrays.copyOf(lons, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+            }
+            locationNos[size] = locationNo;
+            lats[size] = lat;
+            lons[size] = lon;
+            prices[size] = price;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public PropertyPointIndex build() {
+            // 상위 비트에 힐베르트 키, 하위 31비트에 입력 순서를 담아 정렬 (같은 키 안에서는 입력 순서 유지)
+            long[] order = new long[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = HilbertCurve.key(lats[i], lons[i]) << 31 | i;
+            }
+            Arrays.sort(order);
+
+            int[] sortedNos = new int[size];
+            double[] sortedLats = new double[size];
+            double[] sortedLons = new double[size];
+            double[] sortedPrices = new double[size];
+            long[] keys = new long[size];
+            for (int slot = 0; slot < size; slot++) {
+                int i = (int) (order[slot] & Integer.MAX_VALUE);
+                sortedNos[slot] = locationNos[i];
+                sortedLats[slot] = lats[i];
+                sortedLons[slot] = lons[i];
+                sortedPrices[slot] = prices[i];
+                keys[slot] = order[slot] >>> 31;
+            }
+
+            return new PropertyPointIndex(size, sortedNos, sortedLats, sortedLons, sortedPrices, keys);
+        }
+    }
+}
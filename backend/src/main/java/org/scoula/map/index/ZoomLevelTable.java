@@ -0,0 +1,185 @@
+package org.scoula.map.index;
+
+import java.util.Arrays;
+
+/**
+ * 줌 레벨 -> 화면 범위 표 (zoom_levels 테이블을 기동 시 읽어 둔 것, 불변)
+ * - 정수 레벨은 표의 값을 그대로, 소수 레벨은 양쪽 레벨 사이를 기하 보간한다 (레벨이 하나 오를 때마다 범위가 약 2 배)
+ * - 화면 비율 (가로 / 세로 픽셀) 을 주면 위도 범위는 그대로 두고 경도 범위를 그 비율과 위도에 맞춰 다시 계산한다
+ */
+public final class ZoomLevelTable {
+
+    public static final ZoomLevelTable EMPTY = new Builder().build();
+
+    // 경도 1 도의 길이가 0 에 가까워지지 않도록 위도를 제한
+    private static final double MAX_ASPECT_LAT = 85;
+
+    private final int[] levels;
+    private final double[] latRanges;
+    private final double[] lonRanges;
+
+    private ZoomLevelTable(int[] levels, double[] latRanges, double[] lonRanges) {
+        this.levels = levels;
+        this.latRanges = latRanges;
+        this.lonRanges = lonRanges;
+    }
+
+    public int size() {
+        return levels.length;
+    }
+
+    public int level(int i) {
+        return levels[i];
+    }
+
+    public double latRange(int i) {
+        return latRanges[i];
+    }
+
+    public double lonRange(int i) {
+        return lonRanges[i];
+    }
+
+    /**
+     * @return 정수 레벨의 위치, 표에 없으면 -1
+     */
+    public int indexOf(int level) {
+        int i = Arrays.binarySearch(levels, level);
+        return i < 0 ? -1 : i;
+    }
+
+    /**
+     * zoom 이상인 가장 작은 레벨의 위치 (zoom 화면을 덮는 가장 작은 정수 레벨), 범위 밖이면 -1
+     */
+    public int ceilIndex(double zoom) {
+        if (!contains(zoom)) {
+            return -1;
+        }
+        int i = Arrays.binarySearch(levels, (int) Math.ceil(zoom));
+        return i < 0 ? -i - 1 : i;
+    }
+
+    public boolean contains(double zoom) {
+        return levels.length > 0 && zoom >= levels[0] && zoom <= levels[levels.length - 1];
+    }
+
+    /**
+     * 중심 좌표와 줌으로 화면 사각형을 만든다
+     *
+     * @param aspect 화면 가로 / 세로 비율, NaN 이면 표의 경도 범위 사용
+     * @return 줌이 표의 범위 밖이면 null
+     */
+    public Viewport viewport(double lat, double lon, double zoom, double aspect) {
+        int hi = ceilIndex(zoom);
+        if (hi < 0) {
+            return null;
+        }
+        double latRange;
+        double lonRange;
+        if (levels[hi] == zoom) {
+            latRange = latRanges[hi];
+            lonRange = lonRanges[hi];
+        } else {
+            int lo = hi - 1;
+            double t = (zoom - levels[lo]) / (levels[hi] - levels[lo]);
+            latRange = interpolate(latRanges[lo], latRanges[hi], t);
+            lonRange = interpolate(lonRanges[lo], lonRanges[hi], t);
+        }
+        if (!Double.isNaN(aspect)) {
+            double cos = Math.cos(Math.toRadians(Math.min(MAX_ASPECT_LAT, Math.abs(lat))));
+            lonRange = latRange * aspect / cos;
+        }
+        return new Viewport(lat - latRange, lat + latRange, lon - lonRange, lon + lonRange);
+    }
+
+    private static double interpolate(double from, double to, double t) {
+        return from * Math.pow(to / from, t);
+    }
+
+    /**
+     * 화면 사각형 (위도/경도 최솟값, 최댓값)
+     */
+    public static final class Viewport {
+        private final double minLat;
+        private final double maxLat;
+        private final double minLon;
+        private final double maxLon;
+
+        public Viewport(double minLat, double maxLat, double minLon, double maxLon) {
+            this.minLat = minLat;
+            this.maxLat = maxLat;
+            this.minLon = minLon;
+            this.maxLon = maxLon;
+        }
+
+        public double minLat() {
+            return minLat;
+        }
+
+        public double maxLat() {
+            return maxLat;
+        }
+
+        public double minLon() {
+            return minLon;
+        }
+
+        public double maxLon() {
+            return maxLon;
+        }
+
+        public double height() {
+            return maxLat - minLat;
+        }
+
+        public double width() {
+            return maxLon - minLon;
+        }
+    }
+
+    /**
+     * 레벨을 임의 순서로 받아 정렬된 표를 만드는 빌더 (스레드 안전하지 않음)
+     */
+    public static final class Builder {
+        private final IntList levels = new IntList();
+        private double[] latRanges = new double[16];
+        private double[] lonRanges = new double[16];
+
+        public Builder add(int level, double latRange, double lonRange) {
+            if (!(latRange > 0) || !(lonRange > 0)) {
+                throw new IllegalArgumentException("줌 레벨 범위는 0 보다 커야 합니다: " + level);
+            }
+            int size = levels.size();
+            if (size == latRanges.length) {
+                latRanges = Arrays.copyOf(latRanges, size * 2);
+                lonRanges = Arrays.copyOf(lonRanges, size * 2);
+            }
+            levels.add(level);
+            latRanges[size] = latRange;
+            lonRanges[size] = lonRange;
+            return this;
+        }
+
+        public ZoomLevelTable build() {
+            int size = levels.size();
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(levels.get(a), levels.get(b)));
+
+            int[] sortedLevels = new int[size];
+            double[] sortedLat = new double[size];
+            double[] sortedLon = new double[size];
+            for (int i = 0; i < size; i++) {
+                sortedLevels[i] = levels.get(order[i]);
+                sortedLat[i] = latRanges[order[i]];
+                sortedLon[i] = lonRanges[order[i]];
+                if (i > 0 && sortedLevels[i] == sortedLevels[i - 1]) {
+                    throw new IllegalArgumentException("줌 레벨이 중복되었습니다: " + sortedLevels[i]);
+                }
+            }
+            return new ZoomLevelTable(sortedLevels, sortedLat, sortedLon);
+        }
+    }
+}
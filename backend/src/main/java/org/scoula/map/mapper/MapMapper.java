@@ -1,10 +1,21 @@
 package org.scoula.map.mapper;
 
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+import org.scoula.map.domain.AddressSearchVO;
+import org.scoula.map.domain.AddressTextVO;
+import org.scoula.map.domain.KeyRangeVO;
 import org.scoula.map.domain.MapClusterVO;
+import org.scoula.map.domain.LocationTypeVO;
 import org.scoula.map.domain.MapDetailDTO;
+import org.scoula.map.domain.MapNearestVO;
 import org.scoula.map.domain.MapVO;
+import org.scoula.map.domain.PriceTradeVO;
+import org.scoula.map.domain.RegionPriceVO;
+import org.scoula.map.domain.RegionTransactionVO;
+import org.scoula.map.domain.ZoomLevelVO;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MapMapper {
@@ -13,7 +24,55 @@ public interface MapMapper {
     List<MapDetailDTO> getAddressDetails(Long id);
     List<MapDetailDTO> getReportAddressDetails(Long id);
 
-    List<MapVO> getAddressListMoveAll(@Param("lat") double lat, @Param("lon") double lon, @Param("zoomLevel") int zoomLevel);
+    List<MapDetailDTO> getAddressDetailsByIds(@Param("ids") Collection<Long> ids);
+    List<MapDetailDTO> getReportAddressDetailsByIds(@Param("ids") Collection<Long> ids);
 
-    List<MapClusterVO> getAddressListMoveClusterAll(@Param("lat") double lat, @Param("lon") double lon, @Param("zoomLevel") int zoomLevel, @Param("limit") int limit, @Param("offset") int offset);
+    // ranges: 화면 사각형을 덮는 hilbert_key 구간 (HilbertCurve.ranges), 좌표 조건은 구간이 더 덮은 부분을 거른다
+    List<MapVO> getAddressListMoveAll(@Param("ranges") List<KeyRangeVO> ranges, @Param("minLat") double minLat, @Param("maxLat") double maxLat, @Param("minLon") double minLon, @Param("maxLon") double maxLon);
+
+    // 결과를 모으지 않고 한 행씩 handler 로 넘긴다 (스트리밍 응답용)
+    void getAddressListMoveAllStream(@Param("ranges") List<KeyRangeVO> ranges, @Param("minLat") double minLat, @Param("maxLat") double maxLat, @Param("minLon") double minLon, @Param("maxLon") double maxLon, ResultHandler<MapVO> handler);
+
+    // location_no 기준 seek 페이징 (afterLocationNo 보다 큰 위치부터 limit 건)
+    List<MapClusterVO> getAddressListMoveClusterAfter(@Param("ranges") List<KeyRangeVO> ranges, @Param("minLat") double minLat, @Param("maxLat") double maxLat, @Param("minLon") double minLon, @Param("maxLon") double maxLon, @Param("afterLocationNo") long afterLocationNo, @Param("limit") int limit);
+
+    // 인메모리 공간 인덱스 적재용
+    void getPropertyPoints(ResultHandler<MapVO> handler);
+
+    // 위치별 거래 유형 (최근접 조회 필터용)
+    void getLocationTypes(ResultHandler<LocationTypeVO> handler);
+
+    // 가격 시계열 적재용 (location_no, 계약 유형, 계약일 순)
+    void getPriceTrades(ResultHandler<PriceTradeVO> handler);
+
+    // 인덱스 적재 전 한 위치의 가격 시계열
+    List<PriceTradeVO> getPriceTradesByLocation(@Param("locationNo") long locationNo);
+
+    // 주소 검색 인덱스 적재용 (위치 주소와 위치별 건물명)
+    void getAddressTexts(ResultHandler<AddressTextVO> handler);
+
+    // 인덱스 적재 전 주소 검색 (부분 문자열 일치)
+    List<AddressSearchVO> searchAddressList(@Param("query") String query, @Param("limit") int limit);
+
+    // 인덱스 적재 전 최근접 조회
+    // maxDistance 가 있으면 그 거리를 덮는 사각형 (min/max Lat/Lon) 으로 SPATIAL INDEX 를 먼저 타고, 없으면 전체 거리 계산
+    List<MapNearestVO> getNearestAddressList(@Param("lat") double lat, @Param("lon") double lon, @Param("k") int k,
+                                             @Param("maxDistance") Double maxDistance,
+                                             @Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                             @Param("minLon") double minLon, @Param("maxLon") double maxLon,
+                                             @Param("propertyType") String propertyType, @Param("contractType") String contractType);
+
+    // 지역 가격 집계용 거래 목록 (sigunguCodes 가 null 이면 전체)
+    void getRegionTransactions(@Param("sigunguCodes") Collection<Integer> sigunguCodes, ResultHandler<RegionTransactionVO> handler);
+
+    List<Integer> getSigunguCodesByLocationNos(@Param("locationNos") Collection<Integer> locationNos);
+
+    void upsertRegionPrices(@Param("regions") List<RegionPriceVO> regions, @Param("refreshedAt") long refreshedAt);
+
+    // 이번 갱신에서 다시 쓰지 않은 (거래가 사라진) 지역 삭제
+    void deleteStaleRegionPrices(@Param("sigunguCodes") Collection<Integer> sigunguCodes, @Param("refreshedAt") long refreshedAt);
+
+    List<ZoomLevelVO> getZoomLevels();
+
+    String getPropertyDataVersion();
 }
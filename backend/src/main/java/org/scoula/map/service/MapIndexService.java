@@ -0,0 +1,233 @@
+package org.scoula.map.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j;
+import org.scoula.map.domain.AddressTextVO;
+import org.scoula.map.domain.LocationTypeVO;
+import org.scoula.map.domain.MapVO;
+import org.scoula.map.domain.PriceTradeVO;
+import org.scoula.map.domain.ZoomLevelVO;
+import org.scoula.map.event.PropertyDataChangedEvent;
+import org.scoula.map.index.AddressSearchIndex;
+import org.scoula.map.index.ClusterIndex;
+import org.scoula.map.index.HeatmapPyramid;
+import org.scoula.map.index.LocationTypeIndex;
+import org.scoula.map.index.PriceHistoryIndex;
+import org.scoula.map.index.PropertyPointIndex;
+import org.scoula.map.index.ZoomLevelTable;
+import org.scoula.map.mapper.MapMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Objects;
+
+/**
+ * 지도 조회용 인메모리 데이터(공간 인덱스, 주소 검색 인덱스, 가격 시계열, 줌 레벨 표)를 적재하고 교체하는 서비스
+ * - 기동 시 한 번 전체 적재하고, 이후에는 데이터 변경 이벤트나 주기적인 변경 감지로 다시 적재한다
+ * - 조회 쪽은 volatile 참조만 읽으므로 적재 중에도 이전 스냅샷으로 계속 응답한다
+ */
+@Log4j
+@Service
+@RequiredArgsConstructor
+public class MapIndexService {
+
+    // 클러스터 반경 = 줌 레벨 범위 / 이 값 (화면 한 변에 클러스터가 최대 2 * 이 값 정도 들어감)
+    private static final double CLUSTER_RADIUS_DIVISOR = 8;
+
+    // 줌 레벨 표를 읽지 못했을 때 요청 경로에서 다시 읽는 최소 간격
+    private static final long ZOOM_LEVEL_RETRY_MILLIS = 10_000;
+
+    final private MapMapper mapper;
+    final private ApplicationEventPublisher eventPublisher;
+
+    private volatile PropertyPointIndex pointIndex = PropertyPointIndex.EMPTY;
+    private volatile ClusterIndex clusterIndex = ClusterIndex.EMPTY;
+    private volatile LocationTypeIndex locationTypeIndex = LocationTypeIndex.EMPTY;
+    private volatile HeatmapPyramid heatmapPyramid = HeatmapPyramid.EMPTY;
+    private volatile AddressSearchIndex addressSearchIndex = AddressSearchIndex.EMPTY;
+    private volatile PriceHistoryIndex priceHistoryIndex = PriceHistoryIndex.EMPTY;
+    private volatile ZoomLevelTable zoomLevelTable = ZoomLevelTable.EMPTY;
+    private volatile String dataVersion;
+    private volatile boolean ready;
+
+    private final Object zoomLevelRetryLock = new Object();
+    private long lastZoomLevelRetry;
+
+    @PostConstruct
+    public void init() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // DB 를 사용할 수 없어도 기동은 계속하고, 조회는 mapper 로 처리한다
+            log.error("지도 인덱스 초기 적재 실패", e);
+        }
+    }
+
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        String version = mapper.getPropertyDataVersion();
+
+        // 줌 레벨 표는 mapper 조회의 화면 범위 계산에도 쓰이므로 아래 인덱스 적재가 실패해도 먼저 교체해 둔다
+        ZoomLevelTable levels = loadZoomLevels();
+
+        PropertyPointIndex.Builder builder = new PropertyPointIndex.Builder(pointIndex.size());
+        mapper.getPropertyPoints(context -> {
+            MapVO row = context.getResultObject();
+            builder.add(row.getLocationNo(),
+                    row.getYCoordinate() != null ? row.getYCoordinate() : Double.NaN,
+                    row.getXCoordinate() != null ? row.getXCoordinate() : Double.NaN,
+                    parseOrNaN(row.getPrice()));
+        });
+
+        PropertyPointIndex points = builder.build();
+        ClusterIndex clusters = buildClusterIndex(points, levels);
+
+        LocationTypeIndex.Builder typeBuilder = new LocationTypeIndex.Builder();
+        mapper.getLocationTypes(context -> {
+            LocationTypeVO row = context.getResultObject();
+            typeBuilder.add(points.slotOf(row.getLocationNo()), row.getPropertyType(), row.getContractType());
+        });
+        LocationTypeIndex locationTypes = typeBuilder.build();
+        HeatmapPyramid heatmap = HeatmapPyramid.build(points, HeatmapPyramid.DEFAULT_MAX_LEVEL);
+
+        AddressSearchIndex.Builder searchBuilder = new AddressSearchIndex.Builder();
+        mapper.getAddressTexts(context -> {
+            AddressTextVO row = context.getResultObject();
+            if (row.getBuildingName() != null) {
+                searchBuilder.addBuildingName(row.getLocationNo(), row.getBuildingName());
+            } else {
+                searchBuilder.addLocation(row.getLocationNo(), row.getJibunJuso(), row.getDoroJuso());
+            }
+        });
+        AddressSearchIndex addressSearch = searchBuilder.build();
+
+        PriceHistoryIndex.Builder historyBuilder = new PriceHistoryIndex.Builder();
+        mapper.getPriceTrades(context -> {
+            PriceTradeVO row = context.getResultObject();
+            historyBuilder.add(row.getLocationNo(), row.getContractType(), row.getDate(), row.getPrice());
+        });
+        PriceHistoryIndex priceHistory = historyBuilder.build();
+        if (historyBuilder.dropped() > 0) {
+            log.warn("정렬 순서를 벗어난 실거래 " + historyBuilder.dropped() + "건은 가격 시계열에서 제외");
+        }
+
+        pointIndex = points;
+        clusterIndex = clusters;
+        locationTypeIndex = locationTypes;
+        heatmapPyramid = heatmap;
+        addressSearchIndex = addressSearch;
+        priceHistoryIndex = priceHistory;
+        dataVersion = version;
+        ready = true;
+        log.info("지도 인덱스 적재 완료 : " + pointIndex.size() + "건, " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    // 리스너는 이벤트를 보낸 스레드에서 차례로 실행되므로 예외를 밖으로 던지면 다른 리스너와 적재 요청까지 실패한다
+    // 실패하면 이전 인덱스를 그대로 쓰고, dataVersion 이 그대로라 reloadIfChanged 가 다시 시도한다
+    @EventListener
+    public void onPropertyDataChanged(PropertyDataChangedEvent event) {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("지도 인덱스 재적재 실패", e);
+        }
+    }
+
+    // 외부에서 SQL 로 직접 적재한 경우를 위한 변경 감지 (다른 집계들도 갱신되도록 이벤트로 알린다)
+    @Scheduled(fixedDelayString = "${map.index.refresh-interval:60000}", initialDelayString = "${map.index.refresh-interval:60000}")
+    public void reloadIfChanged() {
+        try {
+            String version = mapper.getPropertyDataVersion();
+            if (!Objects.equals(version, dataVersion)) {
+                log.info("property 데이터 변경 감지 : " + dataVersion + " -> " + version);
+                eventPublisher.publishEvent(new PropertyDataChangedEvent(this));
+            }
+        } catch (Exception e) {
+            log.error("지도 인덱스 변경 감지 실패", e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public PropertyPointIndex getPointIndex() {
+        return pointIndex;
+    }
+
+    public ClusterIndex getClusterIndex() {
+        return clusterIndex;
+    }
+
+    public LocationTypeIndex getLocationTypeIndex() {
+        return locationTypeIndex;
+    }
+
+    public HeatmapPyramid getHeatmapPyramid() {
+        return heatmapPyramid;
+    }
+
+    public AddressSearchIndex getAddressSearchIndex() {
+        return addressSearchIndex;
+    }
+
+    public PriceHistoryIndex getPriceHistoryIndex() {
+        return priceHistoryIndex;
+    }
+
+    public ZoomLevelTable getZoomLevelTable() {
+        ZoomLevelTable table = zoomLevelTable;
+        // 기동 시 DB 를 읽지 못했으면 다시 시도 (줌 레벨 표가 없으면 어떤 화면도 계산할 수 없음)
+        return table.size() > 0 ? table : retryZoomLevels();
+    }
+
+    // 재시도는 ZOOM_LEVEL_RETRY_MILLIS 에 한 요청만 하고, 나머지 요청은 빈 표로 바로 응답한다
+    // reload 와 다른 잠금을 쓰고 DB 조회는 잠금 밖에서 하므로, 적재 중이거나 DB 가 느려도 요청이 줄지어 기다리지 않는다
+    private ZoomLevelTable retryZoomLevels() {
+        long now = System.currentTimeMillis();
+        synchronized (zoomLevelRetryLock) {
+            if (zoomLevelTable.size() > 0 || now - lastZoomLevelRetry < ZOOM_LEVEL_RETRY_MILLIS) {
+                return zoomLevelTable;
+            }
+            lastZoomLevelRetry = now;
+        }
+        return loadZoomLevels();
+    }
+
+    private ZoomLevelTable loadZoomLevels() {
+        ZoomLevelTable.Builder builder = new ZoomLevelTable.Builder();
+        for (ZoomLevelVO level : mapper.getZoomLevels()) {
+            builder.add(level.getZoomLevel(), level.getLatRange(), level.getLonRange());
+        }
+        ZoomLevelTable table = builder.build();
+        zoomLevelTable = table;
+        return table;
+    }
+
+    // zoom_levels 의 1 ~ 최대 레벨까지 클러스터 계층을 만든다 (빠진 레벨은 바로 아래 레벨 반경 사용, 벤치마크에서도 사용)
+    public static ClusterIndex buildClusterIndex(PropertyPointIndex points, ZoomLevelTable levels) {
+        int maxLevel = levels.size() == 0 ? 0 : Math.max(0, levels.level(levels.size() - 1));
+        double[] latRadius = new double[maxLevel + 1];
+        double[] lonRadius = new double[maxLevel + 1];
+        for (int level = 1; level <= maxLevel; level++) {
+            int i = levels.indexOf(level);
+            latRadius[level] = i >= 0 ? levels.latRange(i) / CLUSTER_RADIUS_DIVISOR : latRadius[level - 1];
+            lonRadius[level] = i >= 0 ? levels.lonRange(i) / CLUSTER_RADIUS_DIVISOR : lonRadius[level - 1];
+        }
+        return ClusterIndex.build(points, latRadius, lonRadius);
+    }
+
+    static double parseOrNaN(String value) {
+        if (value == null || value.isBlank()) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -1,19 +1,53 @@
 package org.scoula.map.service;
 
+import org.scoula.common.pagination.CursorPage;
+import org.scoula.map.codec.MarkerColumns;
+import org.scoula.map.domain.AddressSearchVO;
+import org.scoula.map.domain.HeatmapVO;
 import org.scoula.map.domain.MapClusterVO;
 import org.scoula.map.domain.MapDetailDTO;
+import org.scoula.map.domain.MapNearestVO;
 import org.scoula.map.domain.MapVO;
+import org.scoula.map.domain.PriceHistoryVO;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface MapService {
     List<MapVO> getAllAddress();
 
-    List<MapVO> getAddressListMoveAll(double lat, double lon, int zoomLevel);
+    // 화면 구역: 중심 좌표와 줌 레벨 (소수 가능), aspect 는 화면 가로 / 세로 비율 (null 이면 줌 레벨 표의 기본 비율)
+    List<MapVO> getAddressListMoveAll(double lat, double lon, double zoomLevel, Double aspect);
 
-    List<MapClusterVO> getAddressListMoveClusterAll(double lat, double lon, int zoomLevel, int page, int limit);
+    // 구역 안의 주소를 목록으로 모으지 않고 하나씩 consumer 로 넘긴다
+    void streamAddressListMoveAll(double lat, double lon, double zoomLevel, Double aspect, Consumer<MapVO> consumer);
+
+    MarkerColumns getAddressColumnsMoveAll(double lat, double lon, double zoomLevel, Double aspect);
+
+    List<MapClusterVO> getAddressListMoveClusterAll(double lat, double lon, double zoomLevel, Double aspect, int page, int limit);
+
+    CursorPage<MapClusterVO> getAddressListMoveClusterPage(double lat, double lon, double zoomLevel, Double aspect, String cursor, int limit);
+
+    // 기준점에서 가까운 순서로 최대 k 개 위치 (maxDistance: m, 유형 조건은 null 이면 무시)
+    List<MapNearestVO> getNearestAddressList(double lat, double lon, int k, Double maxDistance, String propertyType, String contractType);
+
+    // 지번/도로명 주소, 건물명 자동완성 (순위순 최대 limit 개)
+    List<AddressSearchVO> searchAddress(String query, int limit);
+
+    // 사각형 영역의 가격/밀도 격자 (해상도는 줌 레벨로 정함)
+    HeatmapVO getHeatmap(double zoomLevel, double minLat, double maxLat, double minLon, double maxLon);
+
+    // 위치의 계약 유형별 가격 시계열 (from, to 는 null 이면 제한 없음, bucket: none, month, quarter, year)
+    PriceHistoryVO getPriceHistory(Long id, LocalDate from, LocalDate to, String bucket);
 
     List<MapDetailDTO> getAddressDetails(Long id);
     List<MapDetailDTO> getReportAddressDetails(Long id);
 
+    // 위치 번호 -> 상세 목록 (없는 id 는 결과에서 빠짐)
+    Map<Integer, List<MapDetailDTO>> getAddressDetailsBatch(List<Long> ids);
+    // 매물 번호 목록으로 조회해 위치 번호별로 묶는다
+    Map<Integer, List<MapDetailDTO>> getReportAddressDetailsBatch(List<Long> ids);
+
 }
\ No newline at end of file
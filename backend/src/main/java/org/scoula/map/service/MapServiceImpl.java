@@ -3,21 +3,105 @@ package org.scoula.map.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j;
 import org.apache.ibatis.annotations.Param;
+import org.scoula.common.cache.LruCache;
+import org.scoula.common.pagination.CursorPage;
+import org.scoula.exception.BadRequestException;
+import org.scoula.map.codec.MarkerColumns;
+import org.scoula.map.domain.AddressSearchVO;
+import org.scoula.map.domain.HeatmapCellVO;
+import org.scoula.map.domain.HeatmapVO;
+import org.scoula.map.domain.KeyRangeVO;
 import org.scoula.map.domain.MapClusterVO;
 import org.scoula.map.domain.MapDetailDTO;
+import org.scoula.map.domain.MapNearestVO;
 import org.scoula.map.domain.MapVO;
+import org.scoula.map.domain.PriceHistoryVO;
+import org.scoula.map.domain.PriceSeriesVO;
+import org.scoula.map.event.PropertyDataChangedEvent;
+import org.scoula.map.index.AddressSearchIndex;
+import org.scoula.map.index.ClusterIndex;
+import org.scoula.map.index.HeatmapPyramid;
+import org.scoula.map.index.HilbertCurve;
+import org.scoula.map.index.PriceHistoryIndex;
+import org.scoula.map.index.PropertyPointIndex;
+import org.scoula.map.index.ZoomLevelTable;
 import org.scoula.map.mapper.MapMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 @Log4j
 @Service
 @RequiredArgsConstructor
 public class MapServiceImpl implements MapService {
 
+    // 히트맵: 화면(줌 레벨 범위) 한 변을 나누는 셀 수, 요청 영역 한 변의 최대 셀 수
+    private static final int HEATMAP_CELLS_PER_VIEWPORT = 32;
+    private static final int HEATMAP_MAX_CELLS_PER_SIDE = 128;
+
+    // 화면 하나를 나눌 최대 hilbert_key 구간 수 (구간이 많으면 OR 조건이 길어지고, 적으면 더 많이 읽는다)
+    private static final int MAX_SQL_KEY_RANGES = 16;
+
+    // 화면 하나가 걸칠 수 있는 최대 타일 수 (넘으면 타일 캐시 없이 인덱스에서 바로 찾는다)
+    private static final int MAX_VIEWPORT_TILES = 64;
+
+    // 가격 시계열 구간 단위 -> 개월 수 (none 은 개별 거래)
+    private static final String HISTORY_BUCKET_NONE = "none";
+    private static final Map<String, Integer> HISTORY_BUCKET_MONTHS = Map.of("month", 1, "quarter", 3, "year", 12);
+
     final private MapMapper mapper;
+    final private MapIndexService indexService;
+
+    @Value("${map.viewport-cache.max-markers:300000}")
+    private long viewportCacheMaxMarkers;
+
+    @Value("${map.viewport-cache.ttl-seconds:300}")
+    private long viewportCacheTtlSeconds;
+
+    @Value("${map.detail-cache.max-rows:100000}")
+    private long detailCacheMaxRows;
+
+    @Value("${map.detail-cache.ttl-seconds:600}")
+    private long detailCacheTtlSeconds;
+
+    // 줌 레벨별 화면 격자 타일 -> 타일 안의 마커 목록
+    private LruCache<String, List<MapVO>> viewportTileCache;
+    private PropertyPointIndex viewportCacheIndex;
+
+    // location_no / property_no -> 상세 목록 (결과 없는 id 는 빈 목록)
+    private LruCache<Long, List<MapDetailDTO>> detailCache;
+    private LruCache<Long, List<MapDetailDTO>> reportDetailCache;
+    // 데이터 변경 이벤트마다 증가, 조회 전에 읽은 값과 다르면 그 사이에 비워진 것이므로 결과를 캐시하지 않는다 (detailCacheLock 으로 보호)
+    private final Object detailCacheLock = new Object();
+    private long detailCacheGeneration;
+
+    @PostConstruct
+    public void init() {
+        viewportTileCache = new LruCache<>(viewportCacheMaxMarkers, tile -> Math.max(1, tile.size()),
+                Duration.ofSeconds(viewportCacheTtlSeconds));
+        detailCache = new LruCache<>(detailCacheMaxRows, details -> Math.max(1, details.size()),
+                Duration.ofSeconds(detailCacheTtlSeconds));
+        reportDetailCache = new LruCache<>(detailCacheMaxRows, details -> Math.max(1, details.size()),
+                Duration.ofSeconds(detailCacheTtlSeconds));
+    }
 
     @Override
     public List<MapVO> getAllAddress() {
@@ -25,19 +109,438 @@ public class MapServiceImpl implements MapService {
     }
 
     @Override
-    public List<MapVO> getAddressListMoveAll(@Param("lat") double lat, @Param("lon") double lon, @Param("zoomLevel") int zoomLevel) {
-        return mapper.getAddressListMoveAll(lat, lon, zoomLevel);
+    public List<MapVO> getAddressListMoveAll(@Param("lat") double lat, @Param("lon") double lon, @Param("zoomLevel") double zoomLevel, @Param("aspect") Double aspect) {
+        ZoomLevelTable zoomLevels = indexService.getZoomLevelTable();
+        ZoomLevelTable.Viewport viewport = viewport(zoomLevels, lat, lon, zoomLevel, aspect);
+        if (viewport == null) {
+            return new ArrayList<>();
+        }
+        // 인덱스 적재 전(DB 장애 등)에는 기존 쿼리로 처리
+        if (!indexService.isReady()) {
+            return mapper.getAddressListMoveAll(keyRanges(viewport), viewport.minLat(), viewport.maxLat(), viewport.minLon(), viewport.maxLon());
+        }
+
+        // 데이터가 있는 범위로 화면을 잘라 타일 수를 제한한다 (범위 밖은 어차피 빈 타일)
+        PropertyPointIndex index = indexService.getPointIndex();
+        double minLat = Math.max(viewport.minLat(), index.minLat());
+        double maxLat = Math.min(viewport.maxLat(), index.maxLat());
+        double minLon = Math.max(viewport.minLon(), index.minLon());
+        double maxLon = Math.min(viewport.maxLon(), index.maxLon());
+        if (!(minLat <= maxLat && minLon <= maxLon)) {
+            return new ArrayList<>();
+        }
+
+        // 화면을 덮는 정수 레벨의 화면 크기(2 * 범위) 격자로 나눈 타일들을 캐시에서 꺼내 화면 영역만 골라 합친다
+        // (소수 줌, 화면 비율이 달라도 같은 타일을 재사용)
+        int tileZoom = zoomLevels.ceilIndex(zoomLevel);
+        double tileLat = zoomLevels.latRange(tileZoom) * 2;
+        double tileLon = zoomLevels.lonRange(tileZoom) * 2;
+        long minTy = (long) Math.floor(minLat / tileLat);
+        long maxTy = (long) Math.floor(maxLat / tileLat);
+        long minTx = (long) Math.floor(minLon / tileLon);
+        long maxTx = (long) Math.floor(maxLon / tileLon);
+        if ((maxTy - minTy + 1) * (maxTx - minTx + 1) > MAX_VIEWPORT_TILES) {
+            List<MapVO> addressList = new ArrayList<>();
+            for (int slot : index.search(minLat, maxLat, minLon, maxLon)) {
+                addressList.add(new MapVO(index.locationNo(slot),
+                        index.lon(slot),
+                        index.lat(slot),
+                        index.hasPrice(slot) ? Double.toString(index.price(slot)) : null));
+            }
+            return addressList;
+        }
+
+        List<MapVO> addressList = new ArrayList<>();
+        for (long ty = minTy; ty <= maxTy; ty++) {
+            for (long tx = minTx; tx <= maxTx; tx++) {
+                for (MapVO address : getViewportTile(zoomLevels.level(tileZoom), tileLat, tileLon, ty, tx)) {
+                    double y = address.getYCoordinate();
+                    double x = address.getXCoordinate();
+                    // 타일 경계 위의 점은 한 타일에만 속하도록 소유 타일을 확인
+                    if (y >= minLat && y <= maxLat && x >= minLon && x <= maxLon
+                            && (long) Math.floor(y / tileLat) == ty && (long) Math.floor(x / tileLon) == tx) {
+                        addressList.add(address);
+                    }
+                }
+            }
+        }
+        addressList.sort(Comparator.comparingInt(MapVO::getLocationNo));
+        return addressList;
+    }
+
+    private List<MapVO> getViewportTile(int zoomLevel, double tileLat, double tileLon, long ty, long tx) {
+        PropertyPointIndex index = indexService.getPointIndex();
+        synchronized (this) {
+            if (viewportCacheIndex != index) {
+                viewportTileCache.invalidateAll();
+                viewportCacheIndex = index;
+            }
+        }
+
+        String key = zoomLevel + "/" + ty + "/" + tx;
+        List<MapVO> tile = viewportTileCache.get(key);
+        if (tile != null) {
+            return tile;
+        }
+
+        // 나눗셈 반올림 오차로 경계의 점이 빠지지 않도록 조금 넓게 조회 (중복은 병합 시 소유 타일 확인으로 제거)
+        double padLat = tileLat * 1e-9;
+        double padLon = tileLon * 1e-9;
+        int[] slots = index.search(ty * tileLat - padLat, (ty + 1) * tileLat + padLat,
+                tx * tileLon - padLon, (tx + 1) * tileLon + padLon);
+        List<MapVO> addressList = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            addressList.add(new MapVO(index.locationNo(slot),
+                    index.lon(slot),
+                    index.lat(slot),
+                    index.hasPrice(slot) ? Double.toString(index.price(slot)) : null));
+        }
+        tile = Collections.unmodifiableList(addressList);
+
+        // 인덱스가 그 사이에 교체됐다면 이전 데이터로 만든 타일은 캐시하지 않는다
+        if (index == indexService.getPointIndex()) {
+            viewportTileCache.put(key, tile);
+        }
+        return tile;
     }
 
     @Override
-    public List<MapClusterVO> getAddressListMoveClusterAll(@Param("lat") double lat, @Param("lon") double lon, @Param("zoomLevel") int zoomLevel, @Param("page") int page, @Param("limit") int limit) {
-        int offset = (page - 1) * limit;  // Calculate offset based on page and limit
-        return mapper.getAddressListMoveClusterAll(lat, lon, zoomLevel, limit, offset);  // Pass limit and offset to the mapper
+    public void streamAddressListMoveAll(double lat, double lon, double zoomLevel, Double aspect, Consumer<MapVO> consumer) {
+        ZoomLevelTable.Viewport viewport = viewport(indexService.getZoomLevelTable(), lat, lon, zoomLevel, aspect);
+        if (viewport == null) {
+            return;
+        }
+        if (!indexService.isReady()) {
+            mapper.getAddressListMoveAllStream(keyRanges(viewport), viewport.minLat(), viewport.maxLat(), viewport.minLon(), viewport.maxLon(),
+                    context -> consumer.accept(context.getResultObject()));
+            return;
+        }
+
+        PropertyPointIndex index = indexService.getPointIndex();
+        for (int slot : searchViewport(index, viewport)) {
+            consumer.accept(new MapVO(index.locationNo(slot),
+                    index.lon(slot),
+                    index.lat(slot),
+                    index.hasPrice(slot) ? Double.toString(index.price(slot)) : null));
+        }
+    }
+
+    @Override
+    public MarkerColumns getAddressColumnsMoveAll(double lat, double lon, double zoomLevel, Double aspect) {
+        ZoomLevelTable.Viewport viewport = viewport(indexService.getZoomLevelTable(), lat, lon, zoomLevel, aspect);
+        if (viewport == null) {
+            return new MarkerColumns(0);
+        }
+        if (!indexService.isReady()) {
+            List<MapVO> addressList = mapper.getAddressListMoveAll(keyRanges(viewport), viewport.minLat(), viewport.maxLat(), viewport.minLon(), viewport.maxLon());
+            MarkerColumns columns = new MarkerColumns(addressList.size());
+            for (int i = 0; i < addressList.size(); i++) {
+                MapVO address = addressList.get(i);
+                columns.set(i, address.getLocationNo(), address.getYCoordinate(), address.getXCoordinate(),
+                        MapIndexService.parseOrNaN(address.getPrice()));
+            }
+            return columns;
+        }
+
+        // 인덱스의 기본형 배열에서 바로 채운다 (MapVO 를 만들지 않음)
+        PropertyPointIndex index = indexService.getPointIndex();
+        int[] slots = searchViewport(index, viewport);
+        MarkerColumns columns = new MarkerColumns(slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            columns.set(i, index.locationNo(slot), index.lat(slot), index.lon(slot), index.price(slot));
+        }
+        return columns;
+    }
+
+    @Override
+    public List<MapClusterVO> getAddressListMoveClusterAll(@Param("lat") double lat, @Param("lon") double lon, @Param("zoomLevel") double zoomLevel, @Param("aspect") Double aspect, @Param("page") int page, @Param("limit") int limit) {
+        ZoomLevelTable.Viewport viewport = viewport(indexService.getZoomLevelTable(), lat, lon, zoomLevel, aspect);
+        if (viewport == null) {
+            return new ArrayList<>();
+        }
+        if (!indexService.isReady()) {
+            // 인덱스 적재 전에는 클러스터링 없이 개별 위치를 page / limit 단위로 (location_no 순으로 이 페이지 끝까지 읽고 앞을 잘라낸다)
+            long offset = (long) (Math.max(page, 1) - 1) * limit;
+            if (limit < 1 || offset + limit > Integer.MAX_VALUE) {
+                return new ArrayList<>();
+            }
+            List<MapClusterVO> addressList = mapper.getAddressListMoveClusterAfter(keyRanges(viewport), viewport.minLat(), viewport.maxLat(), viewport.minLon(), viewport.maxLon(),
+                    0, (int) (offset + limit));
+            return offset >= addressList.size() ? new ArrayList<>() : new ArrayList<>(addressList.subList((int) offset, addressList.size()));
+        }
+        // 서버 클러스터링 결과는 한 번에 모두 내려주므로 2 페이지부터는 빈 목록
+        if (page > 1) {
+            return new ArrayList<>();
+        }
+
+        // 클러스터 계층은 정수 레벨마다 있으므로 소수 줌은 가까운 레벨을 쓴다
+        ClusterIndex clusterIndex = indexService.getClusterIndex();
+        ClusterIndex.Level level = clusterIndex.level(Math.max(0, Math.min((int) Math.round(zoomLevel), clusterIndex.maxLevel())));
+        int[] clusters = level.search(viewport.minLat(), viewport.maxLat(), viewport.minLon(), viewport.maxLon());
+        List<MapClusterVO> clusterList = new ArrayList<>(clusters.length);
+        for (int i : clusters) {
+            double price = level.averagePrice(i);
+            clusterList.add(new MapClusterVO(
+                    level.lon(i),
+                    level.lat(i),
+                    level.count(i),
+                    Double.isNaN(price) ? null : Math.round(price * 10) / 10.0,
+                    level.locationNo(i) < 0 ? null : level.locationNo(i)));
+        }
+        return clusterList;
+    }
+
+    @Override
+    public CursorPage<MapClusterVO> getAddressListMoveClusterPage(double lat, double lon, double zoomLevel, Double aspect, String cursor, int limit) {
+        long afterLocationNo = CursorPage.decodeCursor(cursor);
+        ZoomLevelTable.Viewport viewport = viewport(indexService.getZoomLevelTable(), lat, lon, zoomLevel, aspect);
+        if (viewport == null) {
+            return CursorPage.of(new ArrayList<>(), null);
+        }
+        List<MapClusterVO> addressList;
+
+        // 다음 페이지 존재 여부 확인을 위해 한 건 더 읽는다
+        if (!indexService.isReady()) {
+            addressList = mapper.getAddressListMoveClusterAfter(keyRanges(viewport), viewport.minLat(), viewport.maxLat(), viewport.minLon(), viewport.maxLon(),
+                    afterLocationNo, limit + 1);
+        } else {
+            PropertyPointIndex index = indexService.getPointIndex();
+            int[] slots = searchViewport(index, viewport);
+            addressList = new ArrayList<>(Math.min(slots.length, limit + 1));
+            for (int i = firstAfter(index, slots, afterLocationNo); i < slots.length && addressList.size() <= limit; i++) {
+                addressList.add(new MapClusterVO(index.lon(slots[i]), index.lat(slots[i]),
+                        1, null, index.locationNo(slots[i])));
+            }
+        }
+
+        if (addressList.size() <= limit) {
+            return CursorPage.of(addressList, null);
+        }
+        addressList = new ArrayList<>(addressList.subList(0, limit));
+        return CursorPage.of(addressList, CursorPage.encodeCursor(addressList.get(limit - 1).getLocationNo()));
+    }
+
+    // location_no 오름차순 slot 배열에서 afterLocationNo 보다 큰 첫 위치 (이진 탐색)
+    private static int firstAfter(PropertyPointIndex index, int[] slots, long afterLocationNo) {
+        int low = 0;
+        int high = slots.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (index.locationNo(slots[mid]) <= afterLocationNo) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // 줌 레벨 표로 중심 좌표 주변 화면 사각형을 만든다 (aspect 가 없으면 표의 경도 범위, 표 범위 밖의 줌이면 null)
+    private static ZoomLevelTable.Viewport viewport(ZoomLevelTable zoomLevels, double lat, double lon, double zoomLevel, Double aspect) {
+        return zoomLevels.viewport(lat, lon, zoomLevel, aspect != null ? aspect : Double.NaN);
+    }
+
+    // DB 조회용: 화면 사각형을 덮는 hilbert_key 구간 (빈 사각형이면 빈 목록, 매퍼는 이때 1 = 0 으로 아무 행도 고르지 않는다)
+    private static List<KeyRangeVO> keyRanges(ZoomLevelTable.Viewport viewport) {
+        long[] ranges = HilbertCurve.ranges(viewport.minLat(), viewport.maxLat(), viewport.minLon(), viewport.maxLon(), MAX_SQL_KEY_RANGES);
+        List<KeyRangeVO> keyRanges = new ArrayList<>(ranges.length / 2);
+        for (int i = 0; i < ranges.length; i += 2) {
+            keyRanges.add(new KeyRangeVO(ranges[i], ranges[i + 1]));
+        }
+        return keyRanges;
+    }
+
+    private static int[] searchViewport(PropertyPointIndex index, ZoomLevelTable.Viewport viewport) {
+        return index.search(viewport.minLat(), viewport.maxLat(), viewport.minLon(), viewport.maxLon());
+    }
+
+    @Override
+    public List<MapNearestVO> getNearestAddressList(double lat, double lon, int k, Double maxDistance, String propertyType, String contractType) {
+        if (!indexService.isReady()) {
+            // maxDistance 를 덮는 위경도 사각형 (경계의 점을 놓치지 않도록 1% 넓게, 경도 폭은 사각형에서 극에 가까운 쪽 위도 기준)
+            double latDelta = maxDistance != null ? maxDistance / PropertyPointIndex.METERS_PER_DEGREE * 1.01 : 0;
+            double lonDelta = latDelta / Math.cos(Math.toRadians(Math.min(89, Math.abs(lat) + latDelta)));
+            return mapper.getNearestAddressList(lat, lon, k, maxDistance,
+                    lat - latDelta, lat + latDelta, lon - lonDelta, lon + lonDelta,
+                    propertyType, contractType);
+        }
+
+        PropertyPointIndex index = indexService.getPointIndex();
+        int[] slots = index.nearest(lat, lon, k,
+                maxDistance != null ? maxDistance : Double.POSITIVE_INFINITY,
+                indexService.getLocationTypeIndex().filter(propertyType, contractType));
+        List<MapNearestVO> nearestList = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            nearestList.add(new MapNearestVO(index.locationNo(slot),
+                    index.lon(slot),
+                    index.lat(slot),
+                    index.hasPrice(slot) ? index.price(slot) : null,
+                    PropertyPointIndex.distanceMeters(lat, lon, index.lat(slot), index.lon(slot))));
+        }
+        return nearestList;
+    }
+
+    @Override
+    public List<AddressSearchVO> searchAddress(String query, int limit) {
+        if (!indexService.isReady()) {
+            return mapper.searchAddressList(query.trim(), limit);
+        }
+
+        AddressSearchIndex search = indexService.getAddressSearchIndex();
+        PropertyPointIndex points = indexService.getPointIndex();
+        int[] docs = search.search(query, limit);
+        List<AddressSearchVO> addressList = new ArrayList<>(docs.length);
+        for (int doc : docs) {
+            int slot = points.slotOf(search.locationNo(doc));
+            boolean located = slot >= 0 && !Double.isNaN(points.lat(slot));
+            addressList.add(new AddressSearchVO(search.locationNo(doc),
+                    search.jibunJuso(doc),
+                    search.doroJuso(doc),
+                    search.field(doc) == AddressSearchIndex.FIELD_BUILDING ? search.text(doc) : null,
+                    located ? points.lon(slot) : null,
+                    located ? points.lat(slot) : null,
+                    slot >= 0 && points.hasPrice(slot) ? points.price(slot) : null));
+        }
+        return addressList;
+    }
+
+    @Override
+    public HeatmapVO getHeatmap(double zoomLevel, double minLat, double maxLat, double minLon, double maxLon) {
+        ZoomLevelTable.Viewport viewport = viewport(indexService.getZoomLevelTable(),
+                (minLat + maxLat) / 2, (minLon + maxLon) / 2, zoomLevel, null);
+        if (viewport == null) {
+            return new HeatmapVO(0, 0, 0, new ArrayList<>());
+        }
+
+        // 줌 레벨 화면 크기에 맞는 셀 크기를 고르고, 요청 영역이 넓으면 셀 수가 한도 안에 들도록 더 거친 레벨 사용
+        HeatmapPyramid pyramid = indexService.getHeatmapPyramid();
+        int level = pyramid.levelFor(viewport.height() / HEATMAP_CELLS_PER_VIEWPORT,
+                viewport.width() / HEATMAP_CELLS_PER_VIEWPORT);
+        while (level > 0 && ((maxLat - minLat) / pyramid.cellLat(level) > HEATMAP_MAX_CELLS_PER_SIDE
+                || (maxLon - minLon) / pyramid.cellLon(level) > HEATMAP_MAX_CELLS_PER_SIDE)) {
+            level--;
+        }
+
+        List<HeatmapCellVO> cells = new ArrayList<>();
+        pyramid.forEachCell(level, minLat, maxLat, minLon, maxLon, (lat, lon, count, averagePrice) ->
+                cells.add(new HeatmapCellVO(lon, lat, count,
+                        Double.isNaN(averagePrice) ? null : Math.round(averagePrice * 10) / 10.0)));
+        return new HeatmapVO(level, pyramid.cellLat(level), pyramid.cellLon(level), cells);
+    }
+
+    @Override
+    public PriceHistoryVO getPriceHistory(Long id, LocalDate from, LocalDate to, String bucket) {
+        Integer monthsPerBucket = HISTORY_BUCKET_MONTHS.get(bucket);
+        if (monthsPerBucket == null && !HISTORY_BUCKET_NONE.equals(bucket)) {
+            throw new BadRequestException("bucket 은 none, month, quarter, year 중 하나여야 합니다.");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("from 이 to 보다 늦습니다.");
+        }
+
+        // 인덱스 적재 전에는 이 위치의 거래만 읽어 같은 구조로 만든다
+        PriceHistoryIndex history;
+        if (indexService.isReady()) {
+            history = indexService.getPriceHistoryIndex();
+        } else {
+            PriceHistoryIndex.Builder builder = new PriceHistoryIndex.Builder();
+            mapper.getPriceTradesByLocation(id).forEach(trade ->
+                    builder.add(trade.getLocationNo(), trade.getContractType(), trade.getDate(), trade.getPrice()));
+            history = builder.build();
+        }
+        int location = id > Integer.MAX_VALUE ? -1 : history.location(id.intValue());
+        if (location < 0) {
+            throw new NoSuchElementException("Price history not found for id: " + id);
+        }
+
+        List<PriceSeriesVO> seriesList = new ArrayList<>();
+        for (int series = history.seriesStart(location); series < history.seriesEnd(location); series++) {
+            PriceSeriesVO priceSeries = monthsPerBucket == null
+                    ? toTradeSeries(history, series, from, to)
+                    : toBucketSeries(history, series, from, to, monthsPerBucket);
+            if (priceSeries.getCount() > 0) {
+                seriesList.add(priceSeries);
+            }
+        }
+        return new PriceHistoryVO(id.intValue(), bucket, seriesList);
+    }
+
+    // 개별 거래: 첫 거래일/가격 기준 차이값으로 압축
+    private static PriceSeriesVO toTradeSeries(PriceHistoryIndex history, int series, LocalDate from, LocalDate to) {
+        int start = history.tradeFrom(series, from != null ? from.toEpochDay() : Long.MIN_VALUE);
+        int end = history.tradeTo(series, to != null ? to.toEpochDay() : Long.MAX_VALUE);
+        int count = Math.max(0, end - start);
+        int[] dayDeltas = new int[count];
+        int[] priceDeltas = new int[count];
+        for (int i = 0; i < count; i++) {
+            int trade = start + i;
+            dayDeltas[i] = i == 0 ? 0 : history.tradeDay(trade) - history.tradeDay(trade - 1);
+            priceDeltas[i] = i == 0 ? history.tradePrice(trade) : history.tradePrice(trade) - history.tradePrice(trade - 1);
+        }
+        String firstDate = count == 0 ? null : LocalDate.ofEpochDay(history.tradeDay(start)).toString();
+        return new PriceSeriesVO(history.contractType(series), count, null, null, null, null, null,
+                firstDate, dayDeltas, priceDeltas);
+    }
+
+    // 구간 집계: 미리 만든 월 집계를 monthsPerBucket 개월씩 합친다
+    // (from, to 가 속한 분기/연 전체 포함, 구간 중간에서 잘린 묶음이 온전한 분기/연으로 표시되지 않게 경계로 넓힌다)
+    private static PriceSeriesVO toBucketSeries(PriceHistoryIndex history, int series, LocalDate from, LocalDate to, int monthsPerBucket) {
+        int fromMonth = Integer.MIN_VALUE;
+        if (from != null) {
+            fromMonth = PriceHistoryIndex.monthOf(from);
+            fromMonth -= Math.floorMod(fromMonth, monthsPerBucket);
+        }
+        int toMonth = Integer.MAX_VALUE;
+        if (to != null) {
+            toMonth = PriceHistoryIndex.monthOf(to);
+            toMonth += monthsPerBucket - 1 - Math.floorMod(toMonth, monthsPerBucket);
+        }
+
+        List<String> periods = new ArrayList<>();
+        List<double[]> buckets = new ArrayList<>(); // 건수, 평균, 최저, 최고 (억)
+        history.forEachBucket(series, fromMonth, toMonth, monthsPerBucket,
+                (firstMonth, count, averagePrice, minPrice, maxPrice) -> {
+                    periods.add(periodLabel(firstMonth, monthsPerBucket));
+                    buckets.add(new double[]{count, Math.round(averagePrice) / 100.0, minPrice / 100.0, maxPrice / 100.0});
+                });
+
+        int total = 0;
+        int[] counts = new int[buckets.size()];
+        double[] averagePrices = new double[buckets.size()];
+        double[] minPrices = new double[buckets.size()];
+        double[] maxPrices = new double[buckets.size()];
+        for (int i = 0; i < buckets.size(); i++) {
+            counts[i] = (int) buckets.get(i)[0];
+            total += counts[i];
+            averagePrices[i] = buckets.get(i)[1];
+            minPrices[i] = buckets.get(i)[2];
+            maxPrices[i] = buckets.get(i)[3];
+        }
+        return new PriceSeriesVO(history.contractType(series), total, periods, counts, averagePrices, minPrices, maxPrices,
+                null, null, null);
+    }
+
+    private static String periodLabel(int month, int monthsPerBucket) {
+        int year = Math.floorDiv(month, 12);
+        int monthOfYear = Math.floorMod(month, 12) + 1;
+        if (monthsPerBucket == 12) {
+            return String.valueOf(year);
+        }
+        if (monthsPerBucket == 3) {
+            return year + "-Q" + ((monthOfYear - 1) / 3 + 1);
+        }
+        return String.format("%d-%02d", year, monthOfYear);
     }
 
     @Override
     public List<MapDetailDTO> getAddressDetails(Long id) { // 반환 타입을 List로 변경
-        List<MapDetailDTO> addressDetails = mapper.getAddressDetails(id); // List로 받음
+        List<MapDetailDTO> addressDetails = detailCache.get(id);
+        if (addressDetails == null) {
+            long generation = detailCacheGeneration();
+            addressDetails = Collections.unmodifiableList(mapper.getAddressDetails(id)); // List로 받음
+            putDetails(detailCache, id, addressDetails, generation);
+        }
         if (addressDetails.isEmpty()) {
             throw new NoSuchElementException("Address not found for id: " + id);
         }
@@ -46,10 +549,108 @@ public class MapServiceImpl implements MapService {
 
     @Override
     public List<MapDetailDTO> getReportAddressDetails(Long id) { // 반환 타입을 List로 변경
-        List<MapDetailDTO> addressDetails = mapper.getReportAddressDetails(id); // List로 받음
+        List<MapDetailDTO> addressDetails = reportDetailCache.get(id);
+        if (addressDetails == null) {
+            long generation = detailCacheGeneration();
+            addressDetails = Collections.unmodifiableList(mapper.getReportAddressDetails(id)); // List로 받음
+            putDetails(reportDetailCache, id, addressDetails, generation);
+        }
         if (addressDetails.isEmpty()) {
             throw new NoSuchElementException("Address not found for id: " + id);
         }
         return addressDetails;
     }
-}
\ No newline at end of file
+
+    @Override
+    public Map<Integer, List<MapDetailDTO>> getAddressDetailsBatch(List<Long> ids) {
+        return groupByLocation(getDetailsBatch(ids, detailCache, MapDetailDTO::getLocationNo, mapper::getAddressDetailsByIds));
+    }
+
+    @Override
+    public Map<Integer, List<MapDetailDTO>> getReportAddressDetailsBatch(List<Long> ids) {
+        return groupByLocation(getDetailsBatch(ids, reportDetailCache, MapDetailDTO::getPropertyNo, mapper::getReportAddressDetailsByIds));
+    }
+
+    // 캐시에 있는 id 는 캐시에서, 나머지는 IN 쿼리 한 번으로 읽어 캐시에 채운다 (결과 없는 id 도 빈 목록으로 캐시)
+    private List<MapDetailDTO> getDetailsBatch(List<Long> ids, LruCache<Long, List<MapDetailDTO>> cache,
+                                               ToIntFunction<MapDetailDTO> keyOf,
+                                               Function<Collection<Long>, List<MapDetailDTO>> loader) {
+        Map<Long, List<MapDetailDTO>> found = new LinkedHashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            List<MapDetailDTO> cached = cache.get(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long generation = detailCacheGeneration();
+            Map<Long, List<MapDetailDTO>> loaded = new HashMap<>();
+            for (MapDetailDTO detail : loader.apply(missing)) {
+                loaded.computeIfAbsent((long) keyOf.applyAsInt(detail), key -> new ArrayList<>()).add(detail);
+            }
+            for (Long id : missing) {
+                List<MapDetailDTO> details = Collections.unmodifiableList(loaded.getOrDefault(id, new ArrayList<>()));
+                putDetails(cache, id, details, generation);
+                found.put(id, details);
+            }
+        }
+
+        List<MapDetailDTO> details = new ArrayList<>();
+        found.values().forEach(details::addAll);
+        details.sort(Comparator.comparingInt(MapDetailDTO::getLocationNo).thenComparingInt(MapDetailDTO::getPropertyNo));
+        return details;
+    }
+
+    // 바뀐 location_no 를 알면 그 위치의 상세만 비운다 (매물 상세는 property_no 기준이라 통째로 비움)
+    @EventListener
+    public void onPropertyDataChanged(PropertyDataChangedEvent event) {
+        synchronized (detailCacheLock) {
+            detailCacheGeneration++;
+            try {
+                if (event.isFullReload()) {
+                    invalidateDetailCaches();
+                    return;
+                }
+                event.getLocationNos().forEach(locationNo -> detailCache.invalidate((long) locationNo));
+                reportDetailCache.invalidateAll();
+            } catch (Exception e) {
+                log.error("상세 캐시 비우기 실패", e);
+            }
+        }
+    }
+
+    private long detailCacheGeneration() {
+        synchronized (detailCacheLock) {
+            return detailCacheGeneration;
+        }
+    }
+
+    // 조회하는 동안 데이터 변경 이벤트가 있었다면 (변경 전에 읽었을 수 있으므로) 캐시하지 않는다
+    private void putDetails(LruCache<Long, List<MapDetailDTO>> cache, Long id, List<MapDetailDTO> details, long generation) {
+        synchronized (detailCacheLock) {
+            if (generation == detailCacheGeneration) {
+                cache.put(id, details);
+            }
+        }
+    }
+
+    private void invalidateDetailCaches() {
+        log.info("상세 캐시 비움 : 위치 hit " + detailCache.hitCount() + ", miss " + detailCache.missCount()
+                + " / 매물 hit " + reportDetailCache.hitCount() + ", miss " + reportDetailCache.missCount());
+        detailCache.invalidateAll();
+        reportDetailCache.invalidateAll();
+    }
+
+    // location_no, property_no 순으로 정렬된 결과를 위치별로 묶는다
+    private static Map<Integer, List<MapDetailDTO>> groupByLocation(List<MapDetailDTO> details) {
+        Map<Integer, List<MapDetailDTO>> grouped = new LinkedHashMap<>();
+        for (MapDetailDTO detail : details) {
+            grouped.computeIfAbsent(detail.getLocationNo(), locationNo -> new ArrayList<>()).add(detail);
+        }
+        return grouped;
+    }
+}
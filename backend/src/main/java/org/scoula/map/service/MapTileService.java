@@ -0,0 +1,120 @@
+package org.scoula.map.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j;
+import org.scoula.common.cache.LruCache;
+import org.scoula.map.index.PropertyPointIndex;
+import org.scoula.map.tile.MvtEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 매물 위치를 XYZ(Web Mercator) 벡터 타일(MVT)로 만들어 주는 서비스
+ * - 타일은 요청 시점에 인메모리 공간 인덱스에서 만들고, 바이트 단위로 크기가 제한된 LRU 캐시에 보관한다
+ * - 인덱스가 다시 적재되면 캐시를 비운다
+ * - 첫 적재가 끝나기 전에는 타일을 만들지 않는다 (빈 인덱스로 만든 빈 타일이 캐시되지 않게, 컨트롤러에서 503)
+ */
+@Log4j
+@Service
+@RequiredArgsConstructor
+public class MapTileService {
+
+    public static final String LAYER_NAME = "properties";
+    public static final int MAX_ZOOM = 22;
+
+    // 타일 경계에 걸친 마커가 잘리지 않도록 주변 영역까지 포함 (extent 기준)
+    private static final int BUFFER = 64;
+
+    final private MapIndexService indexService;
+
+    @Value("${map.tile.cache-bytes:67108864}")
+    private long cacheBytes;
+
+    private LruCache<String, byte[]> tileCache;
+    private PropertyPointIndex cachedIndex;
+
+    @PostConstruct
+    public void init() {
+        tileCache = new LruCache<>(cacheBytes, tile -> tile.length);
+    }
+
+    public static boolean isValidTile(int z, int x, int y) {
+        if (z < 0 || z > MAX_ZOOM) {
+            return false;
+        }
+        int tiles = 1 << z;
+        return x >= 0 && x < tiles && y >= 0 && y < tiles;
+    }
+
+    public boolean isReady() {
+        return indexService.isReady();
+    }
+
+    public byte[] getTile(int z, int x, int y) {
+        if (!isValidTile(z, x, y)) {
+            throw new IllegalArgumentException("Invalid tile: " + z + "/" + x + "/" + y);
+        }
+        if (!isReady()) {
+            throw new IllegalStateException("Map index is not loaded yet");
+        }
+
+        PropertyPointIndex index = indexService.getPointIndex();
+        synchronized (this) {
+            if (cachedIndex != index) {
+                tileCache.invalidateAll();
+                cachedIndex = index;
+            }
+        }
+
+        String key = z + "/" + x + "/" + y;
+        byte[] tile = tileCache.get(key);
+        if (tile == null) {
+            tile = encodeTile(index, z, x, y);
+            // 인덱스가 그 사이에 교체됐다면 이전 데이터로 만든 타일은 캐시하지 않는다
+            if (index == indexService.getPointIndex()) {
+                tileCache.put(key, tile);
+            }
+        }
+        return tile;
+    }
+
+    private static byte[] encodeTile(PropertyPointIndex index, int z, int x, int y) {
+        int extent = MvtEncoder.DEFAULT_EXTENT;
+        double tiles = 1 << z;
+        double buffer = (double) BUFFER / extent;
+
+        double minLon = tileToLon(x - buffer, tiles);
+        double maxLon = tileToLon(x + 1 + buffer, tiles);
+        double maxLat = tileToLat(y - buffer, tiles);
+        double minLat = tileToLat(y + 1 + buffer, tiles);
+
+        MvtEncoder encoder = new MvtEncoder(LAYER_NAME, extent, "locationNo", "price");
+        for (int slot : index.search(minLat, maxLat, minLon, maxLon)) {
+            int px = (int) Math.round((lonToTile(index.lon(slot), tiles) - x) * extent);
+            int py = (int) Math.round((latToTile(index.lat(slot), tiles) - y) * extent);
+            encoder.addPoint(index.locationNo(slot), px, py,
+                    index.locationNo(slot),
+                    index.hasPrice(slot) ? index.price(slot) : null);
+        }
+        return encoder.encode();
+    }
+
+    private static double lonToTile(double lon, double tiles) {
+        return (lon + 180) / 360 * tiles;
+    }
+
+    private static double latToTile(double lat, double tiles) {
+        double rad = Math.toRadians(lat);
+        return (1 - Math.log(Math.tan(rad) + 1 / Math.cos(rad)) / Math.PI) / 2 * tiles;
+    }
+
+    private static double tileToLon(double x, double tiles) {
+        return x / tiles * 360 - 180;
+    }
+
+    private static double tileToLat(double y, double tiles) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y / tiles))));
+    }
+}
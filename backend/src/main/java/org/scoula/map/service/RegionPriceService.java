@@ -0,0 +1,221 @@
+package org.scoula.map.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j;
+import org.scoula.exception.BadRequestException;
+import org.scoula.map.domain.RegionPriceVO;
+import org.scoula.map.domain.RegionTransactionVO;
+import org.scoula.map.event.PropertyDataChangedEvent;
+import org.scoula.map.mapper.MapMapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 시군구 / 법정동 단위 가격 집계 (거래 수, 25/50/75 분위 가격, ㎡당 가격 중앙값)
+ * - property_tbl 을 한 번 읽어 지역별로 가격을 모은 뒤, 지역별 분위수 계산은 병렬로 처리한다
+ * - 결과는 메모리에 두고 region_price_tbl 에도 기록한다 (DB 기록 실패 시에도 메모리 집계로 응답)
+ * - 바뀐 location_no 가 담긴 변경 이벤트는 해당 시군구만 다시 계산한다
+ */
+@Log4j
+@Service
+@RequiredArgsConstructor
+public class RegionPriceService {
+
+    private static final int UPSERT_BATCH_SIZE = 500;
+
+    final private MapMapper mapper;
+
+    // regionCode -> 집계
+    private volatile Map<Long, RegionPriceVO> sigunguPrices = Map.of();
+    private volatile Map<Long, RegionPriceVO> bubjungPrices = Map.of();
+
+    @PostConstruct
+    public void init() {
+        try {
+            refresh(null);
+        } catch (Exception e) {
+            log.error("지역 가격 집계 초기 계산 실패", e);
+        }
+    }
+
+    // 실패해도 다른 리스너와 적재 요청에 영향을 주지 않도록 여기서 기록만 한다 (다음 변경 이벤트에서 다시 계산)
+    @EventListener
+    public void onPropertyDataChanged(PropertyDataChangedEvent event) {
+        try {
+            if (event.isFullReload()) {
+                refresh(null);
+                return;
+            }
+            List<Integer> sigunguCodes = mapper.getSigunguCodesByLocationNos(event.getLocationNos());
+            if (!sigunguCodes.isEmpty()) {
+                refresh(sigunguCodes);
+            }
+        } catch (Exception e) {
+            log.error("지역 가격 집계 갱신 실패", e);
+        }
+    }
+
+    /**
+     * @param level       sigungu, bubjung
+     * @param sigunguCode 법정동 조회 시 시군구 제한 (null 이면 전체)
+     */
+    public List<RegionPriceVO> getRegionPrices(String level, Integer sigunguCode) {
+        Map<Long, RegionPriceVO> prices;
+        if (RegionPriceVO.SIGUNGU.equals(level)) {
+            prices = sigunguPrices;
+        } else if (RegionPriceVO.BUBJUNG.equals(level)) {
+            prices = bubjungPrices;
+        } else {
+            throw new BadRequestException("level 은 sigungu, bubjung 중 하나여야 합니다.");
+        }
+        return prices.values().stream()
+                .filter(region -> sigunguCode == null || region.getSigunguCode() == sigunguCode)
+                .sorted(Comparator.comparingLong(RegionPriceVO::getRegionCode))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param sigunguCodes 다시 계산할 시군구 (null 이면 전체)
+     */
+    public synchronized void refresh(Collection<Integer> sigunguCodes) {
+        long start = System.currentTimeMillis();
+        Set<Integer> targets = sigunguCodes == null ? null : new HashSet<>(sigunguCodes);
+
+        Map<Long, Accumulator> sigungu = new HashMap<>();
+        Map<Long, Accumulator> bubjung = new HashMap<>();
+        mapper.getRegionTransactions(targets, context -> {
+            RegionTransactionVO row = context.getResultObject();
+            long bubjungCode = (long) row.getSigunguCode() * 100000 + row.getBubjungCode();
+            sigungu.computeIfAbsent((long) row.getSigunguCode(),
+                    code -> new Accumulator(RegionPriceVO.SIGUNGU, code, row.getSigunguCode(), row.getSigungu())).add(row);
+            bubjung.computeIfAbsent(bubjungCode,
+                    code -> new Accumulator(RegionPriceVO.BUBJUNG, code, row.getSigunguCode(), row.getSigungu() + " " + row.getBubjung())).add(row);
+        });
+
+        List<Accumulator> accumulators = new ArrayList<>(sigungu.values());
+        accumulators.addAll(bubjung.values());
+        List<RegionPriceVO> regions = accumulators.parallelStream()
+                .map(Accumulator::summarize)
+                .collect(Collectors.toList());
+
+        sigunguPrices = merge(sigunguPrices, regions, RegionPriceVO.SIGUNGU, targets);
+        bubjungPrices = merge(bubjungPrices, regions, RegionPriceVO.BUBJUNG, targets);
+        log.info("지역 가격 집계 완료 : " + (targets == null ? "전체" : "시군구 " + targets) + ", "
+                + regions.size() + "개 지역, " + (System.currentTimeMillis() - start) + "ms");
+
+        try {
+            save(regions, targets, start);
+        } catch (Exception e) {
+            log.error("region_price_tbl 기록 실패", e);
+        }
+    }
+
+    // 대상 시군구의 기존 지역은 새 결과로 바꾸고 (거래가 사라진 지역은 제거), 나머지는 유지
+    private static Map<Long, RegionPriceVO> merge(Map<Long, RegionPriceVO> current, List<RegionPriceVO> regions,
+                                                  String level, Set<Integer> targets) {
+        Map<Long, RegionPriceVO> merged = new HashMap<>();
+        if (targets != null) {
+            current.forEach((code, region) -> {
+                if (!targets.contains(region.getSigunguCode())) {
+                    merged.put(code, region);
+                }
+            });
+        }
+        for (RegionPriceVO region : regions) {
+            if (region.getRegionLevel().equals(level)) {
+                merged.put(region.getRegionCode(), region);
+            }
+        }
+        return Map.copyOf(merged);
+    }
+
+    private void save(List<RegionPriceVO> regions, Set<Integer> targets, long refreshedAt) {
+        for (int from = 0; from < regions.size(); from += UPSERT_BATCH_SIZE) {
+            mapper.upsertRegionPrices(regions.subList(from, Math.min(regions.size(), from + UPSERT_BATCH_SIZE)), refreshedAt);
+        }
+        mapper.deleteStaleRegionPrices(targets, refreshedAt);
+    }
+
+    /**
+     * 한 지역의 가격 / ㎡당 가격 누적 (기본형 배열)
+     */
+    private static final class Accumulator {
+        private final String level;
+        private final long code;
+        private final int sigunguCode;
+        private final String name;
+        private int count;
+        private double[] prices = new double[16];
+        private int priceCount;
+        private double[] pricesPerArea = new double[16];
+        private int pricePerAreaCount;
+
+        private Accumulator(String level, long code, int sigunguCode, String name) {
+            this.level = level;
+            this.code = code;
+            this.sigunguCode = sigunguCode;
+            this.name = name;
+        }
+
+        private void add(RegionTransactionVO row) {
+            count++;
+            Double price = row.getPrice();
+            if (price == null) {
+                return;
+            }
+            if (priceCount == prices.length) {
+                prices = Arrays.copyOf(prices, priceCount * 2);
+            }
+            prices[priceCount++] = price;
+
+            Double area = row.getBuildingArea();
+            if (area != null && area > 0) {
+                if (pricePerAreaCount == pricesPerArea.length) {
+                    pricesPerArea = Arrays.copyOf(pricesPerArea, pricePerAreaCount * 2);
+                }
+                pricesPerArea[pricePerAreaCount++] = price / area;
+            }
+        }
+
+        private RegionPriceVO summarize() {
+            Arrays.sort(prices, 0, priceCount);
+            Arrays.sort(pricesPerArea, 0, pricePerAreaCount);
+            return new RegionPriceVO(level, code, sigunguCode, name, count,
+                    round(percentile(prices, priceCount, 0.25), 2),
+                    round(percentile(prices, priceCount, 0.5), 2),
+                    round(percentile(prices, priceCount, 0.75), 2),
+                    percentile(pricesPerArea, pricePerAreaCount, 0.5));
+        }
+
+        // 정렬된 값의 선형 보간 분위수, 값이 없으면 null
+        private static Double percentile(double[] sorted, int size, double p) {
+            if (size == 0) {
+                return null;
+            }
+            double position = p * (size - 1);
+            int lower = (int) Math.floor(position);
+            int upper = Math.min(size - 1, lower + 1);
+            return sorted[lower] + (sorted[upper] - sorted[lower]) * (position - lower);
+        }
+
+        private static Double round(Double value, int scale) {
+            if (value == null) {
+                return null;
+            }
+            double factor = Math.pow(10, scale);
+            return Math.round(value * factor) / factor;
+        }
+    }
+}
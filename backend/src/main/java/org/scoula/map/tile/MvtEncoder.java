@@ -0,0 +1,192 @@
+package org.scoula.map.tile;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mapbox Vector Tile (v2) 인코더 - 점(Point) 피처만 지원
+ * - protobuf 를 직접 기록하므로 별도 라이브러리가 필요 없다
+ * - 레이어 하나에 피처를 순서대로 추가한 뒤 {@link #encode()} 로 타일 바이트를 얻는다
+ *
+ * @see <a href="https://github.com/mapbox/vector-tile-spec/tree/master/2.1">vector-tile-spec 2.1</a>
+ */
+public class MvtEncoder {
+
+    public static final int DEFAULT_EXTENT = 4096;
+
+    // Tile.layers
+    private static final int TILE_LAYERS = 3;
+    // Layer
+    private static final int LAYER_NAME = 1;
+    private static final int LAYER_FEATURES = 2;
+    private static final int LAYER_KEYS = 3;
+    private static final int LAYER_VALUES = 4;
+    private static final int LAYER_EXTENT = 5;
+    private static final int LAYER_VERSION = 15;
+    // Feature
+    private static final int FEATURE_ID = 1;
+    private static final int FEATURE_TAGS = 2;
+    private static final int FEATURE_TYPE = 3;
+    private static final int FEATURE_GEOMETRY = 4;
+    // Value
+    private static final int VALUE_DOUBLE = 3;
+    private static final int VALUE_UINT = 5;
+
+    private static final int GEOM_TYPE_POINT = 1;
+    private static final int COMMAND_MOVE_TO_ONE = (1 & 0x7) | (1 << 3);
+
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_LENGTH_DELIMITED = 2;
+
+    private final String layerName;
+    private final int extent;
+    private final String[] keys;
+    private final ProtoWriter features = new ProtoWriter();
+    private final ProtoWriter values = new ProtoWriter();
+    private final Map<Object, Integer> valueIndexes = new HashMap<>();
+    private int featureCount;
+
+    /**
+     * @param layerName 레이어 이름
+     * @param extent    타일 한 변의 정수 좌표 크기
+     * @param keys      피처 속성 이름 (addPoint 의 속성 값 순서와 같아야 함)
+     */
+    public MvtEncoder(String layerName, int extent, String... keys) {
+        this.layerName = layerName;
+        this.extent = extent;
+        this.keys = keys;
+    }
+
+    /**
+     * 점 피처 추가
+     *
+     * @param id         피처 id (음수면 기록하지 않음)
+     * @param x          타일 좌표계 x (0 ~ extent, 버퍼 영역은 범위를 벗어날 수 있음)
+     * @param y          타일 좌표계 y (위쪽이 0)
+     * @param attributes 속성 값 (Long/Integer 는 uint, Double 은 double, null 은 생략)
+     */
+    public void addPoint(long id, int x, int y, Object... attributes) {
+        ProtoWriter feature = new ProtoWriter();
+        if (id >= 0) {
+            feature.writeTag(FEATURE_ID, WIRE_VARINT);
+            feature.writeVarint(id);
+        }
+
+        ProtoWriter tags = new ProtoWriter();
+        for (int i = 0; i < keys.length && i < attributes.length; i++) {
+            if (attributes[i] == null) {
+                continue;
+            }
+            tags.writeVarint(i);
+            tags.writeVarint(valueIndex(attributes[i]));
+        }
+        if (tags.size() > 0) {
+            feature.writeBytes(FEATURE_TAGS, tags);
+        }
+
+        feature.writeTag(FEATURE_TYPE, WIRE_VARINT);
+        feature.writeVarint(GEOM_TYPE_POINT);
+
+        ProtoWriter geometry = new ProtoWriter();
+        geometry.writeVarint(COMMAND_MOVE_TO_ONE);
+        geometry.writeVarint(zigZag(x));
+        geometry.writeVarint(zigZag(y));
+        feature.writeBytes(FEATURE_GEOMETRY, geometry);
+
+        features.writeBytes(LAYER_FEATURES, feature);
+        featureCount++;
+    }
+
+    public int featureCount() {
+        return featureCount;
+    }
+
+    public byte[] encode() {
+        ProtoWriter layer = new ProtoWriter();
+        layer.writeTag(LAYER_VERSION, WIRE_VARINT);
+        layer.writeVarint(2);
+        layer.writeString(LAYER_NAME, layerName);
+        layer.writeRaw(features);
+        for (String key : keys) {
+            layer.writeString(LAYER_KEYS, key);
+        }
+        layer.writeRaw(values);
+        layer.writeTag(LAYER_EXTENT, WIRE_VARINT);
+        layer.writeVarint(extent);
+
+        ProtoWriter tile = new ProtoWriter();
+        tile.writeBytes(TILE_LAYERS, layer);
+        return tile.toByteArray();
+    }
+
+    // 같은 값은 values 테이블에 한 번만 기록한다
+    private int valueIndex(Object value) {
+        Integer index = valueIndexes.get(value);
+        if (index != null) {
+            return index;
+        }
+
+        ProtoWriter encoded = new ProtoWriter();
+        if (value instanceof Double || value instanceof Float) {
+            encoded.writeTag(VALUE_DOUBLE, 1);
+            encoded.writeFixed64(Double.doubleToLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof Number) {
+            encoded.writeTag(VALUE_UINT, WIRE_VARINT);
+            encoded.writeVarint(((Number) value).longValue());
+        } else {
+            throw new IllegalArgumentException("Unsupported attribute type: " + value.getClass());
+        }
+        values.writeBytes(LAYER_VALUES, encoded);
+
+        index = valueIndexes.size();
+        valueIndexes.put(value, index);
+        return index;
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * 최소한의 protobuf 기록기
+     */
+    private static final class ProtoWriter extends ByteArrayOutputStream {
+
+        void writeTag(int field, int wireType) {
+            writeVarint(((long) field << 3) | wireType);
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeFixed64(long value) {
+            for (int i = 0; i < 8; i++) {
+                write((int) (value >>> (i * 8)) & 0xFF);
+            }
+        }
+
+        void writeString(int field, String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeTag(field, WIRE_LENGTH_DELIMITED);
+            writeVarint(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        void writeBytes(int field, ProtoWriter message) {
+            writeTag(field, WIRE_LENGTH_DELIMITED);
+            writeVarint(message.size());
+            writeRaw(message);
+        }
+
+        void writeRaw(ProtoWriter other) {
+            write(other.buf, 0, other.count);
+        }
+    }
+}
@@ -28,6 +28,11 @@ public class EasyCodef {
 	 * EasyCodef 사용을 위한 변수 설정 오브젝트
 	 */
 	private EasyCodefProperties properties = new EasyCodefProperties();
+	
+	/**
+	 * 상품 조회 성공 응답 캐시 (없으면 캐시하지 않음)
+	 */
+	private EasyCodefResponseCache responseCache;
 
 	/**
 	 * Desc : 정식서버 사용을 위한 클라이언트 정보 설정
@@ -75,6 +80,14 @@ public class EasyCodef {
 		return properties.getPublicKey();
 	}
 	
+	/**
+	 * Desc : 상품 조회 응답 캐시 설정 (null 이면 캐시 사용 안 함)
+	 * @param responseCache
+	 */
+	public void setResponseCache(EasyCodefResponseCache responseCache) {
+		this.responseCache = responseCache;
+	}
+	
 	/**
 	 * Desc : 상품 요청 
 	 * @Company : ©CODEF corp.
@@ -112,11 +125,24 @@ public class EasyCodef {
 			return mapper.writeValueAsString(response);
 		}
 		
-		/**	#4.상품 조회 요청	*/
+		/**	#4.캐시된 성공 응답이 있으면 그대로 반환	*/
+		String cacheKey = responseCache != null ? responseCache.key(productUrl, serviceType, parameterMap) : null;
+		if(cacheKey != null) {
+			String cached = responseCache.get(cacheKey);
+			if(cached != null) {
+				return cached;
+			}
+		}
+		
+		/**	#5.상품 조회 요청	*/
 		EasyCodefResponse response = EasyCodefConnector.execute(productUrl, serviceType.getServiceType(), parameterMap, properties);
 		
-		/**	#5.결과 반환	*/
-		return mapper.writeValueAsString(response);
+		/**	#6.결과 반환 (성공 응답은 캐시에 저장)	*/
+		String responseJson = mapper.writeValueAsString(response);
+		if(cacheKey != null) {
+			responseCache.put(cacheKey, response, responseJson);
+		}
+		return responseJson;
 	}
 	
 	/**
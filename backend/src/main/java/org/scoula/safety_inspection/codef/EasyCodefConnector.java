@@ -11,6 +11,12 @@ import java.net.URL;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * <pre>
@@ -27,6 +33,24 @@ public class EasyCodefConnector {
 	private static ObjectMapper mapper = new ObjectMapper();
 	private static final int REPEAT_COUNT = 3;
 	
+	/**	HTTP 연결 / 응답 대기 제한 시간 (응답이 오지 않아 요청 스레드와 진행 중 요청이 계속 남지 않도록)	*/
+	private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+	private static final int READ_TIMEOUT_MILLIS = 180_000;
+	
+	/**	같은 요청을 먼저 보낸 호출의 결과를 기다리는 최대 시간 (토큰 재발급 후 재요청까지 포함)	*/
+	private static final long FOLLOWER_TIMEOUT_MILLIS = 2L * (CONNECT_TIMEOUT_MILLIS + READ_TIMEOUT_MILLIS) + CONNECT_TIMEOUT_MILLIS;
+	
+	/**	진행 중인 상품 조회 (EasyCodefRequestKey -> 결과), 요청을 보낸 호출이 끝나면 항상 제거한다	*/
+	private static final ConcurrentHashMap<String, CompletableFuture<EasyCodefResponse>> IN_FLIGHT = new ConcurrentHashMap<String, CompletableFuture<EasyCodefResponse>>();
+	
+	/**	추가인증 대기 결과 코드 (응답에 그 요청만의 jti / twoWayTimestamp 가 담긴다)	*/
+	private static final String TWO_WAY_PENDING_CODE = "CF-03002";
+	
+	/**	실제 상품 조회 요청 (진행 중 요청 합치기와 분리해 두어 테스트에서 바꿔 끼울 수 있다)	*/
+	interface Request {
+		EasyCodefResponse send() throws InterruptedException;
+	}
+	
 	/**
 	 * Desc : CODEF 상품 조회 요청
 	 * @Company : ©CODEF corp.
@@ -39,8 +63,99 @@ public class EasyCodefConnector {
 	 * @return
 	 * @throws InterruptedException
 	 */
-	@SuppressWarnings("unchecked")
 	protected static EasyCodefResponse execute(String urlPath, int serviceType, HashMap<String, Object> bodyMap, EasyCodefProperties properties) throws InterruptedException {
+		/**	같은 상품 / 조회 대상 요청이 이미 진행 중이면 새로 보내지 않고 그 결과를 받는다 (키당 동시 요청 1건)	*/
+		String key;
+		try {
+			key = EasyCodefRequestKey.of(urlPath, serviceType, bodyMap);
+		} catch (JsonProcessingException e) {
+			key = null;
+		}
+		if(key == null) {	// 추가인증 등 합칠 수 없는 요청
+			return request(urlPath, serviceType, bodyMap, properties);
+		}
+		return coalesce(key, () -> request(urlPath, serviceType, bodyMap, properties));
+	}
+	
+	/**
+	 * Desc : 같은 키로 진행 중인 요청이 있으면 그 결과를 받고, 없으면 진행 중 요청으로 등록하고 직접 요청
+	 * 			추가인증 대기 (CF-03002) 응답은 jti / twoWayTimestamp 가 요청마다 달라야 하므로 나눠 받지 않고 각자 다시 요청한다
+	 * @param key
+	 * @param request
+	 * @return
+	 * @throws InterruptedException
+	 */
+	static EasyCodefResponse coalesce(String key, Request request) throws InterruptedException {
+		while(true) {
+			CompletableFuture<EasyCodefResponse> call = new CompletableFuture<EasyCodefResponse>();
+			CompletableFuture<EasyCodefResponse> inFlight = IN_FLIGHT.putIfAbsent(key, call);
+			if(inFlight == null) {
+				return lead(key, call, request);
+			}
+			
+			EasyCodefResponse shared;
+			try {
+				shared = inFlight.get(FOLLOWER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				return new EasyCodefResponse(EasyCodefMessageConstant.LIBRARY_SENDER_ERROR, "동일 요청 응답 대기 시간 초과");
+			} catch (ExecutionException e) {
+				if(e.getCause() instanceof InterruptedException) {	// 먼저 보낸 호출이 중단된 것뿐이므로 다시 시도
+					continue;
+				}
+				if(e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				if(e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				}
+				throw new IllegalStateException(e.getCause());
+			}
+			
+			if(isTwoWayPending(shared)) {	// 추가인증 세션은 요청한 호출의 것이므로 합치지 않고 따로 요청
+				return request.send();
+			}
+			// 응답 맵은 호출마다 따로 쓰도록 복사해서 반환
+			return new EasyCodefResponse(shared);
+		}
+	}
+	
+	private static boolean isTwoWayPending(EasyCodefResponse response) {
+		Object result = response.get(EasyCodefConstant.RESULT);
+		return result instanceof Map && TWO_WAY_PENDING_CODE.equals(((Map<?, ?>) result).get(EasyCodefConstant.CODE));
+	}
+	
+	/**
+	 * Desc : 진행 중 요청으로 등록한 호출이 실제로 요청하고 결과 (예외 포함) 를 기다리는 호출들에 전달
+	 * @param key
+	 * @param call
+	 * @param request
+	 * @return
+	 * @throws InterruptedException
+	 */
+	private static EasyCodefResponse lead(String key, CompletableFuture<EasyCodefResponse> call, Request request) throws InterruptedException {
+		try {
+			EasyCodefResponse response = request.send();
+			call.complete(response);
+			return response;
+		} catch (InterruptedException | RuntimeException | Error e) {
+			call.completeExceptionally(e);
+			throw e;
+		} finally {
+			IN_FLIGHT.remove(key, call);
+		}
+	}
+	
+	/**
+	 * Desc : CODEF 상품 조회 요청 (토큰 발급 및 HTTP 요청)
+	 * @param urlPath
+	 * @param serviceType
+	 * @param bodyMap
+	 * @param properties
+	 * @return
+	 * @throws InterruptedException
+	 */
+	@SuppressWarnings("unchecked")
+	private static EasyCodefResponse request(String urlPath, int serviceType, HashMap<String, Object> bodyMap, EasyCodefProperties properties) throws InterruptedException {
 		/**	#1.토큰 체크	*/
 		String domain;
 		String clientId;
@@ -110,6 +225,8 @@ public class EasyCodefConnector {
 			con.setDoOutput(true);
 			con.setRequestMethod("POST");
 			con.setRequestProperty("Accept", "application/json");
+			con.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+			con.setReadTimeout(READ_TIMEOUT_MILLIS);
 
 			if (token != null && !"".equals(token)) {
 				con.setRequestProperty("Authorization", "Bearer " + token);		// 엑세스 토큰 헤더 설정
@@ -219,6 +336,8 @@ public class EasyCodefConnector {
 			HttpURLConnection con = (HttpURLConnection) url.openConnection();
 			con.setRequestMethod("POST");
 			con.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+			con.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+			con.setReadTimeout(READ_TIMEOUT_MILLIS);
 			
 			// 클라이언트아이디, 시크릿코드 Base64 인코딩
 			String auth = clientId + ":" + clientSecret;
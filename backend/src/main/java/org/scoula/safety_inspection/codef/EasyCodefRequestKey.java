@@ -0,0 +1,50 @@
+package org.scoula.safety_inspection.codef;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 같은 상품 조회인지 판단하는 요청 키 (응답 캐시, 동시 요청 합치기에서 같이 사용)
+ * - 서비스 타입 + 상품 URL + 조회 대상을 가리키는 파라미터 (고유번호, 주소, 동/호 등) 를 정규화한 것
+ * - 비밀번호, 선불 전자지급수단, 본인 정보 같은 인증용 값은 넣지 않는다 (RSA 암호화 결과는 호출마다 달라서 넣으면 같은 요청으로 보지 못함)
+ * - 추가인증 요청, 중첩 값 (목록, 맵) 이 있는 요청은 키를 만들지 않는다 (null)
+ */
+public class EasyCodefRequestKey {
+
+	/**	키에서 뺄 인증 / 전송 관련 파라미터	*/
+	private static final Set<String> EXCLUDED_PARAMETERS = Set.of(
+			"password", "ePrepayNo", "ePrepayPass", "phoneNo", "identity", "identityEncYn", "birthDate", "userName",
+			"signedData", "is2Way", "twoWayInfo", "timeout", "secureNoTimeout");
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	private EasyCodefRequestKey() {
+	}
+
+	public static String of(String productUrl, int serviceType, Map<String, Object> parameterMap) throws JsonProcessingException {
+		if (parameterMap == null) {
+			return null;
+		}
+		if (parameterMap.containsKey("is2Way") || parameterMap.containsKey("twoWayInfo")) {
+			return null;
+		}
+		TreeMap<String, String> identifying = new TreeMap<>();
+		for (Map.Entry<String, Object> entry : parameterMap.entrySet()) {
+			if (EXCLUDED_PARAMETERS.contains(entry.getKey()) || entry.getValue() == null) {
+				continue;
+			}
+			if (entry.getValue() instanceof Map || entry.getValue() instanceof Iterable) {
+				return null;
+			}
+			String value = entry.getValue().toString().trim().replaceAll("\\s+", " ");
+			if (!value.isEmpty()) {
+				identifying.put(entry.getKey(), value);
+			}
+		}
+		return serviceType + " " + productUrl + " " + mapper.writeValueAsString(identifying);
+	}
+}
@@ -0,0 +1,201 @@
+package org.scoula.safety_inspection.codef;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.extern.slf4j.Slf4j;
+import org.scoula.common.cache.LruCache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 상품 조회 (EasyCodef.requestProduct) 성공 응답 캐시
+ * - 키는 EasyCodefRequestKey (상품 URL + 서비스 타입 + 조회 대상 파라미터, 인증용 값 제외)
+ * - 추가인증 요청과 등기부등본 발급 (부동산 등기 상품에 고유번호 uniqueNo 로 요청) 은 캐시하지 않는다
+ *   (등기부등본은 진단 시점의 권리관계가 필요해, 캐시된 발급분이 그 사이 설정된 근저당 등을 가릴 수 있음)
+ * - 메모리: 응답 문자 수 합계로 크기를 제한하는 LRU + TTL
+ * - 디스크 (선택): 디렉터리를 지정하면 gzip 으로 저장해 재시작 후에도 TTL 안에서는 재사용 (파일 수정 시각 기준 만료)
+ */
+@Slf4j
+public class EasyCodefResponseCache {
+
+	private static final String FILE_SUFFIX = ".json.gz";
+	private static final String REGISTER_PRODUCT_URL = "/v1/kr/public/ck/real-estate-register/status";
+
+	private final LruCache<String, String> memory;
+	private final long ttlMillis;
+	private final Path directory; // null 이면 디스크 저장 안 함
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong diskHitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+
+	public EasyCodefResponseCache(long maxChars, Duration ttl, Path directory) throws IOException {
+		if (ttl.isZero() || ttl.isNegative()) {
+			throw new IllegalArgumentException("ttl must be positive: " + ttl);
+		}
+		this.memory = new LruCache<>(maxChars, String::length, ttl);
+		this.ttlMillis = ttl.toMillis();
+		this.directory = directory;
+		if (directory != null) {
+			Files.createDirectories(directory);
+			purgeExpiredFiles();
+		}
+	}
+
+	/**
+	 * 캐시 키 (EasyCodefRequestKey), 캐시하지 않을 요청이면 null
+	 */
+	public String key(String productUrl, EasyCodefServiceType serviceType, Map<String, Object> parameterMap) throws JsonProcessingException {
+		if (isRegisterIssue(productUrl, parameterMap)) {
+			return null;
+		}
+		return EasyCodefRequestKey.of(productUrl, serviceType.getServiceType(), parameterMap);
+	}
+
+	// 같은 상품 URL 에 주소로 고유번호를 찾는 조회와 고유번호로 등기부등본을 발급하는 조회가 함께 있다
+	static boolean isRegisterIssue(String productUrl, Map<String, Object> parameterMap) {
+		if (!REGISTER_PRODUCT_URL.equals(productUrl) || parameterMap == null) {
+			return false;
+		}
+		Object uniqueNo = parameterMap.get("uniqueNo");
+		return uniqueNo != null && !uniqueNo.toString().isBlank();
+	}
+
+	public String get(String key) {
+		String response = memory.get(key);
+		if (response != null) {
+			hitCount.incrementAndGet();
+			return response;
+		}
+		response = readFile(key);
+		if (response != null) {
+			diskHitCount.incrementAndGet();
+			// 메모리에는 새 TTL 로 올라가므로 디스크에 저장된 시점부터 최대 TTL 두 배까지 쓰일 수 있다
+			memory.put(key, response);
+			return response;
+		}
+		missCount.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * 결과 코드가 성공 (CF-00000) 인 응답만 저장한다
+	 */
+	public void put(String key, EasyCodefResponse response, String responseJson) {
+		Object result = response.get(EasyCodefConstant.RESULT);
+		if (!(result instanceof Map)
+				|| !EasyCodefMessageConstant.OK.getCode().equals(((Map<?, ?>) result).get(EasyCodefConstant.CODE))) {
+			return;
+		}
+		memory.put(key, responseJson);
+		writeFile(key, responseJson);
+		log.info("CODEF 응답 캐시 저장 : " + stats());
+	}
+
+	public long hitCount() {
+		return hitCount.get();
+	}
+
+	public long diskHitCount() {
+		return diskHitCount.get();
+	}
+
+	public long missCount() {
+		return missCount.get();
+	}
+
+	public String stats() {
+		return "메모리 hit " + hitCount.get() + ", 디스크 hit " + diskHitCount.get() + ", miss " + missCount.get()
+				+ ", " + memory.size() + "건 / " + memory.weight() + "자, 제거 " + memory.evictionCount();
+	}
+
+	private String readFile(String key) {
+		if (directory == null) {
+			return null;
+		}
+		Path file = file(key);
+		try {
+			if (System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis() >= ttlMillis) {
+				Files.deleteIfExists(file);
+				return null;
+			}
+			try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+				return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			}
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException e) {
+			log.warn("CODEF 응답 캐시 파일 읽기 실패 : " + file + " " + e);
+			return null;
+		}
+	}
+
+	// 임시 파일에 쓴 뒤 옮겨서 읽는 쪽이 쓰다 만 파일을 보지 않게 한다
+	private void writeFile(String key, String responseJson) {
+		if (directory == null) {
+			return;
+		}
+		Path file = file(key);
+		Path temp = null;
+		try {
+			temp = Files.createTempFile(directory, "codef", ".tmp");
+			try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+				out.write(responseJson.getBytes(StandardCharsets.UTF_8));
+			}
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.warn("CODEF 응답 캐시 파일 저장 실패 : " + file + " " + e);
+			try {
+				if (temp != null) {
+					Files.deleteIfExists(temp);
+				}
+			} catch (IOException ignored) {
+			}
+		}
+	}
+
+	// 시작할 때 만료된 파일과 남은 임시 파일을 지운다
+	private void purgeExpiredFiles() throws IOException {
+		long now = System.currentTimeMillis();
+		int purged = 0;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				boolean expired = name.endsWith(FILE_SUFFIX)
+						&& now - Files.getLastModifiedTime(file).toMillis() >= ttlMillis;
+				if (expired || name.endsWith(".tmp")) {
+					Files.deleteIfExists(file);
+					purged++;
+				}
+			}
+		}
+		log.info("CODEF 응답 캐시 디렉터리 : " + directory + " (만료 파일 " + purged + "개 삭제)");
+	}
+
+	private Path file(String key) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+			StringBuilder name = new StringBuilder(digest.length * 2 + FILE_SUFFIX.length());
+			for (byte b : digest) {
+				name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return directory.resolve(name.append(FILE_SUFFIX).toString());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
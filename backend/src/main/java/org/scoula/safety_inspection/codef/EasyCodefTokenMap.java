@@ -1,6 +1,6 @@
 package org.scoula.safety_inspection.codef;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <pre>
@@ -16,7 +16,7 @@ import java.util.HashMap;
 public class EasyCodefTokenMap {
 	
 	/**	쉬운 코드에프 이용을 위한 토큰 저장 맵	*/
-	private static HashMap<String, String> ACCESS_TOKEN_MAP = new HashMap<String, String>();
+	private static ConcurrentHashMap<String, String> ACCESS_TOKEN_MAP = new ConcurrentHashMap<String, String>();
 	
 	/**
 	 * Desc : 토큰 저장 
@@ -27,6 +27,11 @@ public class EasyCodefTokenMap {
 	 * @param accessToken
 	 */
 	public static void setToken(String clientId, String accessToken) {
+		// 여러 스레드에서 동시에 조회하므로 ConcurrentHashMap 사용 (null 토큰은 초기화 = 삭제)
+		if(accessToken == null) {
+			ACCESS_TOKEN_MAP.remove(clientId);
+			return;
+		}
 		ACCESS_TOKEN_MAP.put(clientId, accessToken);
 	}
 	
@@ -8,16 +8,23 @@ import org.scoula.safety_inspection.infra.bml.service.BuildingManagementLedgerGe
 import org.scoula.safety_inspection.infra.bml.service.BuildingManagementLedgerMultiService;
 import org.scoula.safety_inspection.infra.cors.service.CopyOfRegisterGeneralService;
 import org.scoula.safety_inspection.infra.cors.service.CopyOfRegisterMultiService;
+import org.scoula.safety_inspection.job.InspectionJobDTO;
 import org.scoula.safety_inspection.service.ExtractUnicodeService;
+import org.scoula.safety_inspection.service.InspectionJobService;
 import org.scoula.safety_inspection.service.SafetyInspectionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
+import java.security.Principal;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/safety-inspection")
@@ -25,6 +32,7 @@ import java.util.Map;
 public class SafetyInspectionController {
     final private ExtractUnicodeService extractUnicodeService;
     final private SafetyInspectionService safetyInspectionService;
+    final private InspectionJobService inspectionJobService;
 
     // 유니크 코드 관련
     @PostMapping("/address")
@@ -47,6 +55,8 @@ public class SafetyInspectionController {
 
             List<Map<String,String>> response = extractUnicodeService.getUniqueCode(payload);
             return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (RejectedExecutionException e) {
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             return new ResponseEntity<>(List.of(Map.of("error", "An error occurred while processing the request.")), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -61,10 +71,34 @@ public class SafetyInspectionController {
 
             String reportNo = safetyInspectionService.processSafetyInspection(payload, token);
             return ResponseEntity.ok(reportNo);
+        } catch (RejectedExecutionException e) {
+            // CODEF 조회 풀이 가득 참 -> ApiExceptionAdvice 에서 503
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("실패: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // 비동기 진단: /cors 와 같은 요청 본문으로 작업을 등록하고 작업 번호를 바로 반환 (202)
+    @PostMapping("/jobs")
+    public ResponseEntity<InspectionJobDTO> submitJob(@RequestHeader("Authorization") String token, @RequestBody Map<String, Object> payload) {
+        InspectionJobDTO job = inspectionJobService.submit(payload, token);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/safety-inspection/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    // 작업 상태 폴링 (SUCCEEDED 이면 reportNo 포함)
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<InspectionJobDTO> getJob(@PathVariable("jobId") String jobId, Principal principal) {
+        return ResponseEntity.ok(inspectionJobService.getJob(jobId, principal.getName()));
+    }
+
+    // 작업 상태 SSE 스트림 (progress 이벤트, 작업이 끝나면 서버가 연결을 닫는다)
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamJob(@PathVariable("jobId") String jobId, Principal principal) {
+        return inspectionJobService.subscribe(jobId, principal.getName());
+    }
+}
@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 @Service
 @RequiredArgsConstructor
@@ -40,7 +41,11 @@ public class BuildingManagementLedgerGeneralService{
     private static final String TIMEOUT = "60";
     private static final String ORIGIN_DATA_YN = "0";
 
-    public void getBuildingLedger(Map<String, Object> payload, Integer analysisNo) {
+    /**
+     * 건축물대장을 조회해 analysisNo 로 저장한다
+     * @param aborted 저장 직전에 확인해서 true 면 (같은 진단의 다른 조회가 실패해 진단이 이미 끝남) 저장하지 않는다
+     */
+    public void getBuildingLedger(Map<String, Object> payload, Integer analysisNo, BooleanSupplier aborted) {
 
         try{
 
@@ -49,7 +54,10 @@ public class BuildingManagementLedgerGeneralService{
             String result = easyCodef.requestProduct(PRODUCT_URL, EasyCodefServiceType.DEMO, parameterMap);
             System.out.println("첫 번째 응답: " + result);
 
-            processBMLResult(result, payload, analysisNo);
+            if (aborted.getAsBoolean()) {
+                return;
+            }
+            processBMLResult(result, payload, analysisNo, aborted);
         }catch (Exception e){
             e.printStackTrace();
             throw new RuntimeException(e);
@@ -79,7 +87,7 @@ public class BuildingManagementLedgerGeneralService{
         return parameterMap;
     }
 
-    private void processBMLResult(String result, Map<String, Object> payload, Integer analysisNo) throws IOException {
+    private void processBMLResult(String result, Map<String, Object> payload, Integer analysisNo, BooleanSupplier aborted) throws IOException {
         try {
             Map<String, Object> responseMap = new ObjectMapper().readValue(result, HashMap.class);
             Map<String, Object> dataMap = (Map<String, Object>) responseMap.get("data");
@@ -94,7 +102,7 @@ public class BuildingManagementLedgerGeneralService{
                     }
                     break;
                 case "CF-03002":
-                    handleTwoWayCertification(dataMap, payload, analysisNo);
+                    handleTwoWayCertification(dataMap, payload, analysisNo, aborted);
                     break;
                 default:
                     BuildingManagementLedgerDto ledgerData = new BuildingManagementLedgerDto(analysisNo, null, null);
@@ -107,7 +115,7 @@ public class BuildingManagementLedgerGeneralService{
         }
     }
 
-    private void handleTwoWayCertification(Map<String, Object> dataMap, Map<String, Object> payload, Integer analysisNo) throws Exception {
+    private void handleTwoWayCertification(Map<String, Object> dataMap, Map<String, Object> payload, Integer analysisNo, BooleanSupplier aborted) throws Exception {
         String jti = dataMap.get("jti").toString();
         long twoWayTimestamp = Long.parseLong(dataMap.get("twoWayTimestamp").toString());
         Map<String, Object> extraInfo = (Map<String, Object>) dataMap.get("extraInfo");
@@ -141,6 +149,9 @@ public class BuildingManagementLedgerGeneralService{
         String result2 = easyCodef.requestCertification(PRODUCT_URL, EasyCodefServiceType.DEMO, parameterMap2);
         System.out.println("두 번째 응답: " + result2);
 
+        if (aborted.getAsBoolean()) {
+            return;
+        }
         extractAndSaveDataFromResult2(result2, analysisNo);
     }
 
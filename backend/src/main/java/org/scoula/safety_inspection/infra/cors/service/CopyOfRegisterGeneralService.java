@@ -16,6 +16,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -46,7 +47,11 @@ public class CopyOfRegisterGeneralService {
     private static final String PHONE_NO = "01000000000";
     private static final String REGISTER_SUMMARY_YN = "1";
 
-    public void getCopyOfRegister(Map<String, Object> payload, Integer analysisNo) {
+    /**
+     * 등기부등본을 조회해 analysisNo 로 저장한다
+     * @param aborted 저장 직전에 확인해서 true 면 (같은 진단의 다른 조회가 실패해 진단이 이미 끝남) 저장하지 않는다
+     */
+    public void getCopyOfRegister(Map<String, Object> payload, Integer analysisNo, BooleanSupplier aborted) {
         try {
             String password = encryptRSA(userPass, PUBLIC_KEY);
             HashMap<String, Object> parameterMap = createParameterMap(payload, password);
@@ -54,6 +59,9 @@ public class CopyOfRegisterGeneralService {
             String result = easyCodef.requestProduct(productUrl, EasyCodefServiceType.DEMO, parameterMap);
             System.out.println("result = " + result);
 
+            if (aborted.getAsBoolean()) {
+                return;
+            }
             processRegisterResult(result, analysisNo);
         } catch (Exception e) {
             e.printStackTrace();
@@ -16,6 +16,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -47,7 +48,11 @@ public class CopyOfRegisterMultiService {
     private static final String PHONE_NO = "01000000000";
     private static final String REGISTER_SUMMARY_YN = "1";
 
-    public void getCopyOfRegister(Map<String, Object> payload, Integer analysisNo) {
+    /**
+     * 등기부등본을 조회해 analysisNo 로 저장한다
+     * @param aborted 저장 직전에 확인해서 true 면 (같은 진단의 다른 조회가 실패해 진단이 이미 끝남) 저장하지 않는다
+     */
+    public void getCopyOfRegister(Map<String, Object> payload, Integer analysisNo, BooleanSupplier aborted) {
 
         try{
 
@@ -59,7 +64,9 @@ public class CopyOfRegisterMultiService {
 
             System.out.println("result = " + result);
 
-
+            if (aborted.getAsBoolean()) {
+                return;
+            }
             processRegisterResult(result, analysisNo);
         }catch (Exception e){
             e.printStackTrace();
@@ -0,0 +1,191 @@
+package org.scoula.safety_inspection.job;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 비동기 안전 진단 작업 하나의 진행 상태와 구독 중인 SSE 연결
+ * - 상태 변경은 작업 단위로 동기화하고, SSE 전송은 잠금 밖에서 한 번에 한 스레드만 한다
+ *   (느린 구독자가 상태 조회나 CODEF 조회 스레드의 단계 보고를 막지 않게)
+ * - 전송하는 스레드는 보낼 때마다 최신 상태를 읽으므로 구독자는 바뀐 순서대로 받되, 그 사이의 상태는 건너뛸 수 있다
+ */
+public class InspectionJob {
+
+    public static final String PROGRESS_EVENT = "progress";
+
+    private final String jobId;
+    private final String userId; // 작업을 요청한 사용자 (본인만 조회 가능)
+
+    private InspectionJobStatus status = InspectionJobStatus.QUEUED;
+    private final Set<InspectionStage> runningStages = EnumSet.noneOf(InspectionStage.class);
+    private final Set<InspectionStage> completedStages = EnumSet.noneOf(InspectionStage.class);
+    private String reportNo;
+    private String error;
+    private long finishedAt;
+
+    // 상태가 바뀔 때마다 증가, 구독자별로 마지막으로 보낸 version 을 기억한다
+    private long version;
+    private final Map<SseEmitter, Long> emitters = new LinkedHashMap<>();
+    private boolean delivering;
+
+    public InspectionJob(String jobId, String userId) {
+        this.jobId = jobId;
+        this.userId = userId;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public synchronized boolean isFinished() {
+        return status.isFinished();
+    }
+
+    public synchronized long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public synchronized InspectionJobDTO snapshot() {
+        return new InspectionJobDTO(jobId, status, new ArrayList<>(runningStages), new ArrayList<>(completedStages),
+                reportNo, error);
+    }
+
+    public void start() {
+        synchronized (this) {
+            status = InspectionJobStatus.RUNNING;
+            version++;
+        }
+        publish();
+    }
+
+    public void stage(InspectionStage stage, boolean completed) {
+        synchronized (this) {
+            if (status.isFinished()) {
+                return;
+            }
+            if (completed) {
+                runningStages.remove(stage);
+                completedStages.add(stage);
+            } else {
+                runningStages.add(stage);
+            }
+            version++;
+        }
+        publish();
+    }
+
+    public void succeed(String reportNo) {
+        synchronized (this) {
+            this.reportNo = reportNo;
+            finish(InspectionJobStatus.SUCCEEDED);
+        }
+        publish();
+    }
+
+    public void fail(String error) {
+        synchronized (this) {
+            this.error = error;
+            finish(InspectionJobStatus.FAILED);
+        }
+        publish();
+    }
+
+    /**
+     * 구독 시작: 현재 상태를 바로 보내고, 이미 끝난 작업이면 연결을 닫는다
+     */
+    public void subscribe(SseEmitter emitter) {
+        emitter.onCompletion(() -> unsubscribe(emitter));
+        emitter.onTimeout(() -> unsubscribe(emitter));
+        emitter.onError(e -> unsubscribe(emitter));
+        synchronized (this) {
+            emitters.put(emitter, -1L);
+        }
+        publish();
+    }
+
+    private synchronized void unsubscribe(SseEmitter emitter) {
+        emitters.remove(emitter);
+    }
+
+    private void finish(InspectionJobStatus status) {
+        this.status = status;
+        runningStages.clear();
+        finishedAt = System.currentTimeMillis();
+        version++;
+    }
+
+    // 이미 다른 스레드가 전송 중이면 그 스레드가 바뀐 상태까지 보내므로 바로 돌아간다
+    private void publish() {
+        synchronized (this) {
+            if (delivering) {
+                return;
+            }
+            delivering = true;
+        }
+        try {
+            deliver();
+        } catch (RuntimeException e) {
+            // 정상 종료 때는 deliver 가 잠금 안에서 delivering 을 내려 둔다
+            synchronized (this) {
+                delivering = false;
+            }
+            throw e;
+        }
+    }
+
+    // 최신 상태를 아직 받지 못한 구독자가 없을 때까지: 잠금 안에서 상태와 대상을 정하고, 잠금 밖에서 보낸다
+    // 끝난 작업은 마지막 상태를 보낸 뒤 연결을 닫는다 (끊어진 연결은 뺀다)
+    private void deliver() {
+        while (true) {
+            InspectionJobDTO snapshot;
+            boolean finished;
+            List<SseEmitter> targets = new ArrayList<>();
+            synchronized (this) {
+                for (Map.Entry<SseEmitter, Long> entry : emitters.entrySet()) {
+                    if (entry.getValue() < version) {
+                        entry.setValue(version);
+                        targets.add(entry.getKey());
+                    }
+                }
+                if (targets.isEmpty()) {
+                    delivering = false;
+                    return;
+                }
+                snapshot = snapshot();
+                finished = status.isFinished();
+                if (finished) {
+                    targets.forEach(emitters::remove);
+                }
+            }
+
+            for (SseEmitter emitter : targets) {
+                if (!send(emitter, snapshot)) {
+                    unsubscribe(emitter);
+                } else if (finished) {
+                    emitter.complete();
+                }
+            }
+        }
+    }
+
+    private static boolean send(SseEmitter emitter, InspectionJobDTO snapshot) {
+        try {
+            emitter.send(SseEmitter.event().name(PROGRESS_EVENT).data(snapshot));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.scoula.safety_inspection.job;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// 진단 작업 상태 (폴링 응답, SSE progress 이벤트 데이터)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InspectionJobDTO {
+    private String jobId;
+    private InspectionJobStatus status;
+    private List<InspectionStage> runningStages;
+    private List<InspectionStage> completedStages;
+    private String reportNo; // SUCCEEDED 일 때
+    private String error;    // FAILED 일 때
+}
@@ -0,0 +1,12 @@
+package org.scoula.safety_inspection.job;
+
+public enum InspectionJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
@@ -0,0 +1,13 @@
+package org.scoula.safety_inspection.job;
+
+/**
+ * 진단 단계의 시작 / 완료 알림 (여러 스레드에서 호출될 수 있다)
+ */
+@FunctionalInterface
+public interface InspectionProgressListener {
+
+    InspectionProgressListener NONE = (stage, completed) -> {
+    };
+
+    void onStage(InspectionStage stage, boolean completed);
+}
@@ -0,0 +1,13 @@
+package org.scoula.safety_inspection.job;
+
+/**
+ * 안전 진단 (SafetyInspectionService.processSafetyInspection) 의 단계
+ * - REGISTER / LEDGER 는 동시에 진행되고, realtyType 이 없으면 건너뛴다
+ */
+public enum InspectionStage {
+    ANALYSIS,    // 분석 정보 저장
+    REGISTER,    // 등기부등본 조회
+    LEDGER,      // 건축물대장 조회
+    SCORING,     // 보고서 분석
+    PERSISTENCE  // 보고서 / 관심 보고서 저장
+}
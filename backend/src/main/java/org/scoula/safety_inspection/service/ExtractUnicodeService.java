@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.scoula.safety_inspection.codef.EasyCodef;
 import org.scoula.safety_inspection.codef.EasyCodefServiceType;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,16 +22,26 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static org.scoula.safety_inspection.codef.EasyCodefClientInfo.PUBLIC_KEY;
 import static org.scoula.safety_inspection.codef.EasyCodefUtil.encryptRSA;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ExtractUnicodeService {
 
     private final EasyCodef easyCodef;
     private final ObjectMapper objectMapper;
+    // RootConfig.codefExecutor
+    private final ExecutorService codefExecutor;
+
+    @Value("${codef.fetch-timeout-seconds:120}")
+    private long fetchTimeoutSeconds;
 
     @Value("${codef.eprepayNo}")
     private String ePrepayNo;
@@ -50,6 +61,9 @@ public class ExtractUnicodeService {
     private static final String ISSUE_TYPE = "2";
     private static final String REGISTER_SUMMARY_YN = "1";
     private static final String DEFAULT_PHONE_NO = "01000000000";
+    private static final String PRODUCT_URL = "/v1/kr/public/ck/real-estate-register/status";
+    private static final List<String> REALTY_TYPES = List.of("0", "1");
+    private static final String SUCCESS_CODE = "CF-00000";
 
     public List<Map<String, String>> getUniqueCode(Map<String, Object> payload)
             throws UnsupportedEncodingException, JsonProcessingException, InterruptedException,
@@ -57,26 +71,72 @@ public class ExtractUnicodeService {
             InvalidKeySpecException, BadPaddingException, InvalidKeyException {
 
         String password = encryptRSA(userPass, PUBLIC_KEY);
-        HashMap<String, Object> parameterMap = createParameterMap(payload, password);
-        List<Map<String, String>> extractedValues = new ArrayList<>();
 
-        String productUrl = "/v1/kr/public/ck/real-estate-register/status";
+        // realtyType 0 / 1 조회를 각자의 파라미터 맵으로 동시에 요청
+        List<CompletableFuture<List<Map<String, String>>>> lookups = new ArrayList<>();
+        for (String realtyType : REALTY_TYPES) {
+            lookups.add(lookup(createParameterMap(payload, password), realtyType));
+        }
 
-        // realtyType이 0인 경우의 요청
-        parameterMap.put("realtyType", "0");
-        String result0 = easyCodef.requestProduct(productUrl, EasyCodefServiceType.DEMO, parameterMap);
-        System.out.println("result for realtyType 0 = " + result0);
-        extractedValues.addAll(processResult(result0, "0"));
+        return merge(lookups);
+    }
 
-        // realtyType이 1인 경우의 요청
-        parameterMap.put("realtyType", "1");
-        String result1 = easyCodef.requestProduct(productUrl, EasyCodefServiceType.DEMO, parameterMap);
-        System.out.println("result for realtyType 1 = " + result1);
-        extractedValues.addAll(processResult(result1, "1"));
+    // realtyType 순서대로 합친다 (응답 도착 순서와 관계없이 같은 입력이면 같은 결과)
+    // - 앞선 realtyType 이 모두 확정 없이 끝난 (실패 포함) 뒤에야 다음 realtyType 의 확정 결과를 쓴다
+    // - 확정된 결과가 있으면 그것만 반환하고 뒤의 조회는 기다리지 않는다
+    //   (기다리지 않은 조회는 codefExecutor 에서 끝까지 실행되고 결과는 버려진다, 저장하는 것은 없음)
+    // - 확정된 결과가 없으면 전부 (실패한 조회가 있으면 예외)
+    private static List<Map<String, String>> merge(List<CompletableFuture<List<Map<String, String>>>> lookups)
+            throws UnsupportedEncodingException, JsonProcessingException, InterruptedException {
+        for (CompletableFuture<List<Map<String, String>>> lookup : lookups) {
+            List<Map<String, String>> values = lookup.handle((result, e) -> result).join();
+            if (values != null && isDefinitive(values)) {
+                return values;
+            }
+        }
 
+        List<Map<String, String>> extractedValues = new ArrayList<>();
+        for (CompletableFuture<List<Map<String, String>>> lookup : lookups) {
+            try {
+                extractedValues.addAll(lookup.join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof UnsupportedEncodingException) {
+                    throw (UnsupportedEncodingException) cause;
+                } else if (cause instanceof JsonProcessingException) {
+                    throw (JsonProcessingException) cause;
+                } else if (cause instanceof InterruptedException) {
+                    throw (InterruptedException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException("고유번호 조회 실패", cause);
+            }
+        }
         return extractedValues;
     }
 
+    private CompletableFuture<List<Map<String, String>>> lookup(HashMap<String, Object> parameterMap, String realtyType) {
+        parameterMap.put("realtyType", realtyType);
+        return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        String result = easyCodef.requestProduct(PRODUCT_URL, EasyCodefServiceType.DEMO, parameterMap);
+                        log.debug("result for realtyType " + realtyType + " = " + result);
+                        return processResult(result, realtyType);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, codefExecutor)
+                .orTimeout(fetchTimeoutSeconds, TimeUnit.SECONDS);
+    }
+
+    // 정상 응답에 주소가 하나뿐이면 확정
+    private static boolean isDefinitive(List<Map<String, String>> values) {
+        return values.size() == 1
+                && SUCCESS_CODE.equals(values.get(0).get("responseCode"))
+                && values.get(0).containsKey("commonUniqueNo");
+    }
+
     private HashMap<String, Object> createParameterMap(Map<String, Object> payload, String password) {
         HashMap<String, Object> parameterMap = new HashMap<>();
         parameterMap.put("organization", ORGANIZATION_CODE);
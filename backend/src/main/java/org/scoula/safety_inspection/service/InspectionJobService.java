@@ -0,0 +1,102 @@
+package org.scoula.safety_inspection.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.scoula.oauth.jwt.JwtUtil;
+import org.scoula.safety_inspection.job.InspectionJob;
+import org.scoula.safety_inspection.job.InspectionJobDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 비동기 안전 진단 작업
+ * - 요청은 작업 번호만 받아 바로 돌아가고, 진단은 inspectionJobExecutor 에서 실행된다
+ * - 진행 상황은 폴링 (snapshot) 또는 SSE (subscribe) 로 확인하고, 작업은 요청한 사용자만 볼 수 있다
+ * - 끝난 작업은 inspection.job.retention-minutes 동안 보관한 뒤 지운다
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InspectionJobService {
+
+    private final SafetyInspectionService safetyInspectionService;
+    // RootConfig.inspectionJobExecutor
+    private final ThreadPoolTaskExecutor inspectionJobExecutor;
+    private final JwtUtil jwtUtil;
+
+    @Value("${inspection.job.retention-minutes:30}")
+    private long retentionMinutes;
+
+    @Value("${inspection.job.sse-timeout-seconds:300}")
+    private long sseTimeoutSeconds;
+
+    private final Map<String, InspectionJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * 작업 등록 후 바로 반환 (실행 대기열이 가득 차면 RejectedExecutionException)
+     */
+    public InspectionJobDTO submit(Map<String, Object> payload, String token) {
+        InspectionJob job = new InspectionJob(UUID.randomUUID().toString(), jwtUtil.getUserIdFromToken(token));
+        Map<String, Object> jobPayload = new HashMap<>(payload);
+        jobs.put(job.getJobId(), job);
+        try {
+            inspectionJobExecutor.execute(() -> run(job, jobPayload, token));
+        } catch (RuntimeException e) {
+            jobs.remove(job.getJobId());
+            throw e;
+        }
+        return job.snapshot();
+    }
+
+    public InspectionJobDTO getJob(String jobId, String userId) {
+        return find(jobId, userId).snapshot();
+    }
+
+    /**
+     * 현재 상태를 바로 보내고, 이후 상태가 바뀔 때마다 progress 이벤트를 보낸다 (작업이 끝나면 연결 종료)
+     */
+    public SseEmitter subscribe(String jobId, String userId) {
+        InspectionJob job = find(jobId, userId);
+        SseEmitter emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(sseTimeoutSeconds));
+        job.subscribe(emitter);
+        return emitter;
+    }
+
+    // 끝난 지 오래된 작업 정리
+    @Scheduled(fixedDelay = 60_000)
+    public void evictFinishedJobs() {
+        long expiredBefore = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(retentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt() < expiredBefore);
+    }
+
+    private void run(InspectionJob job, Map<String, Object> payload, String token) {
+        job.start();
+        try {
+            String reportNo = safetyInspectionService.processSafetyInspection(payload, token, job::stage);
+            job.succeed(reportNo);
+        } catch (Exception e) {
+            log.error("안전 진단 작업 실패: " + job.getJobId(), e);
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            job.fail(cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+        }
+    }
+
+    // 다른 사용자의 작업도 없는 작업과 같이 404
+    private InspectionJob find(String jobId, String userId) {
+        InspectionJob job = jobs.get(jobId);
+        if (job == null || !job.getUserId().equals(userId)) {
+            throw new NoSuchElementException("진단 작업이 없습니다: " + jobId);
+        }
+        return job;
+    }
+}
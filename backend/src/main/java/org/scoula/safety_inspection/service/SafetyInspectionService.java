@@ -8,32 +8,24 @@ import org.scoula.safety_inspection.infra.bml.service.BuildingManagementLedgerGe
 import org.scoula.safety_inspection.infra.bml.service.BuildingManagementLedgerMultiService;
 import org.scoula.safety_inspection.infra.cors.service.CopyOfRegisterGeneralService;
 import org.scoula.safety_inspection.infra.cors.service.CopyOfRegisterMultiService;
+import org.scoula.safety_inspection.job.InspectionProgressListener;
+import org.scoula.safety_inspection.job.InspectionStage;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.scoula.safety_inspection.infra.analysis.service.AnalysisService;
 import org.scoula.report.service.ReportService;
 import org.scoula.report.domain.ReportDTO;
 
-import java.util.List;
-import java.util.Map;
-
-
-
-import lombok.RequiredArgsConstructor;
-import org.scoula.like.report.service.LikeReportService;
-import org.scoula.report.mapper.ReportMapper;
-import org.scoula.safety_inspection.infra.bml.service.BuildingManagementLedgerGeneralService;
-import org.scoula.safety_inspection.infra.bml.service.BuildingManagementLedgerMultiService;
-import org.scoula.safety_inspection.infra.cors.service.CopyOfRegisterGeneralService;
-import org.scoula.safety_inspection.infra.cors.service.CopyOfRegisterMultiService;
-import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.scoula.safety_inspection.infra.analysis.service.AnalysisService;
-import org.scoula.report.service.ReportService;
-import org.scoula.report.domain.ReportDTO;
-
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
 
 @Service
 @RequiredArgsConstructor
@@ -49,15 +41,30 @@ public class SafetyInspectionService {
     private final ExtractUnicodeService extractUnicodeService;
     private final ReportMapper reportMapper;
     final private LikeReportService likeService;
+    // RootConfig.codefExecutor
+    private final ExecutorService codefExecutor;
+
+    // 등기부등본 / 건축물대장 조회 각각의 제한 시간
+    @Value("${codef.fetch-timeout-seconds:120}")
+    private long fetchTimeoutSeconds;
 
     /**
      * API 추출 및 DB 저장 트랜잭션 관리를 위한 서비스
      * @param payload
      */
     public String processSafetyInspection(Map<String, Object> payload, String token) {
+        return processSafetyInspection(payload, token, InspectionProgressListener.NONE);
+    }
+
+    /**
+     * processSafetyInspection 과 같고, 단계마다 progress 로 시작 / 완료를 알린다 (비동기 진단 작업용)
+     */
+    public String processSafetyInspection(Map<String, Object> payload, String token, InspectionProgressListener progress) {
         try {
             String propertyNo = (String) payload.get("propertyNo");
+            progress.onStage(InspectionStage.ANALYSIS, false);
             Integer analysisNo = analysisService.processPropertyAnalysis(propertyNo, payload);
+            progress.onStage(InspectionStage.ANALYSIS, true);
 
             String realtyType = (String) payload.get("realtyType");
             System.out.println("realtyType = " + realtyType);
@@ -65,29 +72,112 @@ public class SafetyInspectionService {
             if (realtyType != null && !realtyType.equals("-1")) {
                 if ("1".equals(realtyType)) {
                     System.out.println("resultType : 1");
-                    copyOfRegisterMultiService.getCopyOfRegister(payload, analysisNo);
-                    buildingManagementLedgerMultiService.getBuildingLedger(payload, analysisNo);
+                    fetchConcurrently(
+                            aborted -> copyOfRegisterMultiService.getCopyOfRegister(payload, analysisNo, aborted),
+                            aborted -> buildingManagementLedgerMultiService.getBuildingLedger(payload, analysisNo, aborted),
+                            progress);
                 } else if ("0".equals(realtyType)) {
                     System.out.println("resultType : 0");
-                    copyOfRegisterGeneralService.getCopyOfRegister(payload, analysisNo);
-                    buildingManagementLedgerGeneralService.getBuildingLedger(payload, analysisNo);
+                    fetchConcurrently(
+                            aborted -> copyOfRegisterGeneralService.getCopyOfRegister(payload, analysisNo, aborted),
+                            aborted -> buildingManagementLedgerGeneralService.getBuildingLedger(payload, analysisNo, aborted),
+                            progress);
                 }
             } else {
             }
 
             // 보고서 생성 및 저장
+            progress.onStage(InspectionStage.SCORING, false);
             ReportDTO reportDTO = reportService.analysis(analysisNo, propertyNo, payload);
             log.info("AnalysisDate in DTO : " + reportDTO.getAnalysisDate());
+            progress.onStage(InspectionStage.SCORING, true);
+
+            progress.onStage(InspectionStage.PERSISTENCE, false);
             reportService.create(reportDTO, analysisNo, token);
             int reportNo = reportMapper.getReportNo(analysisNo);
 
             // like report
             likeService.create(reportNo, token);
+            progress.onStage(InspectionStage.PERSISTENCE, true);
             return String.valueOf(reportNo);
 
+        } catch (RejectedExecutionException e) {
+            // CODEF 조회 풀이 가득 참 (ApiExceptionAdvice 에서 503)
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException(e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 등기부등본 / 건축물대장 조회 (서로 독립적인 CODEF 호출) 를 codefExecutor 에서 동시에 실행하고 둘 다 끝날 때까지 기다린다
+     * - 각 조회는 fetchTimeoutSeconds 안에 끝나야 한다 (제한 시간은 제출 전에 걸어 두어 실행 방식과 관계없이 적용)
+     * - 풀과 대기열이 가득 차면 RejectedExecutionException (503), 이미 제출한 조회는 결과를 저장하지 않는다
+     * - 하나가 실패하거나 시간을 넘기면 다른 쪽은 기다리지 않고 처음 실패한 원인으로 예외
+     *   이미 보낸 CODEF 요청은 끝까지 실행되지만, aborted 가 켜져 있으므로 결과를 저장하지 않는다 (실패한 진단의 analysisNo 에 행이 남지 않게)
+     */
+    private void fetchConcurrently(Fetch register, Fetch ledger, InspectionProgressListener progress) {
+        AtomicBoolean aborted = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CompletableFuture<Void> registerFuture = fetch("등기부등본", InspectionStage.REGISTER, register, aborted, progress);
+        CompletableFuture<Void> ledgerFuture;
+        try {
+            ledgerFuture = fetch("건축물대장", InspectionStage.LEDGER, ledger, aborted, progress);
+        } catch (RejectedExecutionException e) {
+            aborted.set(true);
+            throw e;
+        }
+
+        BiConsumer<Void, Throwable> abortOnFailure = (result, e) -> {
+            if (e != null && failure.compareAndSet(null, e)) {
+                aborted.set(true);
+                registerFuture.completeExceptionally(e);
+                ledgerFuture.completeExceptionally(e);
+            }
+        };
+        registerFuture.whenComplete(abortOnFailure);
+        ledgerFuture.whenComplete(abortOnFailure);
+
+        try {
+            CompletableFuture.allOf(registerFuture, ledgerFuture).join();
+        } catch (CompletionException e) {
+            Throwable cause = failure.get() != null ? failure.get() : e;
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            throw new IllegalStateException("등기부등본 / 건축물대장 조회 실패", cause);
+        }
+    }
+
+    // 제한 시간이 걸린 future 를 먼저 만들고 나서 제출한다 (제출이 거절되면 RejectedExecutionException)
+    private CompletableFuture<Void> fetch(String name, InspectionStage stage, Fetch task, AtomicBoolean aborted,
+                                         InspectionProgressListener progress) {
+        long start = System.currentTimeMillis();
+        CompletableFuture<Void> future = new CompletableFuture<Void>()
+                .orTimeout(fetchTimeoutSeconds, TimeUnit.SECONDS);
+        future.whenComplete((result, e) -> {
+            if (e == null) {
+                log.info(name + " 조회 완료: " + (System.currentTimeMillis() - start) + "ms");
+            } else {
+                log.warn(name + " 조회 실패: " + e);
+            }
+        });
+        codefExecutor.execute(() -> {
+            try {
+                progress.onStage(stage, false);
+                task.run(aborted::get);
+                progress.onStage(stage, true);
+                future.complete(null);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    // 조회 하나 (aborted 가 true 면 결과를 저장하지 않아야 한다)
+    private interface Fetch {
+        void run(BooleanSupplier aborted) throws Exception;
+    }
+}
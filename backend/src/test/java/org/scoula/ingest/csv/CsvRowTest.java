@@ -0,0 +1,87 @@
+package org.scoula.ingest.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRowTest {
+
+    @Test
+    @DisplayName("큰따옴표로 감싼 필드는 따옴표를 빼고, 안의 \"\" 는 \" 로, 안의 콤마는 값으로 읽는다.")
+    void quotedFields() {
+        CsvRow row = row("1,\"서울특별시 강남구, 역삼동\",\"12\"\"3\"\"\",\"\",plain ,\"a\"  ,");
+        assertEquals(7, row.fieldCount());
+        assertEquals(1L, row.getLong(0));
+        assertEquals("서울특별시 강남구, 역삼동", row.getString(1));
+        assertEquals("12\"3\"", row.getString(2));
+        assertNull(row.getString(3));
+        assertTrue(row.isBlank(3));
+        assertEquals("plain", row.getString(4));
+        // 닫는 따옴표 뒤의 공백은 버린다
+        assertEquals("a", row.getString(5));
+        assertTrue(row.isBlank(6));
+        // 없는 필드는 빈 필드와 같다
+        assertTrue(row.isBlank(7));
+        assertNull(row.getString(7));
+        assertNull(row.getLong(7));
+    }
+
+    @Test
+    @DisplayName("필드가 많아도 모두 나눈다.")
+    void manyFields() {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            line.append(i == 0 ? "" : ",").append(i);
+        }
+        CsvRow row = row(line.toString());
+        assertEquals(100, row.fieldCount());
+        assertEquals(99, row.getInt(99));
+    }
+
+    @Test
+    @DisplayName("정수는 공백과 자릿수 콤마를 허용하고, 숫자가 아니거나 범위를 넘으면 null 이다.")
+    void integers() {
+        CsvRow row = row(" 42 ,\"1,234,567\",-15,abc,1-2,9223372036854775807,9223372036854775808,"
+                + "12345678901234567890,2147483648,-,--1");
+        assertEquals(42L, row.getLong(0));
+        assertEquals(1234567L, row.getLong(1));
+        assertEquals(-15L, row.getLong(2));
+        assertEquals(-15, row.getInt(2));
+        assertNull(row.getLong(3));
+        assertNull(row.getLong(4));
+        assertEquals(Long.MAX_VALUE, row.getLong(5));
+        assertNull(row.getLong(6));
+        assertNull(row.getLong(7));
+        assertEquals(2147483648L, row.getLong(8));
+        assertNull(row.getInt(8));
+        assertNull(row.getLong(9));
+        assertNull(row.getLong(10));
+    }
+
+    @Test
+    @DisplayName("실수는 부호, 소수점, 자릿수 콤마를 허용하고, 18 자리를 넘는 숫자도 크기를 유지한다.")
+    void doubles() {
+        CsvRow row = row("127.0276,\"-37.5\",+0.001,\"12,345.5\",1.2.3,1e5,.5,12345678901234567890123,"
+                + "0.000000000000000000001");
+        assertEquals(127.0276, row.getDouble(0), 1e-12);
+        assertEquals(-37.5, row.getDouble(1), 1e-12);
+        assertEquals(0.001, row.getDouble(2), 1e-15);
+        assertEquals(12345.5, row.getDouble(3), 1e-9);
+        assertNull(row.getDouble(4));
+        assertNull(row.getDouble(5));
+        assertEquals(0.5, row.getDouble(6), 1e-15);
+        assertEquals(1.2345678901234568e22, row.getDouble(7), 1e8);
+        assertEquals(1e-21, row.getDouble(8), 1e-30);
+    }
+
+    private static CsvRow row(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        CsvRow row = new CsvRow(ByteBuffer.wrap(bytes));
+        row.reset(0, bytes.length);
+        return row;
+    }
+}
@@ -0,0 +1,79 @@
+package org.scoula.ingest.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedCsvReaderTest {
+
+    @Test
+    @DisplayName("BOM 은 건너뛰고, CRLF 의 \\r 은 값에 넣지 않으며, 빈 줄과 마지막 줄바꿈이 없는 줄도 처리한다.")
+    void bomAndCrlf() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+        out.write("1,역삼동\r\n\r\n2,\"삼성동\"\r\n\n3,대치동".getBytes(StandardCharsets.UTF_8));
+
+        List<String> rows = read(out.toByteArray(), 4);
+        assertEquals(List.of("1|역삼동", "2|삼성동", "3|대치동"), rows);
+    }
+
+    @Test
+    @DisplayName("BOM 이 없는 파일과 빈 파일도 읽는다.")
+    void noBomAndEmpty() throws Exception {
+        assertEquals(List.of("7|a"), read("7,a\n".getBytes(StandardCharsets.UTF_8), 1));
+        assertTrue(read(new byte[0], 4).isEmpty());
+    }
+
+    @Test
+    @DisplayName("여러 조각으로 나눠 읽어도 줄이 잘리거나 빠지지 않고 파일 순서를 유지한다.")
+    void chunksSplitAtLineBoundaries() throws Exception {
+        // 조각 최소 크기 (1MB) 보다 충분히 크게, 줄 길이를 들쭉날쭉하게
+        StringBuilder csv = new StringBuilder();
+        int lines = 80_000;
+        for (int i = 0; i < lines; i++) {
+            csv.append(i).append(",\"").append("주소".repeat(i % 17)).append(", ").append(i).append("\"")
+                    .append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        assertTrue(bytes.length > 4 * 1024 * 1024);
+
+        for (int parallelism : new int[]{1, 3, 8}) {
+            List<String> rows = read(bytes, parallelism);
+            assertEquals(lines, rows.size(), "parallelism " + parallelism);
+            for (int i = 0; i < lines; i++) {
+                assertEquals(i + "|" + "주소".repeat(i % 17) + ", " + i, rows.get(i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("mapper 가 null 을 반환한 줄은 버린다.")
+    void mapperMayDropRows() throws Exception {
+        Path file = Files.createTempFile("mapped-csv", ".csv");
+        try {
+            Files.write(file, "1,a\n2,b\n3,c\n4,d\n".getBytes(StandardCharsets.UTF_8));
+            List<Long> even = MappedCsvReader.read(file, 2, row -> row.getLong(0) % 2 == 0 ? row.getLong(0) : null);
+            assertEquals(List.of(2L, 4L), even);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    // 한 줄을 "첫 필드|둘째 필드" 로
+    private static List<String> read(byte[] bytes, int parallelism) throws Exception {
+        Path file = Files.createTempFile("mapped-csv", ".csv");
+        try {
+            Files.write(file, bytes);
+            return MappedCsvReader.read(file, parallelism, row -> row.getLong(0) + "|" + row.getString(1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
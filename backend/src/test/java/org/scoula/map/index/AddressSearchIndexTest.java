@@ -0,0 +1,192 @@
+package org.scoula.map.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AddressSearchIndexTest {
+
+    private static final String[] GU = {"강남구", "서초구", "관악구", "마포구"};
+    private static final String[] DONG = {"역삼동", "역촌동", "삼성동", "대치동", "개포동", "과천동", "괴정동", "신사동"};
+    private static final String[] ROAD = {"테헤란로", "역삼로", "삼성로", "봉은사로", "과천대로", "Gangnam-daero"};
+    private static final String[] BUILDING = {"역삼래미안", "삼성아파트", "대치 아이파크", "개포자이", "괴정 힐스테이트", "The Sharp"};
+    private static final String[] QUERIES = {
+            "역사", "역삼", "역", "ㅇ", "ㅇㅕ", "삼성", "강남구 역", "12", "123-4", "래미안", "과", "고", "괴정",
+            "테헤란로 1", "치동", "아파트", "gangnam", "sharp", "로 2", "없는주소"};
+
+    @Test
+    @DisplayName("검색 결과가 전체 문서를 순회한 결과 (토큰 시작 > 중간 일치, 짧은 문자열, 필드 순, 위치당 하나) 와 같다.")
+    void searchMatchesBruteForce() {
+        Random random = new Random(17);
+        AddressSearchIndex.Builder builder = new AddressSearchIndex.Builder();
+        List<Doc> docs = new ArrayList<>();
+        for (int location = 1; location <= 400; location++) {
+            String gu = "서울특별시 " + GU[random.nextInt(GU.length)];
+            String jibun = gu + " " + DONG[random.nextInt(DONG.length)] + " " + (1 + random.nextInt(300))
+                    + (random.nextBoolean() ? "-" + (1 + random.nextInt(20)) : "");
+            String doro = random.nextInt(10) == 0 ? null
+                    : gu + " " + ROAD[random.nextInt(ROAD.length)] + " " + (1 + random.nextInt(500));
+            builder.addLocation(location, jibun, doro);
+            addDoc(docs, location, AddressSearchIndex.FIELD_JIBUN, jibun);
+            addDoc(docs, location, AddressSearchIndex.FIELD_DORO, doro);
+            for (int b = random.nextInt(3); b > 0; b--) {
+                String building = BUILDING[random.nextInt(BUILDING.length)];
+                builder.addBuildingName(location, building);
+                addDoc(docs, location, AddressSearchIndex.FIELD_BUILDING, building);
+            }
+        }
+        AddressSearchIndex index = builder.build();
+        assertEquals(400, index.size());
+
+        for (String query : QUERIES) {
+            List<Doc> expected = bruteForce(docs, query);
+            for (int limit : new int[]{1, 5, 20, 1000}) {
+                int[] found = index.search(query, limit);
+                assertEquals(Math.min(limit, expected.size()), found.length, query + " / " + limit);
+
+                Set<Integer> locations = new HashSet<>();
+                for (int i = 0; i < found.length; i++) {
+                    int doc = found[i];
+                    assertTrue(locations.add(index.locationNo(doc)), query);
+                    // 순위 키는 순회 결과의 같은 자리와 같아야 한다 (동점끼리는 순서가 바뀔 수 있음)
+                    Doc want = expected.get(i);
+                    Doc got = find(docs, index.locationNo(doc), index.text(doc));
+                    assertEquals(want.rank(query), got.rank(query), query + " #" + i);
+                    assertEquals(index.field(doc), got.field);
+                }
+                if (limit >= expected.size()) {
+                    Set<Integer> expectedLocations = new HashSet<>();
+                    expected.forEach(doc -> expectedLocations.add(doc.location));
+                    assertEquals(expectedLocations, locations, query);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("입력 중인 음절도 접두로 맞는다 (\"역사\" -> 역삼, \"고\" -> 과천).")
+    void partialSyllables() {
+        AddressSearchIndex index = new AddressSearchIndex.Builder()
+                .addLocation(1, "서울특별시 강남구 역삼동 123", "서울특별시 강남구 테헤란로 152")
+                .addLocation(2, "경기도 과천시 과천동 1", null)
+                .addLocation(3, "서울특별시 은평구 역촌동 5", null)
+                .build();
+
+        int[] found = index.search("역사", 10);
+        assertEquals(1, found.length);
+        assertEquals(1, index.locationNo(found[0]));
+        assertEquals(AddressSearchIndex.FIELD_JIBUN, index.field(found[0]));
+
+        found = index.search("고", 10);
+        assertEquals(1, found.length);
+        assertEquals(2, index.locationNo(found[0]));
+
+        assertEquals(2, index.search("역", 10).length);
+        assertEquals(0, index.search("  ", 10).length);
+        assertEquals(0, AddressSearchIndex.EMPTY.search("역삼", 10).length);
+    }
+
+    @Test
+    @DisplayName("같은 위치에서는 가장 좋은 문서 하나만, 건물명은 위치 앞에 와도 붙는다.")
+    void oneDocPerLocation() {
+        AddressSearchIndex index = new AddressSearchIndex.Builder()
+                .addBuildingName(1, "역삼래미안")
+                .addBuildingName(9, "주소 없는 건물")
+                .addLocation(1, "서울특별시 강남구 역삼동 123", "서울특별시 강남구 역삼로 1")
+                .build();
+
+        int[] found = index.search("역삼", 10);
+        assertEquals(1, found.length);
+        assertEquals(AddressSearchIndex.FIELD_BUILDING, index.field(found[0]));
+        assertEquals("역삼래미안", index.text(found[0]));
+        assertEquals(0, index.search("주소 없는", 10).length);
+    }
+
+    private static void addDoc(List<Doc> docs, int location, int field, String text) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        HangulJamo.Normalized jamo = HangulJamo.normalize(text);
+        for (Doc doc : docs) {
+            if (doc.location == location && doc.jamo.text.equals(jamo.text)) {
+                return;
+            }
+        }
+        docs.add(new Doc(location, field, text.trim(), jamo));
+    }
+
+    // 위치마다 순위가 가장 좋은 문서 하나를 순위순으로
+    private static List<Doc> bruteForce(List<Doc> docs, String query) {
+        Map<Integer, Doc> best = new HashMap<>();
+        for (Doc doc : docs) {
+            if (doc.rank(query) == null) {
+                continue;
+            }
+            best.merge(doc.location, doc, (a, b) -> RANK.compare(a.rank(query), b.rank(query)) <= 0 ? a : b);
+        }
+        List<Doc> result = new ArrayList<>(best.values());
+        result.sort(Comparator.comparing(doc -> doc.rank(query), RANK));
+        return result;
+    }
+
+    private static Doc find(List<Doc> docs, int location, String text) {
+        for (Doc doc : docs) {
+            if (doc.location == location && doc.text.equals(text)) {
+                return doc;
+            }
+        }
+        throw new AssertionError("no doc " + location + " " + text);
+    }
+
+    private static final Comparator<List<Integer>> RANK = (a, b) -> {
+        for (int i = 0; i < a.size(); i++) {
+            int c = Integer.compare(a.get(i), b.get(i));
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    };
+
+    private static final class Doc {
+        final int location;
+        final int field;
+        final String text;
+        final HangulJamo.Normalized jamo;
+
+        Doc(int location, int field, String text, HangulJamo.Normalized jamo) {
+            this.location = location;
+            this.field = field;
+            this.text = text;
+            this.jamo = jamo;
+        }
+
+        // (토큰 시작 일치 0 / 중간 일치 1, 정규화 길이, 필드), 맞지 않으면 null
+        // 2 자모 이하 질의는 토큰 시작 일치만 찾는다
+        List<Integer> rank(String query) {
+            String q = HangulJamo.normalize(query).text;
+            if (q.isEmpty()) {
+                return null;
+            }
+            for (int start : jamo.tokenStarts) {
+                if (jamo.text.startsWith(q, start)) {
+                    return List.of(0, jamo.text.length(), field);
+                }
+            }
+            if (q.length() >= 3 && jamo.text.contains(q)) {
+                return List.of(1, jamo.text.length(), field);
+            }
+            return null;
+        }
+    }
+}
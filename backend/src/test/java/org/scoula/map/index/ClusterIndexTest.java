@@ -0,0 +1,104 @@
+package org.scoula.map.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterIndexTest {
+
+    private static final int LEVELS = 12;
+
+    @Test
+    @DisplayName("모든 레벨에서 클러스터 건수의 합이 원본 점 수와 같다.")
+    void countsConservedAtEveryLevel() {
+        Random random = new Random(7);
+        int n = 3000;
+        PropertyPointIndex.Builder builder = new PropertyPointIndex.Builder(n);
+        for (int i = 0; i < n; i++) {
+            double price = i % 5 == 0 ? Double.NaN : 1 + random.nextInt(1000) / 10.0;
+            builder.add(i + 1, 37.4 + random.nextDouble() * 0.3, 126.8 + random.nextDouble() * 0.4, price);
+        }
+        ClusterIndex clusters = ClusterIndex.build(builder.build(), latRadius(), lonRadius());
+
+        int previousSize = n;
+        for (int level = 0; level <= clusters.maxLevel(); level++) {
+            ClusterIndex.Level clusterLevel = clusters.level(level);
+            int count = 0;
+            for (int i = 0; i < clusterLevel.size(); i++) {
+                count += clusterLevel.count(i);
+                // 점 하나짜리 클러스터만 location_no 를 가진다
+                assertEquals(clusterLevel.count(i) == 1, clusterLevel.locationNo(i) > 0);
+                double averagePrice = clusterLevel.averagePrice(i);
+                assertTrue(Double.isNaN(averagePrice) || averagePrice >= 1 && averagePrice <= 101);
+            }
+            assertEquals(n, count, "level " + level);
+            assertTrue(clusterLevel.size() <= previousSize, "level " + level);
+            previousSize = clusterLevel.size();
+        }
+        assertTrue(clusters.level(clusters.maxLevel()).size() < n);
+    }
+
+    @Test
+    @DisplayName("사각형 조회 결과가 클러스터 중심을 전체 순회한 결과와 같다.")
+    void searchMatchesBruteForce() {
+        Random random = new Random(11);
+        PropertyPointIndex.Builder builder = new PropertyPointIndex.Builder(2000);
+        for (int i = 0; i < 2000; i++) {
+            builder.add(i + 1, 35.0 + random.nextDouble() * 2, 127.0 + random.nextDouble() * 2, i);
+        }
+        ClusterIndex clusters = ClusterIndex.build(builder.build(), latRadius(), lonRadius());
+
+        for (int level = 0; level <= clusters.maxLevel(); level++) {
+            ClusterIndex.Level clusterLevel = clusters.level(level);
+            for (int t = 0; t < 20; t++) {
+                double minLat = 35.0 + random.nextDouble() * 2;
+                double minLon = 127.0 + random.nextDouble() * 2;
+                double maxLat = minLat + random.nextDouble() * 0.5;
+                double maxLon = minLon + random.nextDouble() * 0.5;
+
+                int expected = 0;
+                for (int i = 0; i < clusterLevel.size(); i++) {
+                    if (clusterLevel.lat(i) >= minLat && clusterLevel.lat(i) <= maxLat
+                            && clusterLevel.lon(i) >= minLon && clusterLevel.lon(i) <= maxLon) {
+                        expected++;
+                    }
+                }
+                int[] found = clusterLevel.search(minLat, maxLat, minLon, maxLon);
+                assertEquals(expected, found.length);
+                for (int i = 1; i < found.length; i++) {
+                    assertTrue(found[i - 1] < found[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("빈 인덱스는 모든 레벨이 비어 있다.")
+    void emptyIndex() {
+        ClusterIndex clusters = ClusterIndex.build(PropertyPointIndex.EMPTY, latRadius(), lonRadius());
+        for (int level = 0; level <= clusters.maxLevel(); level++) {
+            assertEquals(0, clusters.level(level).size());
+            assertEquals(0, clusters.level(level).search(-90, 90, -180, 180).length);
+        }
+    }
+
+    // 레벨이 오를 때마다 반경을 두 배로
+    private static double[] latRadius() {
+        double[] radius = new double[LEVELS];
+        for (int level = 1; level < LEVELS; level++) {
+            radius[level] = 0.0005 * (1 << level);
+        }
+        return radius;
+    }
+
+    private static double[] lonRadius() {
+        double[] radius = latRadius();
+        for (int level = 1; level < LEVELS; level++) {
+            radius[level] *= 1.25;
+        }
+        return radius;
+    }
+}
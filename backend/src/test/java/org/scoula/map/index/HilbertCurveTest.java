@@ -0,0 +1,130 @@
+package org.scoula.map.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HilbertCurveTest {
+
+    // 한 칸의 크기 (도)
+    private static final double CELL = 8.0 / (1 << HilbertCurve.ORDER);
+
+    @Test
+    @DisplayName("고정 좌표의 키 값 (estate.sql 의 hilbert_key(lon, lat) 도 같은 값을 반환해야 한다).")
+    void keyVectors() {
+        assertEquals(0L, HilbertCurve.key(32, 124));
+        assertEquals(1951604325L, HilbertCurve.key(37.5665, 126.978));   // 서울시청
+        assertEquals(3535264528L, HilbertCurve.key(35.1796, 129.0756));  // 부산시청
+        assertEquals(503250949L, HilbertCurve.key(33.4996, 126.5312));   // 제주시청
+        assertEquals(2863311530L, HilbertCurve.key(39.9999, 131.9999));  // 영역의 마지막 칸
+        // 영역 밖의 좌표는 가장자리 칸으로 붙는다
+        assertEquals(0L, HilbertCurve.key(0, 0));
+        assertEquals(2863311530L, HilbertCurve.key(45, 140));
+    }
+
+    @Test
+    @DisplayName("곡선 위에서 이웃한 키는 격자에서도 맞닿은 칸이다.")
+    void consecutiveKeysAreAdjacentCells() {
+        // 왼쪽 아래 64 x 64 블록은 곡선의 첫 4096 칸
+        int side = 64;
+        int[] xs = new int[side * side];
+        int[] ys = new int[side * side];
+        boolean[] seen = new boolean[side * side];
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                int key = (int) HilbertCurve.encode(x, y);
+                assertTrue(key < side * side);
+                assertFalse(seen[key]);
+                seen[key] = true;
+                xs[key] = x;
+                ys[key] = y;
+            }
+        }
+        for (int key = 1; key < side * side; key++) {
+            assertEquals(1, Math.abs(xs[key] - xs[key - 1]) + Math.abs(ys[key] - ys[key - 1]), "key " + key);
+        }
+    }
+
+    @Test
+    @DisplayName("구간 수 제한이 충분하면 키 구간이 사각형 안의 칸을 정확히 덮는다.")
+    void rangesCoverRectangleExactly() {
+        Random random = new Random(5);
+        for (int t = 0; t < 200; t++) {
+            int x0 = random.nextInt((1 << HilbertCurve.ORDER) - 40);
+            int y0 = random.nextInt((1 << HilbertCurve.ORDER) - 40);
+            int x1 = x0 + random.nextInt(40);
+            int y1 = y0 + random.nextInt(40);
+            long[] ranges = ranges(x0, x1, y0, y1, Integer.MAX_VALUE);
+
+            assertSortedAndDisjoint(ranges);
+            long covered = 0;
+            for (int r = 0; r < ranges.length; r += 2) {
+                covered += ranges[r + 1] - ranges[r] + 1;
+            }
+            assertEquals((long) (x1 - x0 + 1) * (y1 - y0 + 1), covered);
+            assertAllCellsCovered(ranges, x0, x1, y0, y1);
+        }
+    }
+
+    @Test
+    @DisplayName("구간 수는 maxRanges 를 넘지 않고, 줄어든 구간도 사각형 안의 칸을 모두 덮는다.")
+    void rangesRespectMaxRanges() {
+        Random random = new Random(9);
+        int[] limits = {1, 2, 4, 8, 32};
+        for (int t = 0; t < 100; t++) {
+            int x0 = random.nextInt((1 << HilbertCurve.ORDER) - 200);
+            int y0 = random.nextInt((1 << HilbertCurve.ORDER) - 200);
+            int x1 = x0 + random.nextInt(200);
+            int y1 = y0 + random.nextInt(200);
+            for (int maxRanges : limits) {
+                long[] ranges = ranges(x0, x1, y0, y1, maxRanges);
+                assertTrue(ranges.length / 2 <= maxRanges, ranges.length / 2 + " > " + maxRanges);
+                assertSortedAndDisjoint(ranges);
+                assertAllCellsCovered(ranges, x0, x1, y0, y1);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("뒤집힌 사각형과 NaN 좌표는 빈 구간을 반환한다.")
+    void emptyRanges() {
+        assertEquals(0, HilbertCurve.ranges(38, 37, 126, 127, 32).length);
+        assertEquals(0, HilbertCurve.ranges(37, 38, 127, 126, 32).length);
+        assertEquals(0, HilbertCurve.ranges(Double.NaN, 38, 126, 127, 32).length);
+        assertEquals(0, HilbertCurve.ranges(37, 38, 126, Double.NaN, 32).length);
+    }
+
+    // 칸 번호로 준 사각형 (경계 포함) 을 칸 중심 좌표로 바꿔 조회
+    private static long[] ranges(int x0, int x1, int y0, int y1, int maxRanges) {
+        return HilbertCurve.ranges(HilbertCurve.MIN_LAT + (y0 + 0.5) * CELL, HilbertCurve.MIN_LAT + (y1 + 0.5) * CELL,
+                HilbertCurve.MIN_LON + (x0 + 0.5) * CELL, HilbertCurve.MIN_LON + (x1 + 0.5) * CELL, maxRanges);
+    }
+
+    private static void assertSortedAndDisjoint(long[] ranges) {
+        assertTrue(ranges.length > 0);
+        assertEquals(0, ranges.length % 2);
+        for (int r = 0; r < ranges.length; r += 2) {
+            assertTrue(ranges[r] <= ranges[r + 1]);
+            // 맞닿은 구간은 하나로 합쳐져 있어야 한다
+            if (r > 0) {
+                assertTrue(ranges[r - 1] + 1 < ranges[r]);
+            }
+        }
+    }
+
+    private static void assertAllCellsCovered(long[] ranges, int x0, int x1, int y0, int y1) {
+        for (int x = x0; x <= x1; x++) {
+            for (int y = y0; y <= y1; y++) {
+                long key = HilbertCurve.encode(x, y);
+                boolean found = false;
+                for (int r = 0; r < ranges.length && !found; r += 2) {
+                    found = key >= ranges[r] && key <= ranges[r + 1];
+                }
+                assertTrue(found, "cell " + x + ", " + y);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.scoula.map.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropertyPointIndexTest {
+
+    @Test
+    @DisplayName("사각형 조회 결과가 전체 순회 결과와 같고 location_no 순으로 정렬된다.")
+    void searchMatchesBruteForce() {
+        Random random = new Random(42);
+        int n = 5000;
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        PropertyPointIndex.Builder builder = new PropertyPointIndex.Builder(n);
+        for (int i = 0; i < n; i++) {
+            lats[i] = 37.4 + random.nextDouble() * 0.3;
+            lons[i] = 126.8 + random.nextDouble() * 0.4;
+            builder.add(n - i, lats[i], lons[i], i % 7 == 0 ? Double.NaN : i);
+        }
+        PropertyPointIndex index = builder.build();
+
+        for (int t = 0; t < 200; t++) {
+            double lat = 37.4 + random.nextDouble() * 0.3;
+            double lon = 126.8 + random.nextDouble() * 0.4;
+            double latRange = random.nextDouble() * 0.05;
+            double lonRange = random.nextDouble() * 0.1;
+
+            int expected = 0;
+            for (int i = 0; i < n; i++) {
+                if (Math.abs(lats[i] - lat) <= latRange && Math.abs(lons[i] - lon) <= lonRange) {
+                    expected++;
+                }
+            }
+
+            int[] slots = index.search(lat - latRange, lat + latRange, lon - lonRange, lon + lonRange);
+            assertEquals(expected, slots.length);
+            for (int i = 1; i < slots.length; i++) {
+                assertTrue(index.locationNo(slots[i - 1]) < index.locationNo(slots[i]));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("빈 인덱스와 뒤집힌 사각형은 빈 결과를 반환한다.")
+    void emptyResults() {
+        assertEquals(0, PropertyPointIndex.EMPTY.search(0, 90, 0, 180).length);
+
+        PropertyPointIndex index = new PropertyPointIndex.Builder(1).add(1, 37.5, 127.0, 3.0).build();
+        assertEquals(1, index.search(37.5, 37.5, 127.0, 127.0).length);
+        assertEquals(0, index.search(38, 37, 126, 128).length);
+    }
+
+    @Test
+    @DisplayName("최근접 조회는 조건과 최대 거리를 만족하는 가장 가까운 k 개를 거리 순으로 반환한다.")
+    void nearestMatchesBruteForce() {
+        Random random = new Random(7);
+        int n = 5000;
+        PropertyPointIndex.Builder builder = new PropertyPointIndex.Builder(n);
+        for (int i = 0; i < n; i++) {
+            builder.add(i + 1, 37.4 + random.nextDouble() * 0.3, 126.8 + random.nextDouble() * 0.4, i);
+        }
+        PropertyPointIndex index = builder.build();
+
+        for (int t = 0; t < 200; t++) {
+            double lat = 37.4 + random.nextDouble() * 0.3;
+            double lon = 126.8 + random.nextDouble() * 0.4;
+            int k = 1 + random.nextInt(20);
+            double maxDistance = t % 2 == 0 ? Double.POSITIVE_INFINITY : random.nextDouble() * 3000;
+
+            double[] distances = IntStream.range(0, n)
+                    .filter(slot -> index.locationNo(slot) % 2 == 0)
+                    .mapToDouble(slot -> PropertyPointIndex.distanceMeters(lat, lon, index.lat(slot), index.lon(slot)))
+                    .filter(distance -> distance <= maxDistance)
+                    .sorted()
+                    .toArray();
+
+            int[] slots = index.nearest(lat, lon, k, maxDistance, slot -> index.locationNo(slot) % 2 == 0);
+            assertEquals(Math.min(k, distances.length), slots.length);
+            for (int i = 0; i < slots.length; i++) {
+                assertEquals(0, index.locationNo(slots[i]) % 2);
+                double distance = PropertyPointIndex.distanceMeters(lat, lon, index.lat(slots[i]), index.lon(slots[i]));
+                // 후보는 근사 거리로 찾으므로 k 번째 경계에서 거의 같은 거리의 점이 바뀔 수 있다
+                assertEquals(distances[i], distance, distances[i] * 1e-3 + 1e-6);
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.scoula.map.tile;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MvtEncoderTest {
+
+    @Test
+    @DisplayName("인코딩한 타일을 다시 읽으면 점 좌표, id, 속성이 그대로 나온다.")
+    void roundTrip() {
+        Random random = new Random(3);
+        MvtEncoder encoder = new MvtEncoder("points", MvtEncoder.DEFAULT_EXTENT, "location_no", "count", "price");
+        List<Object[]> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long id = i % 10 == 0 ? -1 : random.nextInt(1_000_000);
+            // 버퍼 영역의 음수 / extent 초과 좌표 포함
+            int x = random.nextInt(MvtEncoder.DEFAULT_EXTENT + 256) - 128;
+            int y = random.nextInt(MvtEncoder.DEFAULT_EXTENT + 256) - 128;
+            Object locationNo = 100L + random.nextInt(100);
+            Object count = random.nextInt(5) + 1;
+            Object price = i % 3 == 0 ? null : random.nextInt(200) / 10.0;
+            encoder.addPoint(id, x, y, locationNo, count, price);
+            expected.add(new Object[]{id, x, y, locationNo, count, price});
+        }
+        assertEquals(500, encoder.featureCount());
+
+        Layer layer = Layer.decode(encoder.encode());
+        assertEquals(2, layer.version);
+        assertEquals("points", layer.name);
+        assertEquals(MvtEncoder.DEFAULT_EXTENT, layer.extent);
+        assertEquals(List.of("location_no", "count", "price"), layer.keys);
+        assertEquals(expected.size(), layer.features.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            Object[] want = expected.get(i);
+            Feature feature = layer.features.get(i);
+            assertEquals(want[0], feature.id);
+            assertEquals(1, feature.type);
+            assertEquals(want[1], feature.x);
+            assertEquals(want[2], feature.y);
+
+            Map<String, Object> attributes = new HashMap<>();
+            for (int t = 0; t < feature.tags.size(); t += 2) {
+                attributes.put(layer.keys.get(feature.tags.get(t)), layer.values.get(feature.tags.get(t + 1)));
+            }
+            assertEquals(((Number) want[3]).longValue(), attributes.get("location_no"));
+            assertEquals(((Number) want[4]).longValue(), attributes.get("count"));
+            assertEquals(want[5], attributes.get("price"));
+            assertEquals(want[5] == null ? 2 : 3, attributes.size());
+        }
+
+        // 같은 값은 values 테이블에 한 번만 들어간다
+        assertEquals(layer.values.size(), new HashSet<>(layer.values).size());
+    }
+
+    @Test
+    @DisplayName("피처가 없어도 레이어 정보는 기록된다.")
+    void emptyLayer() {
+        Layer layer = Layer.decode(new MvtEncoder("empty", 512).encode());
+        assertEquals("empty", layer.name);
+        assertEquals(512, layer.extent);
+        assertTrue(layer.features.isEmpty());
+        assertTrue(layer.keys.isEmpty());
+    }
+
+    @Test
+    @DisplayName("지원하지 않는 속성 타입은 거부한다.")
+    void rejectsUnsupportedAttribute() {
+        MvtEncoder encoder = new MvtEncoder("points", MvtEncoder.DEFAULT_EXTENT, "name");
+        assertThrows(IllegalArgumentException.class, () -> encoder.addPoint(1, 0, 0, "text"));
+    }
+
+    // 테스트용 최소 protobuf 읽기 (vector-tile-spec 2.1 의 점 피처만)
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+        private final int end;
+
+        Reader(byte[] bytes, int from, int to) {
+            this.bytes = bytes;
+            this.position = from;
+            this.end = to;
+        }
+
+        boolean hasNext() {
+            return position < end;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = bytes[position++] & 0xFF;
+                value |= (long) (b & 0x7F) << shift;
+                if (b < 0x80) {
+                    return value;
+                }
+            }
+        }
+
+        long fixed64() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value |= (long) (bytes[position++] & 0xFF) << (i * 8);
+            }
+            return value;
+        }
+
+        Reader message() {
+            int length = (int) varint();
+            Reader message = new Reader(bytes, position, position + length);
+            position += length;
+            return message;
+        }
+
+        String string() {
+            int length = (int) varint();
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+
+    private static final class Layer {
+        int version;
+        String name;
+        int extent;
+        final List<String> keys = new ArrayList<>();
+        final List<Object> values = new ArrayList<>();
+        final List<Feature> features = new ArrayList<>();
+
+        static Layer decode(byte[] tile) {
+            Reader tileReader = new Reader(tile, 0, tile.length);
+            assertEquals((3 << 3) | 2, tileReader.varint());
+            Reader reader = tileReader.message();
+            assertFalse(tileReader.hasNext());
+
+            Layer layer = new Layer();
+            while (reader.hasNext()) {
+                long tag = reader.varint();
+                switch ((int) (tag >>> 3)) {
+                    case 15: layer.version = (int) reader.varint(); break;
+                    case 1: layer.name = reader.string(); break;
+                    case 2: layer.features.add(Feature.decode(reader.message())); break;
+                    case 3: layer.keys.add(reader.string()); break;
+                    case 4: layer.values.add(value(reader.message())); break;
+                    case 5: layer.extent = (int) reader.varint(); break;
+                    default: fail("unexpected layer field " + (tag >>> 3));
+                }
+            }
+            return layer;
+        }
+
+        private static Object value(Reader reader) {
+            long tag = reader.varint();
+            Object value;
+            if (tag == ((3 << 3) | 1)) {
+                value = Double.longBitsToDouble(reader.fixed64());
+            } else if (tag == (5 << 3)) {
+                value = reader.varint();
+            } else {
+                throw new AssertionError("unexpected value tag " + tag);
+            }
+            assertFalse(reader.hasNext());
+            return value;
+        }
+    }
+
+    private static final class Feature {
+        long id = -1;
+        int type;
+        int x;
+        int y;
+        final List<Integer> tags = new ArrayList<>();
+
+        static Feature decode(Reader reader) {
+            Feature feature = new Feature();
+            while (reader.hasNext()) {
+                long tag = reader.varint();
+                switch ((int) (tag >>> 3)) {
+                    case 1: feature.id = reader.varint(); break;
+                    case 2: {
+                        Reader tags = reader.message();
+                        while (tags.hasNext()) {
+                            feature.tags.add((int) tags.varint());
+                        }
+                        break;
+                    }
+                    case 3: feature.type = (int) reader.varint(); break;
+                    case 4: {
+                        Reader geometry = reader.message();
+                        assertEquals((1 << 3) | 1, geometry.varint()); // MoveTo, 1 회
+                        feature.x = unZigZag(geometry.varint());
+                        feature.y = unZigZag(geometry.varint());
+                        assertFalse(geometry.hasNext());
+                        break;
+                    }
+                    default: fail("unexpected feature field " + (tag >>> 3));
+                }
+            }
+            return feature;
+        }
+
+        private static int unZigZag(long value) {
+            return (int) (value >>> 1) ^ -(int) (value & 1);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package org.scoula.safety_inspection.codef;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EasyCodefConnectorTest {
+
+    private static final int FOLLOWERS = 4;
+
+    @Test
+    @DisplayName("같은 키의 동시 요청은 한 번만 보내고, 기다린 호출들은 각자의 응답 맵 복사본을 받는다.")
+    void followersShareSuccess() throws Exception {
+        AtomicInteger sent = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        EasyCodefConnector.Request stub = () -> {
+            sent.incrementAndGet();
+            started.countDown();
+            release.await();
+            return response("CF-00000", null);
+        };
+
+        FutureTask<EasyCodefResponse> leader = start(() -> EasyCodefConnector.coalesce("success", stub));
+        started.await();
+        List<FutureTask<EasyCodefResponse>> followers = startFollowers("success", stub);
+        release.countDown();
+
+        EasyCodefResponse leaderResponse = leader.get(10, TimeUnit.SECONDS);
+        for (FutureTask<EasyCodefResponse> follower : followers) {
+            EasyCodefResponse response = follower.get(10, TimeUnit.SECONDS);
+            assertEquals(leaderResponse, response);
+            assertNotSame(leaderResponse, response);
+        }
+        assertEquals(1, sent.get());
+    }
+
+    @Test
+    @DisplayName("먼저 보낸 요청의 예외는 기다린 호출들에도 그대로 전달된다.")
+    void followersShareError() throws Exception {
+        AtomicInteger sent = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        EasyCodefConnector.Request stub = () -> {
+            sent.incrementAndGet();
+            started.countDown();
+            release.await();
+            throw new IllegalStateException("boom");
+        };
+
+        FutureTask<EasyCodefResponse> leader = start(() -> EasyCodefConnector.coalesce("error", stub));
+        started.await();
+        List<FutureTask<EasyCodefResponse>> followers = startFollowers("error", stub);
+        release.countDown();
+
+        assertInstanceOf(IllegalStateException.class, cause(leader));
+        for (FutureTask<EasyCodefResponse> follower : followers) {
+            assertEquals("boom", cause(follower).getMessage());
+        }
+        assertEquals(1, sent.get());
+    }
+
+    @Test
+    @DisplayName("먼저 보낸 호출이 중단되면 기다린 호출이 다시 요청한다.")
+    void followerRetriesWhenLeaderInterrupted() throws Exception {
+        AtomicInteger sent = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        EasyCodefConnector.Request stub = () -> {
+            if (sent.incrementAndGet() == 1) {
+                started.countDown();
+                release.await();
+                throw new InterruptedException();
+            }
+            return response("CF-00000", null);
+        };
+
+        FutureTask<EasyCodefResponse> leader = start(() -> EasyCodefConnector.coalesce("interrupted", stub));
+        started.await();
+        FutureTask<EasyCodefResponse> follower = startFollower("interrupted", stub);
+        release.countDown();
+
+        assertInstanceOf(InterruptedException.class, cause(leader));
+        assertEquals("CF-00000", code(follower.get(10, TimeUnit.SECONDS)));
+        assertEquals(2, sent.get());
+    }
+
+    @Test
+    @DisplayName("추가인증 대기 (CF-03002) 응답은 나눠 받지 않고 기다린 호출마다 따로 요청한다.")
+    void twoWayPendingIsNotShared() throws Exception {
+        AtomicInteger sent = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        EasyCodefConnector.Request stub = () -> {
+            int n = sent.incrementAndGet();
+            if (n == 1) {
+                started.countDown();
+                release.await();
+            }
+            return response("CF-03002", "jti-" + n);
+        };
+
+        FutureTask<EasyCodefResponse> leader = start(() -> EasyCodefConnector.coalesce("two-way", stub));
+        started.await();
+        List<FutureTask<EasyCodefResponse>> followers = startFollowers("two-way", stub);
+        release.countDown();
+
+        List<Object> jtis = new ArrayList<>();
+        jtis.add(jti(leader.get(10, TimeUnit.SECONDS)));
+        for (FutureTask<EasyCodefResponse> follower : followers) {
+            Object jti = jti(follower.get(10, TimeUnit.SECONDS));
+            assertFalse(jtis.contains(jti));
+            jtis.add(jti);
+        }
+        assertEquals("jti-1", jtis.get(0));
+        assertEquals(1 + FOLLOWERS, sent.get());
+    }
+
+    private static EasyCodefResponse response(String code, String jti) {
+        EasyCodefResponse response = new EasyCodefResponse();
+        result(response).put(EasyCodefConstant.CODE, code);
+        if (jti != null) {
+            HashMap<String, Object> data = new HashMap<>();
+            data.put("jti", jti);
+            response.put(EasyCodefConstant.DATA, data);
+        }
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> result(EasyCodefResponse response) {
+        return (Map<String, Object>) response.get(EasyCodefConstant.RESULT);
+    }
+
+    private static Object code(EasyCodefResponse response) {
+        return result(response).get(EasyCodefConstant.CODE);
+    }
+
+    private static Object jti(EasyCodefResponse response) {
+        return ((Map<?, ?>) response.get(EasyCodefConstant.DATA)).get("jti");
+    }
+
+    private static List<FutureTask<EasyCodefResponse>> startFollowers(String key, EasyCodefConnector.Request stub) throws InterruptedException {
+        List<FutureTask<EasyCodefResponse>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(startFollower(key, stub));
+        }
+        return followers;
+    }
+
+    // 먼저 보낸 요청의 결과를 기다리기 시작할 때까지 (TIMED_WAITING) 기다린다
+    private static FutureTask<EasyCodefResponse> startFollower(String key, EasyCodefConnector.Request stub) throws InterruptedException {
+        FutureTask<EasyCodefResponse> task = new FutureTask<>(() -> EasyCodefConnector.coalesce(key, stub));
+        Thread thread = new Thread(task);
+        thread.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.nanoTime() < deadline, "follower did not start waiting");
+            Thread.sleep(1);
+        }
+        return task;
+    }
+
+    private static FutureTask<EasyCodefResponse> start(Callable<EasyCodefResponse> callable) {
+        FutureTask<EasyCodefResponse> task = new FutureTask<>(callable);
+        new Thread(task).start();
+        return task;
+    }
+
+    private static Throwable cause(FutureTask<EasyCodefResponse> task) throws Exception {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> task.get(10, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+}
@@ -0,0 +1,79 @@
+package org.scoula.safety_inspection.codef;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EasyCodefRequestKeyTest {
+
+    private static final String PRODUCT_URL = "/v1/kr/public/ck/real-estate-register/status";
+
+    @Test
+    @DisplayName("키 순서, 앞뒤 공백, 연속 공백, 빈 값과 관계없이 같은 조회 대상이면 같은 키를 만든다.")
+    void normalizesParameters() throws Exception {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("organization", "0002");
+        first.put("address", "서울특별시 강남구  역삼동 123");
+        first.put("dong", "101");
+        first.put("ho", "");
+
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("ho", "   ");
+        second.put("dong", 101);
+        second.put("address", "  서울특별시 강남구 역삼동\t123 ");
+        second.put("organization", "0002");
+        second.put("memo", null);
+
+        String key = EasyCodefRequestKey.of(PRODUCT_URL, 0, first);
+        assertEquals(key, EasyCodefRequestKey.of(PRODUCT_URL, 0, second));
+        assertEquals("0 " + PRODUCT_URL + " {\"address\":\"서울특별시 강남구 역삼동 123\",\"dong\":\"101\",\"organization\":\"0002\"}", key);
+    }
+
+    @Test
+    @DisplayName("서비스 타입, 상품 URL, 조회 대상 값이 다르면 다른 키를 만든다.")
+    void distinguishesRequests() throws Exception {
+        Map<String, Object> parameters = Map.of("organization", "0002", "uniqueNo", "11012011000001");
+        String key = EasyCodefRequestKey.of(PRODUCT_URL, 0, parameters);
+
+        assertNotEquals(key, EasyCodefRequestKey.of(PRODUCT_URL, 1, parameters));
+        assertNotEquals(key, EasyCodefRequestKey.of("/v1/kr/public/mw/building-register/general", 0, parameters));
+        assertNotEquals(key, EasyCodefRequestKey.of(PRODUCT_URL, 0, Map.of("organization", "0002", "uniqueNo", "11012011000002")));
+    }
+
+    @Test
+    @DisplayName("비밀번호, 선불 전자지급수단, 본인 정보 같은 인증용 값은 키에 넣지 않는다.")
+    void excludesCredentials() throws Exception {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("organization", "0002");
+        parameters.put("uniqueNo", "11012011000001");
+        String key = EasyCodefRequestKey.of(PRODUCT_URL, 0, parameters);
+
+        Map<String, Object> withCredentials = new HashMap<>(parameters);
+        String[] excluded = {"password", "ePrepayNo", "ePrepayPass", "phoneNo", "identity", "identityEncYn", "birthDate",
+                "userName", "signedData", "timeout", "secureNoTimeout"};
+        for (String name : excluded) {
+            withCredentials.put(name, "secret-" + name);
+        }
+        String credentialKey = EasyCodefRequestKey.of(PRODUCT_URL, 0, withCredentials);
+        assertEquals(key, credentialKey);
+        for (String name : excluded) {
+            assertFalse(credentialKey.contains(name), name);
+        }
+    }
+
+    @Test
+    @DisplayName("추가인증 요청, 중첩 값이 있는 요청, 파라미터가 없는 요청은 키를 만들지 않는다.")
+    void noKeyForUnmergeableRequests() throws Exception {
+        assertNull(EasyCodefRequestKey.of(PRODUCT_URL, 0, null));
+        assertNull(EasyCodefRequestKey.of(PRODUCT_URL, 0, Map.of("uniqueNo", "1", "is2Way", true)));
+        assertNull(EasyCodefRequestKey.of(PRODUCT_URL, 0, Map.of("uniqueNo", "1", "twoWayInfo", Map.of("jti", "abc"))));
+        assertNull(EasyCodefRequestKey.of(PRODUCT_URL, 0, Map.of("uniqueNo", "1", "accountList", List.of("a"))));
+        assertNull(EasyCodefRequestKey.of(PRODUCT_URL, 0, Map.of("uniqueNo", "1", "extra", Map.of("k", "v"))));
+    }
+}
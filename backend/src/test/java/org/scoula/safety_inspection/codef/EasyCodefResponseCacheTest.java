@@ -0,0 +1,45 @@
+package org.scoula.safety_inspection.codef;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EasyCodefResponseCacheTest {
+
+    private static final String REGISTER_URL = "/v1/kr/public/ck/real-estate-register/status";
+    private static final String LEDGER_URL = "/v1/kr/public/mw/building-register/general";
+
+    @Test
+    @DisplayName("고유번호로 발급하는 등기부등본은 캐시 키를 만들지 않는다.")
+    void noKeyForRegisterIssue() throws Exception {
+        EasyCodefResponseCache cache = new EasyCodefResponseCache(1024, Duration.ofMinutes(1), null);
+
+        Map<String, Object> issue = new HashMap<>();
+        issue.put("organization", "0002");
+        issue.put("inquiryType", "0");
+        issue.put("uniqueNo", "11012011000001");
+        assertNull(cache.key(REGISTER_URL, EasyCodefServiceType.DEMO, issue));
+    }
+
+    @Test
+    @DisplayName("주소로 고유번호를 찾는 조회와 다른 상품은 캐시 키를 만든다.")
+    void keyForLookups() throws Exception {
+        EasyCodefResponseCache cache = new EasyCodefResponseCache(1024, Duration.ofMinutes(1), null);
+
+        Map<String, Object> lookup = new HashMap<>();
+        lookup.put("organization", "0002");
+        lookup.put("inquiryType", "2");
+        lookup.put("addr_sido", "서울특별시");
+        lookup.put("addr_dong", "역삼동");
+        lookup.put("uniqueNo", " ");
+        assertNotNull(cache.key(REGISTER_URL, EasyCodefServiceType.DEMO, lookup));
+
+        Map<String, Object> ledger = Map.of("organization", "0008", "address", "서울특별시 강남구 역삼동 123", "uniqueNo", "1");
+        assertNotNull(cache.key(LEDGER_URL, EasyCodefServiceType.DEMO, ledger));
+    }
+}